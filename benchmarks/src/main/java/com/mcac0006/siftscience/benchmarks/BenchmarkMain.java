@@ -0,0 +1,28 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks like JMH's own launcher (same command line options), with the GC profiler always
+ * enabled so that every run reports allocation rates alongside throughput and latency percentiles.
+ *
+ * <pre><code>
+ * java -jar target/benchmarks.jar                        # everything
+ * java -jar target/benchmarks.jar SendBenchmark -t 16    # one suite, 16 threads
+ * </code></pre>
+ *
+ */
+public final class BenchmarkMain {
+
+	private BenchmarkMain() {}
+
+	public static void main(final String[] args) throws Exception {
+		new Runner(new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class).build()).run();
+	}
+}
@@ -0,0 +1,68 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mcac0006.siftscience.SiftScienceHelper;
+import com.mcac0006.siftscience.json.JsonBuffer;
+import com.mcac0006.siftscience.transport.GzipBody;
+
+/**
+ * The CPU cost of gzipping a serialized $create_order of growing size, at the fastest and the default
+ * deflate level. The bytes saved are printed once per trial, for weighing against the time taken.
+ *
+ * <pre><code>
+ * java -jar target/benchmarks.jar CompressionBenchmark
+ * </code></pre>
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+	@Param({ "1", "10", "50" })
+	public int items;
+
+	@Param({ "1", "6" })
+	public int level;
+
+	private byte[] envelope;
+
+	private JsonBuffer buffer;
+
+	@Setup
+	public void setup() throws IOException {
+
+		envelope = SiftScienceHelper.serialize(Fixtures.createOrder(items, 3)).getBytes("UTF-8");
+		buffer = new JsonBuffer();
+
+		new GzipBody(envelope, level).write(buffer);
+		System.out.printf("%n%d items: %d bytes, %d gzipped at level %d%n", items, envelope.length, buffer.size(), level);
+	}
+
+	@Benchmark
+	public int gzip() throws IOException {
+		buffer.reset();
+		new GzipBody(envelope, level).write(buffer);
+		return buffer.size();
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mcac0006.siftscience.SiftScienceHelper;
+import com.mcac0006.siftscience.result.domain.SiftScienceResponse;
+import com.mcac0006.siftscience.score.domain.SiftScienceScore;
+
+/**
+ * Parsing the two kinds of response Sift Science sends back: the event response (here one carrying a
+ * score, as returned when <code>return_action</code> is set) and the score response.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeserializationBenchmark {
+
+	private String response;
+
+	private String score;
+
+	private byte[] scoreBytes;
+
+	@Setup
+	public void setup() throws IOException {
+		response = resource("/response.json");
+		score = resource("/score.json");
+		scoreBytes = score.getBytes("UTF-8");
+	}
+
+	static String resource(final String name) throws IOException {
+
+		final InputStream in = DeserializationBenchmark.class.getResourceAsStream(name);
+		try {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			final byte[] chunk = new byte[4096];
+			int read;
+			while ((read = in.read(chunk)) != -1) {
+				out.write(chunk, 0, read);
+			}
+			return out.toString("UTF-8");
+		} finally {
+			in.close();
+		}
+	}
+
+	@Benchmark
+	public SiftScienceResponse deserializeResponse() throws IOException {
+		return SiftScienceHelper.deserializeResponse(response);
+	}
+
+	@Benchmark
+	public SiftScienceScore deserializeScore() throws IOException {
+		return SiftScienceHelper.deserializeScore(score);
+	}
+
+	/**
+	 * The score parsed off the bytes, as the client does with a response stream.
+	 */
+	@Benchmark
+	public SiftScienceScore deserializeScoreStream() throws IOException {
+		return SiftScienceHelper.deserializeScore(new ByteArrayInputStream(scoreBytes));
+	}
+}
@@ -0,0 +1,42 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mcac0006.siftscience.types.PaymentGateway;
+
+/**
+ * Resolving an enum from its Sift Science value, as done for every enum field of a deserialized envelope.
+ * {@link PaymentGateway} is the largest of the enums, so the gap between its first and last constant
+ * shows the cost of the lookup.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumResolutionBenchmark {
+
+	@Param({ "$stripe", "$paypal", "$worldpay", "$yandex_money" })
+	public String value;
+
+	@Benchmark
+	public PaymentGateway resolve() {
+		return PaymentGateway.resolve(value);
+	}
+}
@@ -0,0 +1,62 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mcac0006.siftscience.SiftScienceHelper;
+import com.mcac0006.siftscience.event.domain.Event;
+import com.mcac0006.siftscience.json.JsonBuffer;
+
+/**
+ * {@link SiftScienceHelper#serialize(Event)} and its streaming counterpart, for every event type.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+	@Param({ "$add_item_to_cart", "$create_account", "$create_content", "$create_order", "$custom", "$link_session_to_user",
+			"$login", "$logout", "$remove_item_from_cart", "$send_message", "$submit_review", "$transaction", "$update_account" })
+	public String eventType;
+
+	private Event event;
+
+	private JsonBuffer buffer;
+
+	@Setup
+	public void setup() {
+		event = Fixtures.event(eventType);
+		buffer = new JsonBuffer();
+	}
+
+	@Benchmark
+	public String serializeToString() throws IOException {
+		return SiftScienceHelper.serialize(event);
+	}
+
+	@Benchmark
+	public int serializeToStream() throws IOException {
+		buffer.reset();
+		SiftScienceHelper.serialize(event, buffer);
+		return buffer.size();
+	}
+}
@@ -0,0 +1,68 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mcac0006.siftscience.SiftScienceHelper;
+import com.mcac0006.siftscience.event.EventTemplate;
+import com.mcac0006.siftscience.event.domain.Login;
+import com.mcac0006.siftscience.json.JsonBuffer;
+import com.mcac0006.siftscience.types.LoginStatus;
+
+/**
+ * A $login made from a pre-encoded {@link EventTemplate} against the same $login serialized as an event.
+ *
+ * <pre><code>
+ * java -jar target/benchmarks.jar EventTemplateBenchmark
+ * </code></pre>
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventTemplateBenchmark {
+
+	private EventTemplate template;
+
+	private JsonBuffer buffer;
+
+	@Setup
+	public void setup() {
+		template = EventTemplate.builder("$login").apiKey("API_KEY").field("$login_status", LoginStatus.SUCCESS).build();
+		buffer = new JsonBuffer();
+	}
+
+	@Benchmark
+	public int serializedEvent() throws IOException {
+		final Login login = new Login().setUserId("billy_jones_301").setSessionId("gigtleqddo84l8cm15qe4il3q3")
+				.setLoginStatus(LoginStatus.SUCCESS);
+		login.setApiKey("API_KEY");
+		buffer.reset();
+		SiftScienceHelper.serialize(login, buffer);
+		return buffer.size();
+	}
+
+	@Benchmark
+	public int template() throws IOException {
+		buffer.reset();
+		template.write(buffer, "billy_jones_301", "gigtleqddo84l8cm15qe4il3q3", null);
+		return buffer.size();
+	}
+}
@@ -0,0 +1,153 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.benchmarks;
+
+import java.util.Calendar;
+
+import com.mcac0006.siftscience.event.domain.AddItemToCart;
+import com.mcac0006.siftscience.event.domain.CreateAccount;
+import com.mcac0006.siftscience.event.domain.CreateContent;
+import com.mcac0006.siftscience.event.domain.CreateOrder;
+import com.mcac0006.siftscience.event.domain.Custom;
+import com.mcac0006.siftscience.event.domain.Event;
+import com.mcac0006.siftscience.event.domain.LinkSessionToUser;
+import com.mcac0006.siftscience.event.domain.Login;
+import com.mcac0006.siftscience.event.domain.Logout;
+import com.mcac0006.siftscience.event.domain.RemoveItemFromCart;
+import com.mcac0006.siftscience.event.domain.SendMessage;
+import com.mcac0006.siftscience.event.domain.SubmitReview;
+import com.mcac0006.siftscience.event.domain.Transaction;
+import com.mcac0006.siftscience.event.domain.UpdateAccount;
+import com.mcac0006.siftscience.types.Address;
+import com.mcac0006.siftscience.types.Item;
+import com.mcac0006.siftscience.types.LoginStatus;
+import com.mcac0006.siftscience.types.PaymentGateway;
+import com.mcac0006.siftscience.types.PaymentMethod;
+import com.mcac0006.siftscience.types.PaymentType;
+import com.mcac0006.siftscience.types.SocialSignOnType;
+import com.mcac0006.siftscience.types.SubmissionStatus;
+import com.mcac0006.siftscience.types.TransactionStatus;
+import com.mcac0006.siftscience.types.TransactionType;
+import com.mcac0006.siftscience.types.VerificationStatus;
+
+/**
+ * Representative envelopes to benchmark against.
+ *
+ */
+public final class Fixtures {
+
+	private static final String USER_ID = "billy_jones_301";
+
+	private static final String SESSION_ID = "gigtleqddo84l8cm15qe4il3q3";
+
+	private Fixtures() {}
+
+	/**
+	 * @param type - the event's $type, e.g. <code>$create_order</code> (or <code>$custom</code> for a custom event).
+	 * @return a typical, fully filled event of that type.
+	 */
+	public static Event event(final String type) {
+
+		final Event event;
+		if ("$add_item_to_cart".equals(type)) {
+			event = new AddItemToCart().setUserId(USER_ID).setSessionId(SESSION_ID).setItem(item(0));
+		} else if ("$create_account".equals(type)) {
+			event = new CreateAccount().setUserId(USER_ID).setSessionId(SESSION_ID).setUserEmail("bill@gmail.com")
+					.setName("Bill Jones").setPhone("1-415-555-6040").setReferrerUserId("janejane101")
+					.setPaymentMethods(new PaymentMethod[] { paymentMethod() }).setBillingAddress(address())
+					.setSocialSignOnType(SocialSignOnType.TWITTER);
+		} else if ("$create_content".equals(type)) {
+			event = new CreateContent().setUserId(USER_ID).setSessionId(SESSION_ID).setContactEmail("bill@example.com")
+					.setContactPhone("1-415-555-6040").setSubject("2 Bedroom Apartment for Rent")
+					.setContent("Capitol Hill Seattle brand new condo. 2 bedrooms and 1 full bath.");
+		} else if ("$create_order".equals(type)) {
+			event = createOrder(3, 1);
+		} else if ("$custom".equals(type)) {
+			event = new Custom("make_call");
+			event.addCustomField("$user_id", USER_ID);
+			event.addCustomField("recipient_user_id", "marylee819");
+			event.addCustomField("call_duration", 4428);
+		} else if ("$link_session_to_user".equals(type)) {
+			event = new LinkSessionToUser().setUserId(USER_ID).setSessionId(SESSION_ID);
+		} else if ("$login".equals(type)) {
+			event = new Login().setUserId(USER_ID).setSessionId(SESSION_ID).setLoginStatus(LoginStatus.SUCCESS);
+		} else if ("$logout".equals(type)) {
+			event = new Logout().setUserId(USER_ID);
+		} else if ("$remove_item_from_cart".equals(type)) {
+			event = new RemoveItemFromCart().setUserId(USER_ID).setSessionId(SESSION_ID).setItem(item(0));
+		} else if ("$send_message".equals(type)) {
+			event = new SendMessage().setUserId(USER_ID).setSessionId(SESSION_ID).setRecipientUserId("512924123")
+					.setSubject("Subject line of the message.").setContent("Text content of message.");
+		} else if ("$submit_review".equals(type)) {
+			event = new SubmitReview().setUserId(USER_ID).setSessionId(SESSION_ID).setContent("Text content of submitted review goes here.")
+					.setReviewTitle("Title of Review Goes Here").setItemId("V4C3D5R2Z6").setReviewedUserId("billy123")
+					.setSubmissionStatus(SubmissionStatus.SUCCESS);
+		} else if ("$transaction".equals(type)) {
+			event = new Transaction().setUserId(USER_ID).setSessionId(SESSION_ID).setUserEmail("bill@gmail.com")
+					.setTransactionType(TransactionType.SALE).setTransactionStatus(TransactionStatus.SUCCESS)
+					.setAmount(506790000L).setCurrencyCode("USD").setOrderId("ORDER-123124124").setTransactionId("719637215")
+					.setBillingAddress(address()).setPaymentMethod(paymentMethod()).setShippingAddress(address())
+					.setSellerUserId("slinkys_emporium");
+		} else if ("$update_account".equals(type)) {
+			event = new UpdateAccount().setUserId(USER_ID).setChangedPassword(true).setUserEmail("bill@gmail.com")
+					.setName("Bill Jones").setPhone("1-415-555-6040").setReferrerUserId("janejane102")
+					.setPaymentMethods(new PaymentMethod[] { paymentMethod() }).setBillingAddress(address())
+					.setSocialSignOnType(SocialSignOnType.TWITTER);
+		} else {
+			throw new IllegalArgumentException(String.format("Unknown event type [%s].", type));
+		}
+		event.setApiKey("API_KEY_GOES_HERE");
+		return event;
+	}
+
+	public static Address address() {
+		final Address address = new Address();
+		address.setName("Bill Jones").setPhone("1-415-555-6041").setAddressLine1("2100 Main Street")
+				.setAddressLine2("Apt 3B").setCity("New London").setRegion("New Hampshire").setCountry("US").setZipCode("03257");
+		return address;
+	}
+
+	public static PaymentMethod paymentMethod() {
+		final PaymentMethod paymentMethod = new PaymentMethod();
+		paymentMethod.setPaymentType(PaymentType.CREDIT_CARD).setPaymentGateway(PaymentGateway.BRAINTREE)
+				.setCardBIN("542486").setCardLast4("4444").setAVSResultCode("Y").setCVVResultCode("M")
+				.setVerificationStatus(VerificationStatus.SUCCESS);
+		return paymentMethod;
+	}
+
+	public static Item item(final int i) {
+		final Item item = new Item();
+		item.setItemId("B004834GQO-" + i).setProductTitle("The Slanket Blanket-Texas Tea").setPrice(39990000L)
+				.setCurrency("USD").setQuantity(i + 1).setUpc("6786211451001").setSku("004834GQ").setBrand("Slanket")
+				.setManufacturer("Slanket").setCategory("Blankets & Throws").setTags(new String[] { "Awesome", "Wintertime specials" })
+				.setColor("Texas Tea").setSize("6 ft");
+		return item;
+	}
+
+	/**
+	 * @return a $create_order with the given number of items and payment methods, along with a couple of custom fields.
+	 */
+	public static CreateOrder createOrder(final int items, final int paymentMethods) {
+
+		final Item[] orderItems = new Item[items];
+		for (int i = 0; i < items; i++) {
+			orderItems[i] = item(i);
+		}
+		final PaymentMethod[] orderPaymentMethods = new PaymentMethod[paymentMethods];
+		for (int i = 0; i < paymentMethods; i++) {
+			orderPaymentMethods[i] = paymentMethod();
+		}
+
+		final CreateOrder order = new CreateOrder();
+		order.setUserId(USER_ID).setSessionId(SESSION_ID).setOrderId("ORDER-28168441")
+				.setUserEmail("bill@gmail.com").setAmount(115940000L).setCurrencyCode("USD").setBillingAddress(address())
+				.setShippingAddress(address()).setPaymentMethods(orderPaymentMethods).setExpeditedShipping(true)
+				.setItems(orderItems).setSellerUserId("slinkys_emporium");
+		order.setApiKey("API_KEY_GOES_HERE");
+		order.setTime(Calendar.getInstance());
+		order.addCustomField("digital_wallet", "apple_pay");
+		order.addCustomField("coupon_code", "dollarMadness");
+		return order;
+	}
+}
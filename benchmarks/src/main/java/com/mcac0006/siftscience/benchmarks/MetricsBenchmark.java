@@ -0,0 +1,51 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mcac0006.siftscience.metrics.Endpoint;
+import com.mcac0006.siftscience.metrics.InMemoryMetrics;
+import com.mcac0006.siftscience.metrics.Stage;
+
+/**
+ * What {@link InMemoryMetrics} adds to each event sent: one sample per stage, the body's size and the call's
+ * outcome. Run it with several threads to see how recording holds up under contention.
+ *
+ * <pre><code>
+ * java -jar target/benchmarks.jar MetricsBenchmark -t 8
+ * </code></pre>
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+	private final InMemoryMetrics metrics = new InMemoryMetrics();
+
+	@Benchmark
+	public void recordEvent() {
+		final long nanos = System.nanoTime() & 0xfffff;
+		metrics.onStage(Endpoint.EVENTS, "$login", Stage.SERIALIZE, nanos);
+		metrics.onBody(Endpoint.EVENTS, "$login", 180);
+		metrics.onStage(Endpoint.EVENTS, "$login", Stage.ENQUEUE, nanos);
+		metrics.onStage(Endpoint.EVENTS, "$login", Stage.REQUEST, nanos);
+		metrics.onStage(Endpoint.EVENTS, "$login", Stage.PARSE, nanos);
+		metrics.onCompleted(Endpoint.EVENTS, "$login", nanos, false);
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mcac0006.siftscience.SiftClient;
+import com.mcac0006.siftscience.event.domain.Event;
+import com.mcac0006.siftscience.result.domain.SiftScienceResponse;
+import com.mcac0006.siftscience.score.domain.SiftScienceScore;
+
+/**
+ * End to end: serializing, sending over a pooled keep-alive connection and parsing the reply, against a
+ * {@link StubServer} on the loopback interface.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class SendBenchmark {
+
+	@Param({ "$login", "$create_order", "$transaction" })
+	public String eventType;
+
+	private StubServer server;
+
+	private SiftClient client;
+
+	private Event event;
+
+	@Setup
+	public void setup() throws IOException {
+		server = new StubServer();
+		client = SiftClient.builder().apiKey("API_KEY_GOES_HERE").baseUrl(server.baseUrl()).build();
+		event = Fixtures.event(eventType);
+	}
+
+	@TearDown
+	public void teardown() {
+		client.close();
+		server.close();
+	}
+
+	@Benchmark
+	public SiftScienceResponse send() {
+		return client.send(event);
+	}
+
+	@Benchmark
+	public SiftScienceScore getScore() {
+		return client.getScore("billy_jones_301");
+	}
+}
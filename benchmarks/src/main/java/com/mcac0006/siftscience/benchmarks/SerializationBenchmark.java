@@ -0,0 +1,87 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.annotate.JsonSerialize.Inclusion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mcac0006.siftscience.SiftScienceHelper;
+import com.mcac0006.siftscience.event.domain.CreateOrder;
+import com.mcac0006.siftscience.json.JsonBuffer;
+import com.mcac0006.siftscience.json.JsonWriter;
+
+/**
+ * Hand-written event serializers against Jackson's annotation-driven bean serializer, for a $create_order
+ * of growing size.
+ *
+ * <pre><code>
+ * java -jar target/benchmarks.jar SerializationBenchmark
+ * </code></pre>
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@Param({ "1", "10", "50" })
+	public int items;
+
+	private CreateOrder order;
+
+	private ObjectMapper beanMapper;
+
+	private JsonWriter beanWriter;
+
+	private JsonBuffer buffer;
+
+	@Setup
+	public void setup() {
+
+		order = Fixtures.createOrder(items, 3);
+
+		// how the library serialized events before the hand-written serializers
+		beanMapper = new ObjectMapper();
+		beanMapper.setSerializationInclusion(Inclusion.NON_NULL);
+		beanWriter = new JsonWriter(beanMapper);
+
+		buffer = new JsonBuffer();
+	}
+
+	@Benchmark
+	public int beanSerializer() throws IOException {
+		buffer.reset();
+		beanWriter.write(order, buffer);
+		return buffer.size();
+	}
+
+	@Benchmark
+	public int handWrittenSerializer() throws IOException {
+		buffer.reset();
+		SiftScienceHelper.serialize(order, buffer);
+		return buffer.size();
+	}
+
+	@Benchmark
+	public String beanSerializerToString() throws IOException {
+		return beanMapper.writeValueAsString(order);
+	}
+}
@@ -0,0 +1,76 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A loopback HTTP server standing in for Sift Science: it reads the request body and replies straight away,
+ * so that what is measured is the client's own overhead.
+ *
+ */
+public class StubServer {
+
+	private static final byte[] EVENT_RESPONSE = "{\"status\":0,\"error_message\":\"OK\",\"time\":1454517138,\"request\":\"\"}"
+			.getBytes(StandardCharsets.UTF_8);
+
+	static {
+		// otherwise Nagle's algorithm holds back the response body until the client's delayed ACK of the headers
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+	}
+
+	private final HttpServer server;
+
+	private final ExecutorService executor;
+
+	private final byte[] scoreResponse;
+
+	public StubServer() throws IOException {
+
+		scoreResponse = DeserializationBenchmark.resource("/score.json").getBytes(StandardCharsets.UTF_8);
+
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 128);
+		executor = Executors.newFixedThreadPool(16);
+		server.setExecutor(executor);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(final HttpExchange exchange) throws IOException {
+
+				final InputStream in = exchange.getRequestBody();
+				final byte[] drain = new byte[4096];
+				while (in.read(drain) != -1) {
+					// discard
+				}
+				in.close();
+
+				final byte[] reply = exchange.getRequestURI().getPath().contains("/score/") ? scoreResponse : EVENT_RESPONSE;
+				exchange.getResponseHeaders().set("Content-Type", "application/json");
+				exchange.sendResponseHeaders(200, reply.length);
+				final OutputStream out = exchange.getResponseBody();
+				out.write(reply);
+				out.close();
+			}
+		});
+		server.start();
+	}
+
+	public String baseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + "/v203";
+	}
+
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,1683 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience;
+
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.AsyncInvoker;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.Variant;
+
+import org.codehaus.jackson.JsonProcessingException;
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.glassfish.jersey.client.ClientProperties;
+
+import com.mcac0006.siftscience.cache.ScoreCache;
+import com.mcac0006.siftscience.circuit.CircuitBreaker;
+import com.mcac0006.siftscience.circuit.CircuitBreakerConfig;
+import com.mcac0006.siftscience.circuit.CircuitState;
+import com.mcac0006.siftscience.circuit.ScoreFallback;
+import com.mcac0006.siftscience.event.EventTemplate;
+import com.mcac0006.siftscience.event.domain.Event;
+import com.mcac0006.siftscience.event.serializer.EventSerializerModule;
+import com.mcac0006.siftscience.exception.CircuitOpenException;
+import com.mcac0006.siftscience.exception.DeadlineExceededException;
+import com.mcac0006.siftscience.exception.HttpStatusException;
+import com.mcac0006.siftscience.exception.SiftScienceException;
+import com.mcac0006.siftscience.jmx.SiftClientStats;
+import com.mcac0006.siftscience.json.JsonWriter;
+import com.mcac0006.siftscience.label.domain.Label;
+import com.mcac0006.siftscience.metrics.Endpoint;
+import com.mcac0006.siftscience.metrics.SiftMetrics;
+import com.mcac0006.siftscience.metrics.Stage;
+import com.mcac0006.siftscience.result.SendResult;
+import com.mcac0006.siftscience.result.SiftStatus;
+import com.mcac0006.siftscience.result.domain.SiftScienceResponse;
+import com.mcac0006.siftscience.retry.RetryPolicy;
+import com.mcac0006.siftscience.score.domain.SiftScienceScore;
+import com.mcac0006.siftscience.transport.AdaptiveLimit;
+import com.mcac0006.siftscience.transport.AdaptiveLimitConfig;
+import com.mcac0006.siftscience.transport.CompressionConfig;
+import com.mcac0006.siftscience.transport.ConnectionPoolConfig;
+import com.mcac0006.siftscience.transport.Deadline;
+import com.mcac0006.siftscience.transport.GzipBody;
+import com.mcac0006.siftscience.transport.InFlightLimiter;
+import com.mcac0006.siftscience.transport.SiftTransport;
+import com.mcac0006.siftscience.transport.TokenBucket;
+
+/**
+ * A client to a single Sift Science account. Each client owns its transport (and connection pool),
+ * its JSON mapper, the endpoint it talks to, its timeouts and a default API key, so several
+ * differently tuned clients (e.g. one per tenant) can live side by side in the same JVM.
+ *
+ * <pre><code>
+ * SiftClient client = SiftClient.builder()
+ *     .apiKey("API_KEY_GOES_HERE")
+ *     .connectTimeout(1, TimeUnit.SECONDS)
+ *     .readTimeout(2, TimeUnit.SECONDS)
+ *     .build();
+ *
+ * SiftScienceResponse response = client.send(event);
+ * SiftScienceScore score = client.getScore("mcac0006");
+ * ...
+ * client.close(); // when your application shuts down
+ * </code></pre>
+ *
+ * Clients are thread-safe and meant to be long-lived; create one per account and share it.
+ *
+ * Every request is bounded by the client's connect and read timeouts, and may be bounded further by a
+ * per-call {@link Deadline}, which covers the whole call, retries and time spent waiting for a slot included.
+ *
+ * Every operation comes in a blocking flavour and a non-blocking <code>...Async</code> flavour returning a
+ * {@link CompletableFuture}. Either way, no more than {@link Builder#maxInFlight(int)} requests are on
+ * the wire at once; asynchronous requests beyond that are parked until a slot frees up.
+ *
+ * To ride out bursts (e.g. flash sales) without being throttled, a client can also pace the requests
+ * of each API key ({@link Builder#rateLimit(double, int)}) and work out its in-flight limit from how
+ * Sift Science copes ({@link Builder#adaptiveConcurrency(AdaptiveLimitConfig)}). Requests which fail for a
+ * passing reason can be sent again under a {@link RetryPolicy} ({@link Builder#retryPolicy(RetryPolicy)}),
+ * and a {@link CircuitBreaker} ({@link Builder#circuitBreaker(CircuitBreakerConfig)}) makes requests fail
+ * fast, or scores fall back on a {@link ScoreFallback}, while Sift Science is down.
+ *
+ */
+public class SiftClient implements Closeable {
+
+	public static final String DEFAULT_BASE_URL = "https://api.siftscience.com/v203";
+
+	public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 3000;
+
+	public static final int DEFAULT_READ_TIMEOUT_MILLIS = 10000;
+
+	private static final String GZIP = "gzip";
+
+	private static final Variant GZIPPED_JSON = new Variant(MediaType.APPLICATION_JSON_TYPE, (Locale)null, GZIP);
+
+	private final String apiKey;
+
+	private final String baseUrl;
+
+	private final ObjectMapper mapper;
+
+	private final JsonWriter writer;
+
+	/**
+	 * How request bodies are compressed, or <code>null</code> if they are sent as they are.
+	 */
+	private final CompressionConfig compression;
+
+	private final SiftTransport transport;
+
+	/**
+	 * Whether the transport was created by (and should hence be closed with) this client.
+	 */
+	private final boolean ownsTransport;
+
+	private final int connectTimeoutMillis;
+
+	private final int readTimeoutMillis;
+
+	private final int maxInFlight;
+
+	private final InFlightLimiter limiter;
+
+	/**
+	 * Moves the limiter's limit, or <code>null</code> if it stays put at {@link #maxInFlight}.
+	 */
+	private final AdaptiveLimit adaptiveLimit;
+
+	/**
+	 * The requests per second allowed for each API key, or zero for no limit.
+	 */
+	private final double rateLimit;
+
+	private final int rateBurst;
+
+	private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<String, TokenBucket>();
+
+	/**
+	 * Sends failed requests again, or <code>null</code> if they are handed straight back.
+	 */
+	private final RetryPolicy retryPolicy;
+
+	/**
+	 * Fails requests straight away while Sift Science is failing, or <code>null</code> if they are always sent.
+	 */
+	private final CircuitBreaker circuitBreaker;
+
+	/**
+	 * Answers for Sift Science when scores are asked for while the circuit is open, or <code>null</code>.
+	 */
+	private final ScoreFallback scoreFallback;
+
+	/**
+	 * Serves repeated score requests for a user, or <code>null</code> if every score is asked of Sift Science.
+	 */
+	private final ScoreCache scoreCache;
+
+	/**
+	 * The score requests on the wire, by API key and user, which concurrent requests for the same score
+	 * wait on rather than sending their own; <code>null</code> if each is sent on its own.
+	 */
+	private final ConcurrentMap<String, CompletableFuture<SiftScienceScore>> scoreFlights;
+
+	/**
+	 * <code>null</code> unless configured.
+	 */
+	private final SiftMetrics metrics;
+
+	/**
+	 * <code>null</code> unless registered with JMX.
+	 */
+	private final SiftClientStats stats;
+
+	private final ObjectName objectName;
+
+	/**
+	 * Starts requests held back by their API key's rate limit or waiting to be retried, and fails calls which
+	 * run past their deadline. Created on first use.
+	 */
+	private ScheduledThreadPoolExecutor scheduler;
+
+	private boolean closed;
+
+	private SiftClient(final Builder builder) {
+		this.apiKey = builder.apiKey;
+		this.baseUrl = builder.baseUrl;
+		if (builder.mapper != null) {
+			this.mapper = builder.mapper;
+		} else {
+			this.mapper = EventSerializerModule.newObjectMapper();
+			this.mapper.configure(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES, !builder.lenient);
+			if (!builder.echoedRequests) {
+				this.mapper.getDeserializationConfig().addMixInAnnotations(SiftScienceResponse.class,
+						SiftScienceResponse.WithoutRequest.class);
+			}
+		}
+		this.writer = new JsonWriter(mapper);
+		this.compression = builder.compression;
+		this.metrics = builder.metrics;
+		this.ownsTransport = builder.transport == null;
+		this.transport = ownsTransport ? new SiftTransport(builder.poolConfig) : builder.transport;
+		this.connectTimeoutMillis = builder.connectTimeoutMillis;
+		this.readTimeoutMillis = builder.readTimeoutMillis;
+		this.maxInFlight = builder.maxInFlight > 0 ? builder.maxInFlight : transport.getMaxPerRoute();
+		if (builder.adaptiveLimitConfig != null) {
+			this.adaptiveLimit = new AdaptiveLimit(builder.adaptiveLimitConfig, maxInFlight);
+			this.limiter = new InFlightLimiter(adaptiveLimit.getLimit());
+		} else {
+			this.adaptiveLimit = null;
+			this.limiter = new InFlightLimiter(maxInFlight);
+		}
+		this.rateLimit = builder.rateLimit;
+		this.rateBurst = builder.rateBurst;
+		this.retryPolicy = builder.retryPolicy;
+		this.circuitBreaker = builder.circuitBreakerConfig != null ? new CircuitBreaker(builder.circuitBreakerConfig) : null;
+		this.scoreFallback = builder.scoreFallback;
+		this.scoreCache = builder.scoreCache;
+		this.scoreFlights = builder.coalesceScores ? new ConcurrentHashMap<String, CompletableFuture<SiftScienceScore>>() : null;
+		if (builder.jmxName != null) {
+			this.stats = new SiftClientStats(this);
+			try {
+				this.objectName = new ObjectName("com.mcac0006.siftscience:type=SiftClient,name=" + ObjectName.quote(builder.jmxName));
+				ManagementFactory.getPlatformMBeanServer().registerMBean(stats, objectName);
+			} catch (JMException e) {
+				if (ownsTransport) {
+					transport.close();
+				}
+				throw new SiftScienceException(String.format("Could not register the client with JMX as [%s].", builder.jmxName), e);
+			}
+		} else {
+			this.stats = null;
+			this.objectName = null;
+		}
+	}
+
+	private synchronized ScheduledThreadPoolExecutor scheduler() {
+
+		if (closed) {
+			throw new RejectedExecutionException("The client has been closed.");
+		}
+		if (scheduler == null) {
+			scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable r) {
+					final Thread t = new Thread(r, "sift-client-scheduler");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+			scheduler.setRemoveOnCancelPolicy(true); // deadline timers are mostly cancelled well before they are due
+		}
+		return scheduler;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Sends an event ($transaction, $create_account, etc ...) to Sift Science.
+	 *
+	 * @param event - the content regarding the user (or session) in question. If it carries no API key,
+	 *                the client's API key is set on it.
+	 * @return the Sift Science response which denotes whether the request has been processed successfully or not.
+	 */
+	public SiftScienceResponse send(final Event event) {
+		return send(event, false);
+	}
+
+	/**
+	 * Sends an event ($transaction, $create_account, etc ...) to Sift Science.
+	 *
+	 * @param event - the content regarding the user (or session) in question. If it carries no API key,
+	 *                the client's API key is set on it.
+	 * @param returnAction - whether or not Sift should return a score and actions for the event
+	 * @return the Sift Science response which denotes whether the request has been processed successfully or not.
+	 */
+	public SiftScienceResponse send(final Event event, final boolean returnAction) {
+		return await(sendAsync(event, returnAction));
+	}
+
+	/**
+	 * Sends an event, giving up once the deadline has passed.
+	 *
+	 * @throws DeadlineExceededException if Sift Science has not responded by the deadline.
+	 * @see #send(Event)
+	 */
+	public SiftScienceResponse send(final Event event, final Deadline deadline) {
+		return await(sendAsync(event, false, deadline));
+	}
+
+	/**
+	 * Sends an event and gets back the user's score as it stands after the event, in a single round-trip
+	 * rather than a {@link #send(Event)} followed by a {@link #getScore(String)}. The score goes into the
+	 * client's {@link ScoreCache} and {@link ScoreFallback}, if any, as though it had been asked for.
+	 *
+	 * @param event - the content regarding the user in question.
+	 * @return the user's score, with as many attempts as it took to send the event.
+	 * @throws SiftScienceException if Sift Science did not score the event, e.g. as it was rejected.
+	 */
+	public SiftScienceScore sendAndScore(final Event event) {
+		return await(sendAndScoreAsync(event, null));
+	}
+
+	/**
+	 * Sends an event and gets back the user's score, giving up once the deadline has passed.
+	 *
+	 * @throws DeadlineExceededException if Sift Science has not responded by the deadline.
+	 * @see #sendAndScore(Event)
+	 */
+	public SiftScienceScore sendAndScore(final Event event, final Deadline deadline) {
+		return await(sendAndScoreAsync(event, deadline));
+	}
+
+	/**
+	 * Sends a Label ($label) to Sift Science.
+	 *
+	 * @param userId - the user in question
+	 * @param label - the content regarding the user in question. If it carries no API key, the client's
+	 *                API key is set on it.
+	 * @return the Sift Science response which denotes whether the request has been processed successfully or not.
+	 */
+	public SiftScienceResponse send(final String userId, final Label label) {
+		return await(sendAsync(userId, label));
+	}
+
+	/**
+	 * Sends a label, giving up once the deadline has passed.
+	 *
+	 * @throws DeadlineExceededException if Sift Science has not responded by the deadline.
+	 * @see #send(String, Label)
+	 */
+	public SiftScienceResponse send(final String userId, final Label label, final Deadline deadline) {
+		return await(sendAsync(userId, label, deadline));
+	}
+
+	/**
+	 * Retrieve a risk assessment of a particular user using this client's API key.
+	 *
+	 * @param userId - the user would you like to run a risk assessment on.
+	 * @return a Sift Science score wrapped in a {@link SiftScienceScore} instance.
+	 * @see #getScore(String, String)
+	 */
+	public SiftScienceScore getScore(final String userId) {
+		return getScore(apiKey, userId);
+	}
+
+	/**
+	 * Retrieve a risk assessment of a particular user. This is particularly useful to consult with Sift Science
+	 * before you proceed with any (user-invoked or system-invoked) operations (such as a purchase) on that user.
+	 *
+	 * @param apiKey - the api key to denote which Sift Science account to use.
+	 * @param userId - the user would you like to run a risk assessment on.
+	 *
+	 * @return a Sift Science score wrapped in a {@link SiftScienceScore} instance containing information such as the
+	 *         fraud score and the reason.
+	 *
+	 *         Refer to the class' JavaDocs for more information.
+	 */
+	public SiftScienceScore getScore(final String apiKey, final String userId) {
+		return await(getScoreAsync(apiKey, userId));
+	}
+
+	/**
+	 * Retrieves a risk assessment of a particular user using this client's API key, giving up once the
+	 * deadline has passed.
+	 *
+	 * @throws DeadlineExceededException if Sift Science has not responded by the deadline.
+	 * @see #getScore(String, String)
+	 */
+	public SiftScienceScore getScore(final String userId, final Deadline deadline) {
+		return await(getScoreAsync(apiKey, userId, deadline));
+	}
+
+	/**
+	 * Retrieves a risk assessment of a particular user, giving up once the deadline has passed.
+	 *
+	 * @throws DeadlineExceededException if Sift Science has not responded by the deadline.
+	 * @see #getScore(String, String)
+	 */
+	public SiftScienceScore getScore(final String apiKey, final String userId, final Deadline deadline) {
+		return await(getScoreAsync(apiKey, userId, deadline));
+	}
+
+	/**
+	 * Asynchronous counterpart of {@link #send(Event)}. The event is serialized straight into the request
+	 * body as it is sent, so it must not be modified until the future completes.
+	 *
+	 * @return a future completed with Sift Science's response, or exceptionally with a {@link SiftScienceException}
+	 *         (malformed content) or a {@link javax.ws.rs.ProcessingException} (transport failure).
+	 */
+	public CompletableFuture<SiftScienceResponse> sendAsync(final Event event) {
+		return sendAsync(event, false);
+	}
+
+	/**
+	 * Asynchronous counterpart of {@link #send(Event, boolean)}. The event is serialized straight into the
+	 * request body as it is sent, so it must not be modified until the future completes.
+	 *
+	 * @return a future completed with Sift Science's response, or exceptionally with a {@link SiftScienceException}
+	 *         (malformed content) or a {@link javax.ws.rs.ProcessingException} (transport failure).
+	 */
+	public CompletableFuture<SiftScienceResponse> sendAsync(final Event event, final boolean returnAction) {
+		return sendAsync(event, returnAction, null);
+	}
+
+	/**
+	 * Asynchronous counterpart of {@link #send(Event, Deadline)}.
+	 *
+	 * @param deadline - when to give up on the event, failing the future with a {@link DeadlineExceededException};
+	 *                   <code>null</code> for no deadline beyond the client's timeouts.
+	 */
+	public CompletableFuture<SiftScienceResponse> sendAsync(final Event event, final boolean returnAction, final Deadline deadline) {
+
+		if (event.getApiKey() == null) {
+			event.setApiKey(apiKey);
+		}
+		final Call call = call(Endpoint.EVENTS, event.getEventType());
+		final Entity<?> body = json(event, call);
+		if (scoreCache != null && scoreCache.invalidates(event)) {
+			return invalidating(event.getApiKey(), ScoreCache.userIdOf(event),
+					execute(events(returnAction), HttpMethod.POST, body, SiftScienceResponse.class, event.getApiKey(), deadline, call));
+		}
+		return execute(events(returnAction), HttpMethod.POST, body, SiftScienceResponse.class, event.getApiKey(), deadline, call);
+	}
+
+	/**
+	 * Asynchronous counterpart of {@link #sendAndScore(Event, Deadline)}.
+	 *
+	 * @param deadline - when to give up on the event, failing the future with a {@link DeadlineExceededException};
+	 *                   <code>null</code> for no deadline beyond the client's timeouts.
+	 */
+	public CompletableFuture<SiftScienceScore> sendAndScoreAsync(final Event event, final Deadline deadline) {
+
+		final CompletableFuture<SiftScienceScore> result = new CompletableFuture<SiftScienceScore>();
+		sendAsync(event, true, deadline).whenComplete(new BiConsumer<SiftScienceResponse, Throwable>() {
+			@Override
+			public void accept(final SiftScienceResponse response, final Throwable t) {
+
+				if (t != null) {
+					result.completeExceptionally(t);
+					return;
+				}
+				final SiftScienceScore score = response.getScoreResponse();
+				if (score == null) {
+					result.completeExceptionally(new SiftScienceException(String.format(
+							"Sift Science did not score the event, status [%d]: %s.", response.getStatus(), response.getError_message())));
+					return;
+				}
+				score.setAttempts(response.getAttempts());
+				final String userId = score.getUserId() != null ? score.getUserId() : ScoreCache.userIdOf(event);
+				if (userId != null) {
+					if (scoreCache != null) {
+						scoreCache.put(event.getApiKey(), userId, score, System.nanoTime());
+					}
+					if (scoreFallback != null) {
+						scoreFallback.onScore(event.getApiKey(), userId, score);
+					}
+				}
+				result.complete(score);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Sends many events (e.g. a backfill of historical events carrying a <code>$time</code>), keeping up to
+	 * {@link Builder#maxInFlight(int)} of them on the wire at once over the client's keep-alive connections.
+	 *
+	 * @param events - the events to send; read lazily, as room frees up.
+	 * @return one result per event, in the order the events were given. A failed event does not stop the rest.
+	 */
+	public List<SendResult> sendAll(final Iterable<? extends Event> events) {
+		return sendAll(events.iterator(), maxInFlight);
+	}
+
+	/**
+	 * @param parallelism - the most events to have on the wire at once (though never more than
+	 *                      {@link Builder#maxInFlight(int)}).
+	 * @see #sendAll(Iterable)
+	 */
+	public List<SendResult> sendAll(final Iterable<? extends Event> events, final int parallelism) {
+		return sendAll(events.iterator(), parallelism);
+	}
+
+	/**
+	 * @see #sendAll(Iterable)
+	 */
+	public List<SendResult> sendAll(final Stream<? extends Event> events) {
+		return sendAll(events.iterator(), maxInFlight);
+	}
+
+	/**
+	 * @see #sendAll(Iterable, int)
+	 */
+	public List<SendResult> sendAll(final Stream<? extends Event> events, final int parallelism) {
+		return sendAll(events.iterator(), parallelism);
+	}
+
+	private List<SendResult> sendAll(final Iterator<? extends Event> events, final int parallelism) {
+
+		if (parallelism < 1) {
+			throw new IllegalArgumentException(String.format("Parallelism must be positive, was [%d].", parallelism));
+		}
+
+		// the window keeps the caller from pulling (and the limiter from parking) more events than can be sent
+		final Semaphore window = new Semaphore(parallelism);
+		final List<Event> sent = new ArrayList<Event>();
+		final List<CompletableFuture<SiftScienceResponse>> responses = new ArrayList<CompletableFuture<SiftScienceResponse>>();
+		while (events.hasNext()) {
+			final Event event = events.next();
+			try {
+				window.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SiftScienceException("Interrupted while sending events.", e);
+			}
+			final CompletableFuture<SiftScienceResponse> response = sendAsync(event);
+			response.whenComplete(new BiConsumer<SiftScienceResponse, Throwable>() {
+				@Override
+				public void accept(final SiftScienceResponse r, final Throwable t) {
+					window.release();
+				}
+			});
+			sent.add(event);
+			responses.add(response);
+		}
+
+		final List<SendResult> results = new ArrayList<SendResult>(responses.size());
+		for (int i = 0; i < responses.size(); i++) {
+			try {
+				results.add(new SendResult(sent.get(i), responses.get(i).join(), null));
+			} catch (CompletionException e) {
+				results.add(new SendResult(sent.get(i), null, e.getCause()));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * @return a builder of templates for events of the given type, carrying this client's API key and
+	 *         serializing their fixed fields with this client's mapper.
+	 */
+	public EventTemplate.Builder template(final String eventType) {
+		return EventTemplate.builder(eventType).apiKey(apiKey).mapper(mapper);
+	}
+
+	/**
+	 * Sends an event made from a template.
+	 *
+	 * @param userId - the user the event is about, or <code>null</code> to leave it out.
+	 * @param sessionId - the user's session, or <code>null</code> to leave it out.
+	 * @param time - when the event took place, or <code>null</code> for when Sift Science receives it.
+	 * @return the Sift Science response which denotes whether the request has been processed successfully or not.
+	 */
+	public SiftScienceResponse send(final EventTemplate template, final String userId, final String sessionId, final Calendar time) {
+		return await(sendAsync(template, userId, sessionId, time));
+	}
+
+	/**
+	 * Asynchronous counterpart of {@link #send(EventTemplate, String, String, Calendar)}.
+	 */
+	public CompletableFuture<SiftScienceResponse> sendAsync(final EventTemplate template, final String userId,
+			final String sessionId, final Calendar time) {
+
+		final String key = template.getApiKey() != null ? template.getApiKey() : apiKey;
+		final Call call = call(Endpoint.EVENTS, template.getEventType());
+		final long start = System.nanoTime();
+		final byte[] rendered = template.render(userId, sessionId, time);
+		stage(call, Stage.SERIALIZE, start);
+		final Entity<?> body = json(rendered, call);
+		if (scoreCache != null && userId != null && scoreCache.invalidates(template.getEventType())) {
+			return invalidating(key, userId, execute(events(false), HttpMethod.POST, body, SiftScienceResponse.class, key, null, call));
+		}
+		return execute(events(false), HttpMethod.POST, body, SiftScienceResponse.class, key, null, call);
+	}
+
+	/**
+	 * Sends an event which has already been serialized, e.g. one read back from an
+	 * {@link com.mcac0006.siftscience.spool.EventSpool}.
+	 *
+	 * @param serializedEvent - the event's JSON envelope, as produced by {@link #serialize(Event)}.
+	 * @return the Sift Science response which denotes whether the request has been processed successfully or not.
+	 */
+	public SiftScienceResponse sendSerialized(final byte[] serializedEvent) {
+		return await(sendSerializedAsync(serializedEvent, false));
+	}
+
+	/**
+	 * Asynchronous counterpart of {@link #sendSerialized(byte[])}.
+	 *
+	 * @param serializedEvent - the event's JSON envelope, as produced by {@link #serialize(Event)}.
+	 * @param returnAction - whether or not Sift should return a score and actions for the event
+	 */
+	public CompletableFuture<SiftScienceResponse> sendSerializedAsync(final byte[] serializedEvent, final boolean returnAction) {
+
+		final Call call = call(Endpoint.EVENTS, null);
+		return execute(events(returnAction), HttpMethod.POST, json(serializedEvent, call), SiftScienceResponse.class, apiKey, null, call);
+	}
+
+	private WebTarget events(final boolean returnAction) {
+		final WebTarget target = transport.target(baseUrl).path("events");
+		return returnAction ? target.queryParam("return_action", "true") : target;
+	}
+
+	/**
+	 * Serializes an event as a UTF-8 JSON envelope, ready to be sent to Sift Science. If the event carries
+	 * no API key, the client's API key is set on it first.
+	 *
+	 * @param event - the filled event POJO, ready to be serialized
+	 * @return the event in JSON form.
+	 * @throws SiftScienceException if the event could not be serialized.
+	 */
+	public byte[] serialize(final Event event) {
+
+		if (event.getApiKey() == null) {
+			event.setApiKey(apiKey);
+		}
+		try {
+			return writer.toBytes(event);
+		} catch (IOException e) {
+			throw new SiftScienceException("Error generating JSON content to send event.", e);
+		}
+	}
+
+	/**
+	 * Serializes an event as a UTF-8 JSON envelope onto a stream, without building it up in memory first.
+	 * If the event carries no API key, the client's API key is set on it first.
+	 *
+	 * @param event - the filled event POJO, ready to be serialized
+	 * @param out - where to write the JSON to; it is flushed, but not closed.
+	 * @throws IOException if the event could not be serialized, or the stream could not be written to.
+	 */
+	public void serialize(final Event event, final OutputStream out) throws IOException {
+
+		if (event.getApiKey() == null) {
+			event.setApiKey(apiKey);
+		}
+		writer.write(event, out);
+	}
+
+	/**
+	 * Asynchronous counterpart of {@link #send(String, Label)}. The label is serialized straight into the
+	 * request body as it is sent, so it must not be modified until the future completes.
+	 *
+	 * @return a future completed with Sift Science's response, or exceptionally with a {@link SiftScienceException}
+	 *         (malformed content) or a {@link javax.ws.rs.ProcessingException} (transport failure).
+	 */
+	public CompletableFuture<SiftScienceResponse> sendAsync(final String userId, final Label label) {
+		return sendAsync(userId, label, null);
+	}
+
+	/**
+	 * Asynchronous counterpart of {@link #send(String, Label, Deadline)}.
+	 *
+	 * @param deadline - when to give up on the label, failing the future with a {@link DeadlineExceededException};
+	 *                   <code>null</code> for no deadline beyond the client's timeouts.
+	 */
+	public CompletableFuture<SiftScienceResponse> sendAsync(final String userId, final Label label, final Deadline deadline) {
+
+		if (label.getApiKey() == null) {
+			label.setApiKey(apiKey);
+		}
+
+		final WebTarget target = transport.target(baseUrl).path("users").path(userId).path("labels");
+		final Call call = call(Endpoint.LABELS, null);
+		final Entity<?> body = json(label, call);
+		if (scoreCache != null) {
+			return invalidating(label.getApiKey(), userId,
+					execute(target, HttpMethod.POST, body, SiftScienceResponse.class, label.getApiKey(), deadline, call));
+		}
+		return execute(target, HttpMethod.POST, body, SiftScienceResponse.class, label.getApiKey(), deadline, call);
+	}
+
+	/**
+	 * Drops the user's cached score now, and again once the request completes, so that no score fetched
+	 * while Sift Science was taking in the request outlives it.
+	 */
+	private <T> CompletableFuture<T> invalidating(final String apiKey, final String userId, final CompletableFuture<T> request) {
+
+		scoreCache.invalidate(apiKey, userId);
+		final CompletableFuture<T> result = new CompletableFuture<T>();
+		request.whenComplete(new BiConsumer<T, Throwable>() {
+			@Override
+			public void accept(final T value, final Throwable t) {
+				scoreCache.invalidate(apiKey, userId);
+				if (t != null) {
+					result.completeExceptionally(t);
+				} else {
+					result.complete(value);
+				}
+			}
+		});
+		return result;
+	}
+
+	private Entity<?> json(final Object envelope, final Call call) {
+
+		if (compression != null) {
+			try {
+				final long start = System.nanoTime();
+				final byte[] serialized = writer.toBytes(envelope);
+				stage(call, Stage.SERIALIZE, start);
+				return json(serialized, call); // compressing or not depends on the size
+			} catch (IOException e) {
+				// fall through, so that streaming it fails the request as it would without compression
+			}
+		}
+		final StreamingOutput body = writer.streaming(envelope);
+		return Entity.entity(call != null && metrics != null ? measured(body, call) : body, MediaType.APPLICATION_JSON_TYPE);
+	}
+
+	/**
+	 * @return the serialized envelope as a request body, gzipped as it is sent if it is large enough.
+	 */
+	private Entity<?> json(final byte[] envelope, final Call call) {
+
+		if (call != null && metrics != null) {
+			metrics.onBody(call.endpoint, call.eventType, envelope.length);
+		}
+		if (compression != null && envelope.length >= compression.getThresholdBytes()) {
+			return Entity.entity(new GzipBody(envelope, compression.getLevel()), GZIPPED_JSON);
+		}
+		return Entity.entity(envelope, MediaType.APPLICATION_JSON_TYPE);
+	}
+
+	/**
+	 * Asynchronous counterpart of {@link #getScore(String)}.
+	 */
+	public CompletableFuture<SiftScienceScore> getScoreAsync(final String userId) {
+		return getScoreAsync(apiKey, userId);
+	}
+
+	/**
+	 * Asynchronous counterpart of {@link #getScore(String, String)}.
+	 *
+	 * @return a future completed with the score, or exceptionally with a {@link SiftScienceException}
+	 *         (malformed content) or a {@link javax.ws.rs.ProcessingException} (transport failure).
+	 */
+	public CompletableFuture<SiftScienceScore> getScoreAsync(final String apiKey, final String userId) {
+		return getScoreAsync(apiKey, userId, null);
+	}
+
+	/**
+	 * Asynchronous counterpart of {@link #getScore(String, String, Deadline)}.
+	 *
+	 * Unless {@link Builder#coalesceScores(boolean) turned off}, a request for a score which is already being
+	 * asked of Sift Science waits for that request instead of sending its own, and gets a copy of its score
+	 * (with zero attempts). The shared request is bound by the deadline of whoever sent it, and each waiting
+	 * request by its own deadline on top; a waiting request whose own deadline has not passed when the shared
+	 * one runs out of time asks again for itself.
+	 *
+	 * @param deadline - when to give up on the score, failing the future with a {@link DeadlineExceededException};
+	 *                   <code>null</code> for no deadline beyond the client's timeouts.
+	 */
+	public CompletableFuture<SiftScienceScore> getScoreAsync(final String apiKey, final String userId, final Deadline deadline) {
+
+		if (scoreCache != null) {
+			final SiftScienceScore cached = scoreCache.get(apiKey, userId);
+			if (cached != null) {
+				return CompletableFuture.completedFuture(cached);
+			}
+		}
+		if (scoreFlights == null) {
+			return fetchScore(apiKey, userId, deadline);
+		}
+
+		final String key = apiKey + '\u0000' + userId;
+		final CompletableFuture<SiftScienceScore> flight = new CompletableFuture<SiftScienceScore>();
+		final CompletableFuture<SiftScienceScore> ongoing = scoreFlights.putIfAbsent(key, flight);
+		if (ongoing != null) {
+			final CompletableFuture<SiftScienceScore> joined = new CompletableFuture<SiftScienceScore>();
+			ongoing.whenComplete(new BiConsumer<SiftScienceScore, Throwable>() {
+				@Override
+				public void accept(final SiftScienceScore s, final Throwable t) {
+					final Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+					if (cause instanceof DeadlineExceededException && (deadline == null || !deadline.isExpired())) {
+						// cut short by the deadline of whoever sent it, not by ours
+						getScoreAsync(apiKey, userId, deadline).whenComplete(new BiConsumer<SiftScienceScore, Throwable>() {
+							@Override
+							public void accept(final SiftScienceScore own, final Throwable failure) {
+								if (failure != null) {
+									joined.completeExceptionally(failure);
+								} else {
+									joined.complete(own);
+								}
+							}
+						});
+					} else if (t != null) {
+						joined.completeExceptionally(t);
+					} else {
+						joined.complete(s.copy()); // each caller is free to do as it likes with its score
+					}
+				}
+			});
+			return within(deadline, joined);
+		}
+
+		final CompletableFuture<SiftScienceScore> fetched;
+		try {
+			fetched = fetchScore(apiKey, userId, deadline);
+		} catch (RuntimeException e) {
+			// e.g. no user, or a closed transport; nobody must join a flight which never took off
+			scoreFlights.remove(key, flight);
+			flight.completeExceptionally(e);
+			throw e;
+		}
+		fetched.whenComplete(new BiConsumer<SiftScienceScore, Throwable>() {
+			@Override
+			public void accept(final SiftScienceScore s, final Throwable t) {
+				scoreFlights.remove(key, flight); // before completing, so that no one joins a finished flight
+				if (t != null) {
+					flight.completeExceptionally(t);
+				} else {
+					flight.complete(s);
+				}
+			}
+		});
+		return flight;
+	}
+
+	/**
+	 * Asks Sift Science for the score, caching it or falling back on the {@link ScoreFallback} as configured.
+	 */
+	private CompletableFuture<SiftScienceScore> fetchScore(final String apiKey, final String userId, final Deadline deadline) {
+
+		final WebTarget target = transport.target(baseUrl).path("score").path(userId).queryParam("api_key", apiKey);
+		if (scoreFallback == null && scoreCache == null) {
+			return execute(target, HttpMethod.GET, null, SiftScienceScore.class, apiKey, deadline, call(Endpoint.SCORE, null));
+		}
+
+		final long askedAt = scoreCache != null ? scoreCache.asking(apiKey, userId) : System.nanoTime();
+		final CompletableFuture<SiftScienceScore> score;
+		try {
+			score = execute(target, HttpMethod.GET, null, SiftScienceScore.class, apiKey, deadline, call(Endpoint.SCORE, null));
+		} catch (RuntimeException e) {
+			if (scoreCache != null) {
+				scoreCache.answered(apiKey, userId, null, askedAt);
+			}
+			throw e;
+		}
+
+		final CompletableFuture<SiftScienceScore> result = new CompletableFuture<SiftScienceScore>();
+		score.whenComplete(new BiConsumer<SiftScienceScore, Throwable>() {
+			@Override
+			public void accept(final SiftScienceScore s, final Throwable t) {
+				if (scoreCache != null) {
+					scoreCache.answered(apiKey, userId, t == null ? s : null, askedAt);
+				}
+				if (t == null) {
+					if (scoreFallback != null) {
+						scoreFallback.onScore(apiKey, userId, s);
+					}
+					result.complete(s);
+					return;
+				}
+				final SiftScienceScore fallback = scoreFallback != null && t instanceof CircuitOpenException
+						? scoreFallback.fallback(apiKey, userId) : null;
+				if (fallback != null) {
+					result.complete(fallback);
+				} else {
+					result.completeExceptionally(t);
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Issues the request (and, under a {@link RetryPolicy}, issues it again for as long as it fails for a
+	 * passing reason) without blocking the calling thread.
+	 *
+	 * @param apiKey - the API key the request is made with (and hence counts against).
+	 * @param deadline - when to give up on the request, or <code>null</code>.
+	 * @param call - what to report the request to the metrics as, or <code>null</code>.
+	 */
+	private <T> CompletableFuture<T> execute(final WebTarget target, final String method, final Entity<?> entity,
+			final Class<T> type, final String apiKey, final Deadline deadline, final Call call) {
+
+		final long start = System.nanoTime();
+		if (deadline != null && deadline.isExpired()) {
+			return completed(call, start,
+					SiftClient.<T>failed(new DeadlineExceededException("The deadline passed before the request could be sent.")));
+		}
+		if (retryPolicy == null) {
+			return completed(call, start, within(deadline, attempt(target, method, entity, type, apiKey, deadline, call)));
+		}
+		retryPolicy.getBudget().onRequest();
+		final CompletableFuture<T> result = new CompletableFuture<T>();
+		retry(target, method, entity, type, apiKey, deadline, call, 1, 0, result);
+		return completed(call, start, within(deadline, result));
+	}
+
+	private <T> void retry(final WebTarget target, final String method, final Entity<?> entity, final Class<T> type,
+			final String apiKey, final Deadline deadline, final Call call, final int attempt, final long delayMillis,
+			final CompletableFuture<T> result) {
+
+		attempt(target, method, entity, type, apiKey, deadline, call).whenComplete(new BiConsumer<T, Throwable>() {
+			@Override
+			public void accept(final T value, final Throwable t) {
+
+				final boolean retryable = t != null ? retryPolicy.isRetryable(t) : retryPolicy.isRetryable(statusOf(value));
+				final long nextDelayMillis = retryPolicy.nextDelayMillis(delayMillis);
+				if (retryable && attempt < retryPolicy.getMaxAttempts()
+						&& (deadline == null || nextDelayMillis < deadline.remaining(TimeUnit.MILLISECONDS))
+						&& retryPolicy.getBudget().tryRetry()) {
+					try {
+						scheduler().schedule(new Runnable() {
+							@Override
+							public void run() {
+								retry(target, method, entity, type, apiKey, deadline, call, attempt + 1, nextDelayMillis, result);
+							}
+						}, nextDelayMillis, TimeUnit.MILLISECONDS);
+						if (stats != null) {
+							stats.onRetry();
+						}
+						return;
+					} catch (RejectedExecutionException e) {
+						// the client has been closed, so hand back what we have
+					}
+				}
+				if (t != null) {
+					result.completeExceptionally(t);
+				} else {
+					setAttempts(value, attempt);
+					result.complete(value);
+				}
+			}
+		});
+	}
+
+	/**
+	 * @return a future completed like the given one, or exceptionally with a {@link DeadlineExceededException}
+	 *         once the deadline (if any) has passed, whichever comes first.
+	 */
+	private <T> CompletableFuture<T> within(final Deadline deadline, final CompletableFuture<T> future) {
+
+		if (deadline == null) {
+			return future;
+		}
+		final CompletableFuture<T> bounded = new CompletableFuture<T>();
+		final ScheduledFuture<?> timer;
+		try {
+			timer = scheduler().schedule(new Runnable() {
+				@Override
+				public void run() {
+					bounded.completeExceptionally(new DeadlineExceededException("Sift Science did not respond by the deadline."));
+				}
+			}, deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+		} catch (RejectedExecutionException e) {
+			return future; // the client has been closed, so its requests are failing anyway
+		}
+		future.whenComplete(new BiConsumer<T, Throwable>() {
+			@Override
+			public void accept(final T value, final Throwable t) {
+				timer.cancel(false);
+				if (t != null && deadline.isExpired()) {
+					// most likely a timeout capped by the deadline, so say so
+					bounded.completeExceptionally(new DeadlineExceededException("Sift Science did not respond by the deadline."));
+				} else if (t != null) {
+					bounded.completeExceptionally(t);
+				} else {
+					bounded.complete(value);
+				}
+			}
+		});
+		return bounded;
+	}
+
+	/**
+	 * Issues the request once its API key's rate limit and the in-flight limiter allow it, without blocking
+	 * the calling thread.
+	 */
+	private <T> CompletableFuture<T> attempt(final WebTarget target, final String method, final Entity<?> entity,
+			final Class<T> type, final String apiKey, final Deadline deadline, final Call call) {
+
+		if (circuitBreaker != null && !circuitBreaker.tryAcquire()) {
+			return failed(new CircuitOpenException("Sift Science has been failing, so the request was not sent."));
+		}
+
+		final long enqueued = System.nanoTime();
+		final CompletableFuture<T> result = new CompletableFuture<T>();
+		final Runnable task = new Runnable() {
+			@Override
+			public void run() {
+
+				stage(call, Stage.ENQUEUE, enqueued);
+
+				if (deadline != null && deadline.isExpired()) {
+					// waited out the deadline for a slot, so there is no point sending it any more
+					limiter.release();
+					result.completeExceptionally(new DeadlineExceededException("The deadline passed before the request could be sent."));
+					return;
+				}
+
+				final long start = System.nanoTime();
+				final InvocationCallback<Response> callback = new InvocationCallback<Response>() {
+
+					@Override
+					public void completed(final Response response) {
+						stage(call, Stage.REQUEST, start);
+						final int httpStatus = response.getStatus();
+						try {
+							final long parsing = System.nanoTime();
+							final T entity = readEntity(response, type);
+							stage(call, Stage.PARSE, parsing);
+							if (stats != null) {
+								stats.onResponse(statusOf(entity));
+							}
+							sampled(start, httpStatus == 429 || httpStatus >= 500 || SiftStatus.isOverloaded(statusOf(entity)));
+							limiter.release();
+							result.complete(entity);
+						} catch (RuntimeException e) {
+							sampled(start, httpStatus == 429 || httpStatus >= 500);
+							limiter.release();
+							// most likely an error page from Sift Science's load balancer or a proxy
+							result.completeExceptionally(httpStatus >= 400 ? new HttpStatusException(httpStatus, e) : e);
+						}
+					}
+
+					@Override
+					public void failed(final Throwable t) {
+						stage(call, Stage.REQUEST, start);
+						if (t instanceof ProcessingException && t.getCause() instanceof JsonProcessingException) {
+							// the envelope could not be serialized into the request body
+							sampled(start, false);
+							limiter.release();
+							result.completeExceptionally(new SiftScienceException("Error generating JSON content of request.", t.getCause()));
+						} else {
+							sampled(start, true);
+							limiter.release();
+							result.completeExceptionally(t);
+						}
+					}
+				};
+
+				try {
+					final AsyncInvoker invoker = request(target, deadline).async();
+					if (entity == null) {
+						invoker.method(method, callback);
+					} else {
+						invoker.method(method, entity, callback);
+					}
+				} catch (RuntimeException e) {
+					callback.failed(e);
+				}
+			}
+		};
+
+		final long wait = rateLimit > 0 ? bucket(apiKey).reserve() : 0;
+		if (wait <= 0) {
+			limiter.submit(task);
+			return result;
+		}
+		try {
+			scheduler().schedule(new Runnable() {
+				@Override
+				public void run() {
+					limiter.submit(task);
+				}
+			}, wait, TimeUnit.NANOSECONDS);
+		} catch (RejectedExecutionException e) {
+			result.completeExceptionally(new SiftScienceException("The client has been closed.", e));
+		}
+		return result;
+	}
+
+	/**
+	 * @return what to report a request to the metrics as, or <code>null</code> if there are neither metrics
+	 *         nor JMX statistics to report it to.
+	 */
+	private Call call(final Endpoint endpoint, final String eventType) {
+		return metrics != null || stats != null ? new Call(endpoint, eventType) : null;
+	}
+
+	/**
+	 * Reports how long a stage of the request took, if there are metrics.
+	 *
+	 * @param start - when (as per {@link System#nanoTime()}) the stage started.
+	 */
+	private void stage(final Call call, final Stage stage, final long start) {
+		if (call != null && metrics != null) {
+			metrics.onStage(call.endpoint, call.eventType, stage, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Reports the call to the metrics and the JMX statistics (if any) once it completes.
+	 *
+	 * @return a future completed like the given one, once the call has been reported, so that whoever waits on
+	 *         the call sees it counted. Cancelling it cancels the given one, as if no metrics were configured.
+	 */
+	private <T> CompletableFuture<T> completed(final Call call, final long start, final CompletableFuture<T> future) {
+
+		if (call == null) {
+			return future;
+		}
+		final CompletableFuture<T> reported = new CompletableFuture<T>();
+		future.whenComplete(new BiConsumer<T, Throwable>() {
+			@Override
+			public void accept(final T value, final Throwable t) {
+				try {
+					final long nanos = System.nanoTime() - start;
+					if (stats != null) {
+						stats.onCompleted(nanos, t != null);
+					}
+					if (metrics != null) {
+						metrics.onCompleted(call.endpoint, call.eventType, nanos, t != null);
+					}
+				} finally {
+					// a misbehaving SiftMetrics must not leave the caller waiting forever
+					if (t != null) {
+						reported.completeExceptionally(t);
+					} else {
+						reported.complete(value);
+					}
+				}
+			}
+		});
+		reported.whenComplete(new BiConsumer<T, Throwable>() {
+			@Override
+			public void accept(final T value, final Throwable t) {
+				if (reported.isCancelled()) {
+					future.cancel(false);
+				}
+			}
+		});
+		return reported;
+	}
+
+	/**
+	 * @return a body which reports how long it took to serialize, and (the first time it is sent) its size.
+	 */
+	private StreamingOutput measured(final StreamingOutput body, final Call call) {
+		return new StreamingOutput() {
+
+			private volatile boolean sized;
+
+			@Override
+			public void write(final OutputStream out) throws IOException {
+
+				final long start = System.nanoTime();
+				final CountingOutputStream counting = new CountingOutputStream(out);
+				body.write(counting);
+				stage(call, Stage.SERIALIZE, start);
+				if (!sized) {
+					sized = true; // sent again when retried
+					metrics.onBody(call.endpoint, call.eventType, counting.count);
+				}
+			}
+		};
+	}
+
+	private TokenBucket bucket(final String apiKey) {
+
+		final String key = apiKey != null ? apiKey : "";
+		TokenBucket bucket = buckets.get(key);
+		if (bucket == null) {
+			final TokenBucket created = new TokenBucket(rateLimit, rateBurst);
+			bucket = buckets.putIfAbsent(key, created);
+			if (bucket == null) {
+				bucket = created;
+			}
+		}
+		return bucket;
+	}
+
+	/**
+	 * Lets the adaptive limit and the circuit breaker (if any) learn from a completed request.
+	 *
+	 * @param overloaded - whether the request's outcome calls for sending less.
+	 */
+	private void sampled(final long start, final boolean overloaded) {
+		final long end = System.nanoTime();
+		if (adaptiveLimit != null) {
+			limiter.setLimit(adaptiveLimit.onSample(start, end, limiter.getInFlight(), overloaded));
+		}
+		if (circuitBreaker != null) {
+			circuitBreaker.onResult(end - start, overloaded);
+		}
+	}
+
+	private static void setAttempts(final Object entity, final int attempts) {
+		if (entity instanceof SiftScienceResponse) {
+			((SiftScienceResponse)entity).setAttempts(attempts);
+		} else if (entity instanceof SiftScienceScore) {
+			((SiftScienceScore)entity).setAttempts(attempts);
+		}
+	}
+
+	private static Number statusOf(final Object entity) {
+		if (entity instanceof SiftScienceResponse) {
+			return ((SiftScienceResponse)entity).getStatus();
+		}
+		if (entity instanceof SiftScienceScore) {
+			return ((SiftScienceScore)entity).getStatus();
+		}
+		return null;
+	}
+
+	private Invocation.Builder request(final WebTarget target, final Deadline deadline) {
+
+		final Invocation.Builder request = target.request(MediaType.APPLICATION_JSON_TYPE);
+		if (compression != null) {
+			request.header(HttpHeaders.ACCEPT_ENCODING, GZIP);
+		}
+		if (deadline == null) {
+			request.property(ClientProperties.CONNECT_TIMEOUT, connectTimeoutMillis);
+			request.property(ClientProperties.READ_TIMEOUT, readTimeoutMillis);
+		} else {
+			// no single wait may outlast what is left of the deadline
+			final int remaining = (int)Math.max(1, Math.min(Integer.MAX_VALUE, deadline.remaining(TimeUnit.MILLISECONDS)));
+			request.property(ClientProperties.CONNECT_TIMEOUT, connectTimeoutMillis == 0 ? remaining : Math.min(connectTimeoutMillis, remaining));
+			request.property(ClientProperties.READ_TIMEOUT, readTimeoutMillis == 0 ? remaining : Math.min(readTimeoutMillis, remaining));
+		}
+		return request;
+	}
+
+	private <T> T readEntity(final Response response, final Class<T> type) {
+
+		try {
+			// parsed straight off the connection's bytes, rather than decoded into a String and parsed from that
+			final InputStream body = response.readEntity(InputStream.class);
+			if (GZIP.equalsIgnoreCase(response.getHeaderString(HttpHeaders.CONTENT_ENCODING))) {
+				// not already decoded by the transport
+				return mapper.readValue(new GZIPInputStream(body), type);
+			}
+			return mapper.readValue(body, type);
+		} catch (IOException e) {
+			throw new SiftScienceException("Error parsing JSON content of Sift Science response.", e);
+		} finally {
+			response.close(); // hand the connection back to the pool even if the body could not be read
+		}
+	}
+
+	/**
+	 * Waits for an asynchronous request, surfacing its failure the way a synchronous call would.
+	 */
+	private static <T> T await(final CompletableFuture<T> future) {
+
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException)cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error)cause;
+			}
+			throw new SiftScienceException("Error communicating with Sift Science.", cause);
+		}
+	}
+
+	private static <T> CompletableFuture<T> failed(final Throwable t) {
+		final CompletableFuture<T> future = new CompletableFuture<T>();
+		future.completeExceptionally(t);
+		return future;
+	}
+
+	/**
+	 * @return the number of requests currently on the wire.
+	 */
+	public int getInFlight() {
+		return limiter.getInFlight();
+	}
+
+	/**
+	 * @return the most requests currently allowed on the wire at once; it only ever differs from
+	 *         {@link Builder#maxInFlight(int)} under {@link Builder#adaptiveConcurrency(AdaptiveLimitConfig)}.
+	 */
+	public int getInFlightLimit() {
+		return limiter.getLimit();
+	}
+
+	/**
+	 * @return the state of the client's circuit breaker; always {@link CircuitState#CLOSED} without one.
+	 */
+	public CircuitState getCircuitState() {
+		return circuitBreaker != null ? circuitBreaker.getState() : CircuitState.CLOSED;
+	}
+
+	/**
+	 * @return the metrics the client reports to, or <code>null</code> without any.
+	 */
+	public SiftMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * @return the client's score cache (e.g. for its hit and miss counts), or <code>null</code> without one.
+	 */
+	public ScoreCache getScoreCache() {
+		return scoreCache;
+	}
+
+	/**
+	 * @return the number of asynchronous requests waiting for an in-flight slot.
+	 */
+	public int getWaiting() {
+		return limiter.getWaiting();
+	}
+
+	public String getApiKey() {
+		return apiKey;
+	}
+
+	public String getBaseUrl() {
+		return baseUrl;
+	}
+
+	/**
+	 * Closes this client's transport, unless it was handed in through {@link Builder#transport(SiftTransport)}
+	 * in which case the caller remains responsible for it.
+	 */
+	@Override
+	public void close() {
+		synchronized (this) {
+			closed = true;
+			if (scheduler != null) {
+				scheduler.shutdownNow();
+			}
+		}
+		if (objectName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+			} catch (JMException e) {
+				// already unregistered, e.g. by a second close
+			}
+		}
+		if (ownsTransport) {
+			transport.close();
+		}
+	}
+
+	/**
+	 * What a request is reported to the metrics as.
+	 */
+	private static final class Call {
+
+		final Endpoint endpoint;
+
+		final String eventType;
+
+		Call(final Endpoint endpoint, final String eventType) {
+			this.endpoint = endpoint;
+			this.eventType = eventType;
+		}
+	}
+
+	private static final class CountingOutputStream extends FilterOutputStream {
+
+		long count;
+
+		CountingOutputStream(final OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException {
+			out.write(b, off, len); // rather than byte by byte, as FilterOutputStream does
+			count += len;
+		}
+	}
+
+	/**
+	 * Builds {@link SiftClient} instances. Every setting has a sensible default, so
+	 * <code>SiftClient.builder().build()</code> yields a working client (albeit one
+	 * whose events must carry their own API key).
+	 */
+	public static class Builder {
+
+		private String apiKey;
+
+		private String baseUrl = DEFAULT_BASE_URL;
+
+		private ObjectMapper mapper;
+
+		private SiftTransport transport;
+
+		private ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+
+		/**
+		 * Zero means no timeout.
+		 */
+		private int connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
+
+		/**
+		 * Zero means no timeout.
+		 */
+		private int readTimeoutMillis = DEFAULT_READ_TIMEOUT_MILLIS;
+
+		/**
+		 * Zero means as many as the transport has connections per host.
+		 */
+		private int maxInFlight;
+
+		private boolean lenient;
+
+		private boolean echoedRequests;
+
+		/**
+		 * Zero means no limit.
+		 */
+		private double rateLimit;
+
+		private int rateBurst;
+
+		private AdaptiveLimitConfig adaptiveLimitConfig;
+
+		private RetryPolicy retryPolicy;
+
+		private CircuitBreakerConfig circuitBreakerConfig;
+
+		private ScoreFallback scoreFallback;
+
+		private ScoreCache scoreCache;
+
+		private CompressionConfig compression;
+
+		private boolean coalesceScores = true;
+
+		private SiftMetrics metrics;
+
+		private String jmxName;
+
+		private Builder() {}
+
+		/**
+		 * @param apiKey - the API key used for score requests and for any event or label which does not carry one.
+		 */
+		public Builder apiKey(final String apiKey) {
+			this.apiKey = apiKey;
+			return this;
+		}
+
+		/**
+		 * @param baseUrl - the versioned API root, defaults to {@link SiftClient#DEFAULT_BASE_URL}.
+		 */
+		public Builder baseUrl(final String baseUrl) {
+			this.baseUrl = baseUrl;
+			return this;
+		}
+
+		/**
+		 * @param mapper - the mapper used to (de)serialize envelopes. It must not include null fields.
+		 */
+		public Builder mapper(final ObjectMapper mapper) {
+			this.mapper = mapper;
+			return this;
+		}
+
+		/**
+		 * @param lenient - whether responses may carry properties and enum values (reasons, payment gateways, ...)
+		 *                  this library does not know about, unknown enum values being read as <code>null</code>.
+		 *                  Defaults to <code>false</code>, where they fail the response. Only applies to the
+		 *                  client's default mapper, not to one handed in through {@link #mapper(ObjectMapper)}.
+		 */
+		public Builder lenient(final boolean lenient) {
+			this.lenient = lenient;
+			return this;
+		}
+
+		/**
+		 * @param echoedRequests - whether to read the echo of the request Sift Science sends back in each event
+		 *                         response (see {@link SiftScienceResponse#getRequest()}), e.g. while debugging.
+		 *                         Defaults to <code>false</code>, where it is skipped while parsing. Only applies
+		 *                         to the client's default mapper, not to one handed in through
+		 *                         {@link #mapper(ObjectMapper)}.
+		 */
+		public Builder echoedRequests(final boolean echoedRequests) {
+			this.echoedRequests = echoedRequests;
+			return this;
+		}
+
+		/**
+		 * @param poolConfig - the connection pool settings for the transport this client creates.
+		 */
+		public Builder connectionPool(final ConnectionPoolConfig poolConfig) {
+			this.poolConfig = poolConfig;
+			return this;
+		}
+
+		/**
+		 * Shares an existing transport (and its connection pool) rather than creating one. The client
+		 * will not close a transport handed in this way.
+		 */
+		public Builder transport(final SiftTransport transport) {
+			this.transport = transport;
+			return this;
+		}
+
+		/**
+		 * @param duration - how long to wait for a connection to Sift Science to be set up, by default
+		 *                   {@link SiftClient#DEFAULT_CONNECT_TIMEOUT_MILLIS}. Zero waits for ever.
+		 */
+		public Builder connectTimeout(final long duration, final TimeUnit unit) {
+			this.connectTimeoutMillis = toMillis(duration, unit);
+			return this;
+		}
+
+		/**
+		 * @param duration - how long to wait for Sift Science to send (more of) its response, by default
+		 *                   {@link SiftClient#DEFAULT_READ_TIMEOUT_MILLIS}. Zero waits for ever.
+		 */
+		public Builder readTimeout(final long duration, final TimeUnit unit) {
+			this.readTimeoutMillis = toMillis(duration, unit);
+			return this;
+		}
+
+		/**
+		 * @param maxInFlight - the most requests this client will have on the wire at once. Defaults to the
+		 *                      transport's maximum connections per host.
+		 */
+		public Builder maxInFlight(final int maxInFlight) {
+			if (maxInFlight < 1) {
+				throw new IllegalArgumentException(String.format("maxInFlight must be positive, was [%d].", maxInFlight));
+			}
+			this.maxInFlight = maxInFlight;
+			return this;
+		}
+
+		/**
+		 * Paces requests so that no API key makes more than <code>permitsPerSecond</code> of them (on
+		 * average), however bursty the traffic. Requests over the rate are held back, without blocking the
+		 * caller, until their turn comes.
+		 *
+		 * @param permitsPerSecond - the most requests per second for each API key.
+		 * @param burst - how many requests an API key which has been quiet may make in one go.
+		 */
+		public Builder rateLimit(final double permitsPerSecond, final int burst) {
+			if (!(permitsPerSecond > 0)) {
+				throw new IllegalArgumentException(String.format("Rate must be positive, was [%s].", permitsPerSecond));
+			}
+			if (burst < 1) {
+				throw new IllegalArgumentException(String.format("Burst must be positive, was [%d].", burst));
+			}
+			this.rateLimit = permitsPerSecond;
+			this.rateBurst = burst;
+			return this;
+		}
+
+		/**
+		 * Lets the client work out how many requests to have on the wire (up to {@link #maxInFlight(int)})
+		 * from Sift Science's latency and its throttling and server errors; see {@link AdaptiveLimit}.
+		 */
+		public Builder adaptiveConcurrency(final AdaptiveLimitConfig config) {
+			this.adaptiveLimitConfig = config;
+			return this;
+		}
+
+		/**
+		 * Sends requests which fail for a passing reason (timeouts, throttling, server errors) again, as per
+		 * the policy. By default, failures are handed straight back. Either way, responses tell how many
+		 * times their request was sent (see {@link SiftScienceResponse#getAttempts()}).
+		 */
+		public Builder retryPolicy(final RetryPolicy retryPolicy) {
+			this.retryPolicy = retryPolicy;
+			return this;
+		}
+
+		/**
+		 * Makes requests fail straight away with a {@link CircuitOpenException} while too many of the latest
+		 * ones have failed, rather than each wait for a timeout; see {@link CircuitBreaker}.
+		 */
+		public Builder circuitBreaker(final CircuitBreakerConfig config) {
+			this.circuitBreakerConfig = config;
+			return this;
+		}
+
+		/**
+		 * @param scoreFallback - answers score requests made while the circuit is open (see
+		 *                        {@link #circuitBreaker(CircuitBreakerConfig)}), e.g. with a default or the
+		 *                        user's last known score.
+		 */
+		public Builder scoreFallback(final ScoreFallback scoreFallback) {
+			this.scoreFallback = scoreFallback;
+			return this;
+		}
+
+		/**
+		 * @param scoreCache - serves repeated score requests for a user until their score expires, or until
+		 *                     a label or a score-changing event is sent for them through this client.
+		 */
+		public Builder scoreCache(final ScoreCache scoreCache) {
+			this.scoreCache = scoreCache;
+			return this;
+		}
+
+		/**
+		 * @param coalesceScores - whether concurrent requests for the same user's score share a single request
+		 *                         to Sift Science. Defaults to <code>true</code>.
+		 */
+		public Builder coalesceScores(final boolean coalesceScores) {
+			this.coalesceScores = coalesceScores;
+			return this;
+		}
+
+		/**
+		 * @param compression - gzips request bodies of at least the configured size, and asks Sift Science to
+		 *                      gzip its responses. Off by default.
+		 */
+		public Builder compression(final CompressionConfig compression) {
+			this.compression = compression;
+			return this;
+		}
+
+		/**
+		 * @param metrics - told how long each stage of each request takes, how large each body is and how each
+		 *                  call turns out, e.g. an {@link com.mcac0006.siftscience.metrics.InMemoryMetrics}.
+		 *                  None by default.
+		 */
+		public Builder metrics(final SiftMetrics metrics) {
+			this.metrics = metrics;
+			return this;
+		}
+
+		/**
+		 * @param name - registers the client's live statistics (see {@link com.mcac0006.siftscience.jmx.SiftClientMXBean})
+		 *               with the platform MBean server as <code>com.mcac0006.siftscience:type=SiftClient,name="..."</code>,
+		 *               until the client is closed. Not registered by default.
+		 */
+		public Builder jmx(final String name) {
+			this.jmxName = name;
+			return this;
+		}
+
+		private static int toMillis(final long duration, final TimeUnit unit) {
+			if (duration < 0) {
+				throw new IllegalArgumentException(String.format("Timeout must not be negative, was [%d].", duration));
+			}
+			return (int)Math.min(Integer.MAX_VALUE, unit.toMillis(duration));
+		}
+
+		public SiftClient build() {
+			if (baseUrl == null) {
+				throw new IllegalArgumentException("A base URL is required.");
+			}
+			return new SiftClient(this);
+		}
+	}
+}
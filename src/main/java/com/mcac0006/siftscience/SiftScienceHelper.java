@@ -4,44 +4,99 @@
 package com.mcac0006.siftscience;
 
 import java.io.IOException;
-
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.Entity;
-import javax.ws.rs.client.Invocation.Builder;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.Response;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import org.codehaus.jackson.map.ObjectMapper;
-import org.codehaus.jackson.map.annotate.JsonSerialize.Inclusion;
 
 import com.mcac0006.siftscience.event.domain.Event;
-import com.mcac0006.siftscience.exception.SiftScienceException;
+import com.mcac0006.siftscience.event.serializer.EventSerializerModule;
+import com.mcac0006.siftscience.json.JsonWriter;
 import com.mcac0006.siftscience.label.domain.Label;
+import com.mcac0006.siftscience.result.SendResult;
 import com.mcac0006.siftscience.result.domain.SiftScienceResponse;
 import com.mcac0006.siftscience.score.domain.SiftScienceScore;
+import com.mcac0006.siftscience.transport.ConnectionPoolConfig;
+import com.mcac0006.siftscience.transport.Deadline;
 
 /**
  * This helper will take care of marshalling the content you wish to send to Sift Science and 
  * also POST send it to Sift Science.
  * 
- * <strong>This class is synchronous.</strong>
+ * <strong>The <code>send</code> and <code>getScore</code> methods are synchronous.</strong> Their <code>...Async</code> 
+ * counterparts return a {@link CompletableFuture} instead of blocking the calling thread.
+ * 
+ * All requests are delegated to a shared {@link SiftClient}, created on first use. Tune it via 
+ * {@link #configure(SiftClient)} and release it with {@link #close()} when your application shuts down. 
+ * Applications talking to several Sift Science accounts should build their own {@link SiftClient}s instead.
  * 
  * @author <a href="mailto:matthew.cachia@gmail.com">Matthew Cachia</a>
  *
  */
 public class SiftScienceHelper {
 	
-	private static ObjectMapper mapper;
+	private static final ObjectMapper mapper = EventSerializerModule.newObjectMapper();
+
+	private static final JsonWriter writer = new JsonWriter(mapper);
 	
-	static {
-		mapper = new ObjectMapper();
-		mapper.setSerializationInclusion(Inclusion.NON_NULL);
-	}
+	private static volatile SiftClient defaultClient;
 
 	private SiftScienceHelper() {}
 	
+	/**
+	 * Replaces the shared client with one using the given connection pool settings. Any 
+	 * previously created client is closed.
+	 * 
+	 * @param poolConfig - the connection pool settings to use from now on.
+	 */
+	public static void configure(final ConnectionPoolConfig poolConfig) {
+		configure(SiftClient.builder().connectionPool(poolConfig).build());
+	}
+	
+	/**
+	 * Replaces the shared client which all the static methods delegate to. Any previously 
+	 * created client is closed.
+	 * 
+	 * @param client - the client to use from now on.
+	 */
+	public static synchronized void configure(final SiftClient client) {
+		final SiftClient previous = defaultClient;
+		defaultClient = client;
+		if (previous != null && previous != client) {
+			previous.close();
+		}
+	}
+	
+	/**
+	 * Closes the shared client along with all its pooled connections. A new client (with 
+	 * default settings) will be created should this helper be used again.
+	 */
+	public static synchronized void close() {
+		if (defaultClient != null) {
+			defaultClient.close();
+			defaultClient = null;
+		}
+	}
+	
+	/**
+	 * @return the client which all the static methods delegate to, created on first use.
+	 */
+	public static SiftClient defaultClient() {
+		SiftClient c = defaultClient;
+		if (c == null) {
+			synchronized (SiftScienceHelper.class) {
+				c = defaultClient;
+				if (c == null) {
+					c = defaultClient = SiftClient.builder().build();
+				}
+			}
+		}
+		return c;
+	}
+	
 	/**
 	 * Sends an event ($transaction, $create_account, etc ...) to Sift Science.
 	 * 
@@ -50,7 +105,7 @@ public class SiftScienceHelper {
 	 */
 	public static SiftScienceResponse send(final Event event) {
 		return send(event, false);
-        }
+	}
 
 	/**
 	 * Sends an event ($transaction, $create_account, etc ...) to Sift Science.
@@ -60,22 +115,16 @@ public class SiftScienceHelper {
 	 * @return the Sift Science response which denotes whether the request has been processed successfully or not.
 	 */
 	public static SiftScienceResponse send(final Event event, boolean returnAction) {
-		
-		try {
-			
-			final Client client = ClientBuilder.newClient();
-			WebTarget target = client.target("https://api.siftscience.com/v203/events");
-                        if (returnAction) {
-				target = target.queryParam("return_action", "true");
-                        }
-			final Builder request = target.request(MediaType.APPLICATION_JSON_TYPE);
-			final Response post = request.post(Entity.entity(serialize(event), MediaType.APPLICATION_JSON_TYPE));
-			
-			return deserializeResponse(post.readEntity(String.class));
-			
-		} catch (IOException e) {
-			throw new SiftScienceException("Error generating JSON content to send event.", e);
-		}
+		return defaultClient().send(event, returnAction);
+	}
+	
+	/**
+	 * Sends an event to Sift Science and gets back the user's score after it, in a single round-trip.
+	 * 
+	 * @see SiftClient#sendAndScore(Event)
+	 */
+	public static SiftScienceScore sendAndScore(final Event event) {
+		return defaultClient().sendAndScore(event);
 	}
 	
 	/**
@@ -86,19 +135,25 @@ public class SiftScienceHelper {
 	 * @return the Sift Science response which denotes whether the request has been processed successfully or not.
 	 */
 	public static SiftScienceResponse send(final String userId, final Label label) {
-		
-		try {
-			
-			final Client client = ClientBuilder.newClient();
-			final WebTarget target = client.target("https://api.siftscience.com/v203/users/").path(userId).path("labels");
-			final Builder request = target.request(MediaType.APPLICATION_JSON_TYPE);
-			final Response post = request.post(Entity.entity(serialize(label), MediaType.APPLICATION_JSON_TYPE));
-			
-			return deserializeResponse(post.readEntity(String.class));
-			
-		} catch (IOException e) {
-			throw new SiftScienceException("Error generating JSON content to send label.", e);
-		}
+		return defaultClient().send(userId, label);
+	}
+	
+	/**
+	 * Sends an event to Sift Science, giving up once the deadline has passed.
+	 * 
+	 * @see SiftClient#send(Event, Deadline)
+	 */
+	public static SiftScienceResponse send(final Event event, final Deadline deadline) {
+		return defaultClient().send(event, deadline);
+	}
+	
+	/**
+	 * Sends a Label ($label) to Sift Science, giving up once the deadline has passed.
+	 * 
+	 * @see SiftClient#send(String, Label, Deadline)
+	 */
+	public static SiftScienceResponse send(final String userId, final Label label, final Deadline deadline) {
+		return defaultClient().send(userId, label, deadline);
 	}
 	
 	/**
@@ -114,20 +169,68 @@ public class SiftScienceHelper {
 	 *         Refer to the class' JavaDocs for more information.
 	 */
 	public static SiftScienceScore getScore(final String apiKey, final String userId) {
-		
-		try {
-			
-			final Client client = ClientBuilder.newClient();
-			final WebTarget target = client.target("https://api.siftscience.com/v203/score/").path(userId).queryParam("api_key", apiKey);
-			final Builder request = target.request(MediaType.APPLICATION_JSON_TYPE);
-			final Response get = request.get();
-			
-			return deserializeScore(get.readEntity(String.class));
-			
-		} catch (IOException e) {
-			throw new RuntimeException("Error generating JSON content to retrieve score request.", e);
-		}
-		
+		return defaultClient().getScore(apiKey, userId);
+	}
+	
+	/**
+	 * Retrieves a risk assessment of a particular user, giving up once the deadline has passed.
+	 * 
+	 * @see SiftClient#getScore(String, String, Deadline)
+	 */
+	public static SiftScienceScore getScore(final String apiKey, final String userId, final Deadline deadline) {
+		return defaultClient().getScore(apiKey, userId, deadline);
+	}
+
+	/**
+	 * Sends many events, several at a time, over the default client's pooled connections.
+	 * 
+	 * @see SiftClient#sendAll(Iterable)
+	 */
+	public static List<SendResult> sendAll(final Iterable<? extends Event> events) {
+		return defaultClient().sendAll(events);
+	}
+	
+	/**
+	 * @see SiftClient#sendAll(Stream)
+	 */
+	public static List<SendResult> sendAll(final Stream<? extends Event> events) {
+		return defaultClient().sendAll(events);
+	}
+
+	/**
+	 * Asynchronous counterpart of {@link #send(Event)}.
+	 * 
+	 * @see SiftClient#sendAsync(Event)
+	 */
+	public static CompletableFuture<SiftScienceResponse> sendAsync(final Event event) {
+		return defaultClient().sendAsync(event);
+	}
+	
+	/**
+	 * Asynchronous counterpart of {@link #send(Event, boolean)}.
+	 * 
+	 * @see SiftClient#sendAsync(Event, boolean)
+	 */
+	public static CompletableFuture<SiftScienceResponse> sendAsync(final Event event, final boolean returnAction) {
+		return defaultClient().sendAsync(event, returnAction);
+	}
+	
+	/**
+	 * Asynchronous counterpart of {@link #send(String, Label)}.
+	 * 
+	 * @see SiftClient#sendAsync(String, Label)
+	 */
+	public static CompletableFuture<SiftScienceResponse> sendAsync(final String userId, final Label label) {
+		return defaultClient().sendAsync(userId, label);
+	}
+	
+	/**
+	 * Asynchronous counterpart of {@link #getScore(String, String)}.
+	 * 
+	 * @see SiftClient#getScoreAsync(String, String)
+	 */
+	public static CompletableFuture<SiftScienceScore> getScoreAsync(final String apiKey, final String userId) {
+		return defaultClient().getScoreAsync(apiKey, userId);
 	}
 
 	/**
@@ -148,6 +251,22 @@ public class SiftScienceHelper {
 		return mapper.writeValueAsString(label);
 	}
 	
+	/**
+	 * <p>Serializes the event as UTF-8 JSON straight onto a stream (e.g. a request body, or a reusable buffer),
+	 * without building up a <code>String</code> first.</p>
+	 * 
+	 * @param event the filled event POJO, ready to be serialized
+	 * @param out where to write the JSON to; it is flushed, but not closed.
+	 * @throws IOException thrown whenever an error has been found during serialization of the event, or writing to the stream.
+	 */
+	public static void serialize(final Event event, final OutputStream out) throws IOException {
+		writer.write(event, out);
+	}
+	
+	public static void serialize(final Label label, final OutputStream out) throws IOException {
+		writer.write(label, out);
+	}
+	
 	/**
 	 * <p>Deserializes a response after sending an {@link Event} or a {@link Label}.
 	 * 
@@ -159,6 +278,26 @@ public class SiftScienceHelper {
 		return mapper.readValue(response, SiftScienceResponse.class);
 	}
 	
+	/**
+	 * <p>Deserializes a response after sending an {@link Event} or a {@link Label}, straight off the bytes 
+	 * received (e.g. your Http client's response stream) rather than off a <code>String</code> decoded from them.
+	 * 
+	 * @param response the JSON envelope withholding Sift Science's response, in UTF-8. The stream is read to 
+	 *        the end of the envelope, and closed.
+	 * @return the response in POJO.
+	 * @throws IOException thrown whenever an error has been found during deserialization, or reading from the stream.
+	 */
+	public static SiftScienceResponse deserializeResponse(final InputStream response) throws IOException {
+		return mapper.readValue(response, SiftScienceResponse.class);
+	}
+	
+	/**
+	 * @see #deserializeResponse(InputStream)
+	 */
+	public static SiftScienceResponse deserializeResponse(final byte[] response) throws IOException {
+		return mapper.readValue(response, 0, response.length, SiftScienceResponse.class);
+	}
+	
 	/**
 	 * <p>Deserializes the score returned by Sift Science.</p>
 	 * 
@@ -172,4 +311,24 @@ public class SiftScienceHelper {
 	public static SiftScienceScore deserializeScore(final String scoreResponse) throws IOException {
 		return mapper.readValue(scoreResponse, SiftScienceScore.class);
 	}
+	
+	/**
+	 * <p>Deserializes the score returned by Sift Science straight off the bytes received, rather than off a 
+	 * <code>String</code> decoded from them.</p>
+	 * 
+	 * @param scoreResponse the JSON envelope withholding Sift Science's response, in UTF-8. The stream is read 
+	 *        to the end of the envelope, and closed.
+	 * @return the response in POJO.
+	 * @throws IOException thrown whenever an error has been found during deserialization, or reading from the stream.
+	 */
+	public static SiftScienceScore deserializeScore(final InputStream scoreResponse) throws IOException {
+		return mapper.readValue(scoreResponse, SiftScienceScore.class);
+	}
+	
+	/**
+	 * @see #deserializeScore(InputStream)
+	 */
+	public static SiftScienceScore deserializeScore(final byte[] scoreResponse) throws IOException {
+		return mapper.readValue(scoreResponse, 0, scoreResponse.length, SiftScienceScore.class);
+	}
 }
@@ -0,0 +1,368 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.backfill;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.codehaus.jackson.map.ObjectMapper;
+
+import com.mcac0006.siftscience.SiftClient;
+import com.mcac0006.siftscience.result.domain.SiftScienceResponse;
+import com.mcac0006.siftscience.transport.TokenBucket;
+
+/**
+ * Replays historical events (orders, logins, transactions, ... each carrying its <code>$time</code>) from a
+ * file into Sift Science, at a controlled rate.
+ *
+ * <pre><code>
+ * Backfill.builder(client, new File("orders.csv"))
+ *     .format(InputFormat.CSV)
+ *     .defaultType("$create_order")
+ *     .parallelism(8)
+ *     .rate(200)
+ *     .build()
+ *     .run();
+ * </code></pre>
+ *
+ * The file is streamed a line at a time, so memory use does not grow with its size. Up to
+ * <code>parallelism</code> events are on the wire at once, and no more than <code>rate</code> are sent per
+ * second. Progress is recorded in a {@link Checkpoint} file next to the input; running the same backfill
+ * again (e.g. after a crash) resumes from there. Events Sift Science did not accept, and lines which could
+ * not be read as events, are appended as-is to a rejects file, ready to be fixed up and replayed.
+ *
+ * The same can be run from the command line; see {@link #main(String[])}.
+ *
+ */
+public class Backfill {
+
+	private final SiftClient client;
+
+	private final File file;
+
+	private final InputFormat format;
+
+	private final String defaultType;
+
+	private final int parallelism;
+
+	private final TokenBucket bucket;
+
+	private final File checkpointFile;
+
+	private final File rejectsFile;
+
+	private final ObjectMapper mapper;
+
+	private final AtomicLong sent = new AtomicLong();
+
+	private final AtomicLong failed = new AtomicLong();
+
+	private final AtomicLong unreadable = new AtomicLong();
+
+	private Backfill(final Builder builder) {
+		this.client = builder.client;
+		this.file = builder.file;
+		this.format = builder.format;
+		this.defaultType = builder.defaultType;
+		this.parallelism = builder.parallelism;
+		this.bucket = builder.rate > 0 ? new TokenBucket(builder.rate, 1) : null;
+		this.checkpointFile = builder.checkpointFile != null ? builder.checkpointFile : new File(file.getPath() + ".checkpoint");
+		this.rejectsFile = builder.rejectsFile != null ? builder.rejectsFile : new File(file.getPath() + ".rejects");
+		this.mapper = builder.mapper != null ? builder.mapper : new ObjectMapper();
+	}
+
+	public static Builder builder(final SiftClient client, final File file) {
+		return new Builder(client, file);
+	}
+
+	/**
+	 * Sends every event from the checkpoint to the end of the file, returning once they have all completed.
+	 */
+	public void run() throws IOException, InterruptedException {
+
+		final Checkpoint checkpoint = new Checkpoint(checkpointFile, TimeUnit.SECONDS.toMillis(1));
+		final Semaphore window = new Semaphore(parallelism);
+		try {
+			final EventReader reader = EventReader.open(file, format, checkpoint.getOffset(), defaultType, mapper);
+			Writer rejects = null;
+			try {
+				rejects = new OutputStreamWriter(new FileOutputStream(rejectsFile, true), StandardCharsets.UTF_8);
+				EventReader.Record record;
+				for (long number = 0; (record = reader.next()) != null; number++) {
+					checkpoint.started(number, record.getEndOffset());
+					if (record.getEvent() == null) {
+						unreadable.incrementAndGet();
+						reject(rejects, record.getLine());
+						checkpoint.completed(number);
+						continue;
+					}
+					// the token is taken first so that being interrupted while paced leaves no permit behind
+					if (bucket != null) {
+						bucket.acquire();
+					}
+					window.acquire();
+					try {
+						send(record, number, checkpoint, window, rejects);
+					} catch (RuntimeException e) {
+						window.release();
+						throw e;
+					}
+				}
+			} finally {
+				window.acquireUninterruptibly(parallelism); // lets the events in flight complete before closing up
+				reader.close();
+				if (rejects != null) {
+					rejects.close();
+				}
+			}
+		} finally {
+			checkpoint.close();
+		}
+	}
+
+	private void send(final EventReader.Record record, final long number, final Checkpoint checkpoint, final Semaphore window,
+			final Writer rejects) {
+
+		client.sendAsync(record.getEvent()).whenComplete(new BiConsumer<SiftScienceResponse, Throwable>() {
+			@Override
+			public void accept(final SiftScienceResponse response, final Throwable t) {
+				try {
+					if (t == null && response.getStatus() != null && response.getStatus() == 0) {
+						sent.incrementAndGet();
+					} else {
+						failed.incrementAndGet();
+						reject(rejects, record.getLine());
+					}
+					checkpoint.completed(number);
+				} finally {
+					window.release();
+				}
+			}
+		});
+	}
+
+	private void reject(final Writer rejects, final String line) {
+		synchronized (rejects) {
+			try {
+				rejects.write(line);
+				rejects.write('\n');
+				rejects.flush();
+			} catch (IOException e) {
+				throw new IllegalStateException(String.format("Could not write to rejects file [%s].", rejectsFile), e);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of events Sift Science accepted.
+	 */
+	public long getSent() {
+		return sent.get();
+	}
+
+	/**
+	 * @return the number of events Sift Science did not accept, or which never reached it.
+	 */
+	public long getFailed() {
+		return failed.get();
+	}
+
+	/**
+	 * @return the number of lines which could not be read as events.
+	 */
+	public long getUnreadable() {
+		return unreadable.get();
+	}
+
+	/**
+	 * Runs a backfill from the command line:
+	 *
+	 * <pre><code>
+	 * java -cp sift-java.jar:... com.mcac0006.siftscience.backfill.Backfill \
+	 *     --api-key API_KEY [--base-url URL] [--format ndjson|csv] [--type $create_order] \
+	 *     [--parallelism 8] [--rate 100] [--checkpoint FILE] [--rejects FILE] FILE
+	 * </code></pre>
+	 *
+	 * The format defaults to CSV for <code>.csv</code> files and to NDJSON otherwise. The checkpoint and
+	 * rejects files default to the input file's name suffixed with <code>.checkpoint</code> and <code>.rejects</code>.
+	 */
+	public static void main(final String[] args) throws Exception {
+
+		final SiftClient.Builder clientBuilder = SiftClient.builder();
+		String path = null;
+		InputFormat format = null;
+		String type = null;
+		int parallelism = 8;
+		double rate = 0;
+		File checkpoint = null;
+		File rejects = null;
+		try {
+			for (int i = 0; i < args.length; i++) {
+				final String arg = args[i];
+				if ("--api-key".equals(arg)) {
+					clientBuilder.apiKey(args[++i]);
+				} else if ("--base-url".equals(arg)) {
+					clientBuilder.baseUrl(args[++i]);
+				} else if ("--format".equals(arg)) {
+					format = InputFormat.valueOf(args[++i].toUpperCase());
+				} else if ("--type".equals(arg)) {
+					type = args[++i];
+				} else if ("--parallelism".equals(arg)) {
+					parallelism = Integer.parseInt(args[++i]);
+				} else if ("--rate".equals(arg)) {
+					rate = Double.parseDouble(args[++i]);
+				} else if ("--checkpoint".equals(arg)) {
+					checkpoint = new File(args[++i]);
+				} else if ("--rejects".equals(arg)) {
+					rejects = new File(args[++i]);
+				} else if (arg.startsWith("--") || path != null) {
+					throw new IllegalArgumentException(String.format("Unexpected argument [%s].", arg));
+				} else {
+					path = arg;
+				}
+			}
+			if (path == null) {
+				throw new IllegalArgumentException("No input file given.");
+			}
+		} catch (RuntimeException e) {
+			System.err.println(e.getMessage() != null ? e.getMessage() : e);
+			System.err.println("Usage: Backfill --api-key API_KEY [--base-url URL] [--format ndjson|csv] [--type $create_order]"
+					+ " [--parallelism 8] [--rate 100] [--checkpoint FILE] [--rejects FILE] FILE");
+			System.exit(2);
+			return;
+		}
+
+		final File file = new File(path);
+		if (format == null) {
+			format = path.toLowerCase().endsWith(".csv") ? InputFormat.CSV : InputFormat.NDJSON;
+		}
+
+		final SiftClient client = clientBuilder.maxInFlight(parallelism).build();
+		try {
+			final Backfill backfill = builder(client, file).format(format).defaultType(type).parallelism(parallelism)
+					.rate(rate).checkpointFile(checkpoint).rejectsFile(rejects).build();
+			backfill.run();
+			System.out.println(String.format("Sent %d events; %d failed and %d lines were unreadable (see %s).",
+					backfill.getSent(), backfill.getFailed(), backfill.getUnreadable(), backfill.rejectsFile));
+		} finally {
+			client.close();
+		}
+	}
+
+	/**
+	 * Builds {@link Backfill} instances.
+	 */
+	public static class Builder {
+
+		private final SiftClient client;
+
+		private final File file;
+
+		private InputFormat format = InputFormat.NDJSON;
+
+		private String defaultType;
+
+		private int parallelism = 8;
+
+		/**
+		 * Zero means unlimited.
+		 */
+		private double rate;
+
+		private File checkpointFile;
+
+		private File rejectsFile;
+
+		private ObjectMapper mapper;
+
+		private Builder(final SiftClient client, final File file) {
+			if (client == null) {
+				throw new IllegalArgumentException("A client is required.");
+			}
+			if (file == null) {
+				throw new IllegalArgumentException("An input file is required.");
+			}
+			this.client = client;
+			this.file = file;
+		}
+
+		public Builder format(final InputFormat format) {
+			this.format = format;
+			return this;
+		}
+
+		/**
+		 * @param defaultType - the <code>$type</code> of events which do not state one, e.g. <code>$create_order</code>.
+		 */
+		public Builder defaultType(final String defaultType) {
+			this.defaultType = defaultType;
+			return this;
+		}
+
+		/**
+		 * @param parallelism - the most events to have on the wire at once (though never more than the
+		 *                      client's own in-flight limit).
+		 */
+		public Builder parallelism(final int parallelism) {
+			if (parallelism < 1) {
+				throw new IllegalArgumentException(String.format("Parallelism must be positive, was [%d].", parallelism));
+			}
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		/**
+		 * @param rate - the most events to send per second, or zero for as many as the parallelism allows.
+		 */
+		public Builder rate(final double rate) {
+			if (rate < 0) {
+				throw new IllegalArgumentException(String.format("Rate must not be negative, was [%s].", rate));
+			}
+			this.rate = rate;
+			return this;
+		}
+
+		/**
+		 * @param checkpointFile - where progress is recorded, by default the input file's name suffixed with
+		 *                         <code>.checkpoint</code>. Delete it to start over.
+		 */
+		public Builder checkpointFile(final File checkpointFile) {
+			this.checkpointFile = checkpointFile;
+			return this;
+		}
+
+		/**
+		 * @param rejectsFile - where the lines of rejected events are appended, by default the input file's
+		 *                      name suffixed with <code>.rejects</code>.
+		 */
+		public Builder rejectsFile(final File rejectsFile) {
+			this.rejectsFile = rejectsFile;
+			return this;
+		}
+
+		/**
+		 * @param mapper - the mapper events are read with.
+		 */
+		public Builder mapper(final ObjectMapper mapper) {
+			this.mapper = mapper;
+			return this;
+		}
+
+		public Backfill build() {
+			if (format == null) {
+				throw new IllegalArgumentException("An input format is required.");
+			}
+			return new Backfill(this);
+		}
+	}
+}
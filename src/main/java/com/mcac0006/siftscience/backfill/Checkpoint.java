@@ -0,0 +1,118 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.backfill;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Remembers how far into its input file a {@link Backfill} has got, so that it can pick up from there
+ * after a crash or a restart.
+ *
+ * Events complete out of order when several are in flight, so the checkpoint only ever moves past an
+ * event once every event before it has completed too. Resuming may hence resend a few events which
+ * made it already; it never skips one which did not.
+ *
+ * On disk, the checkpoint is a single, memory-mapped 8-byte offset, forced out every so often and on close.
+ *
+ */
+public class Checkpoint implements Closeable {
+
+	private final FileChannel channel;
+
+	private final MappedByteBuffer buffer;
+
+	private final long forceIntervalMillis;
+
+	/**
+	 * The offset at which each started (but not yet checkpointed) event ends, keyed by the event's number.
+	 * Negated once the event has completed.
+	 */
+	private final TreeMap<Long, Long> started = new TreeMap<Long, Long>();
+
+	private long offset;
+
+	private long forcedAt = System.currentTimeMillis();
+
+	private boolean dirty;
+
+	/**
+	 * @param forceIntervalMillis - how often (at most) the checkpoint is forced out to disk.
+	 */
+	public Checkpoint(final File file, final long forceIntervalMillis) throws IOException {
+		final boolean fresh = !file.exists() || file.length() == 0;
+		this.channel = new RandomAccessFile(file, "rw").getChannel();
+		this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, 8);
+		this.offset = fresh ? 0 : buffer.getLong(0);
+		this.forceIntervalMillis = forceIntervalMillis;
+	}
+
+	/**
+	 * @return the offset to resume reading from.
+	 */
+	public synchronized long getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Records that an event has been read and is about to be sent.
+	 *
+	 * @param number - the event's position in the run, counting up from zero without gaps.
+	 * @param endOffset - the offset right after the event's line.
+	 */
+	public synchronized void started(final long number, final long endOffset) {
+		started.put(number, endOffset);
+	}
+
+	/**
+	 * Records that an event has been dealt with (sent, or given up on), moving the checkpoint forward if
+	 * every event before it has been dealt with too.
+	 */
+	public synchronized void completed(final long number) {
+
+		final Long endOffset = started.get(number);
+		if (endOffset == null || endOffset < 0) {
+			return;
+		}
+		started.put(number, -endOffset - 1);
+
+		boolean moved = false;
+		Map.Entry<Long, Long> first;
+		while ((first = started.firstEntry()) != null && first.getValue() < 0) {
+			offset = -first.getValue() - 1;
+			started.pollFirstEntry();
+			moved = true;
+		}
+		if (moved) {
+			buffer.putLong(0, offset);
+			dirty = true;
+			if (System.currentTimeMillis() - forcedAt >= forceIntervalMillis) {
+				force();
+			}
+		}
+	}
+
+	/**
+	 * Forces the checkpoint out to disk.
+	 */
+	public synchronized void force() {
+		if (dirty) {
+			buffer.force();
+			dirty = false;
+		}
+		forcedAt = System.currentTimeMillis();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		force();
+		channel.close();
+	}
+}
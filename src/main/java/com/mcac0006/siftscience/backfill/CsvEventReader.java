@@ -0,0 +1,173 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.backfill;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.node.ArrayNode;
+import org.codehaus.jackson.node.JsonNodeFactory;
+import org.codehaus.jackson.node.ObjectNode;
+
+/**
+ * Reads {@link InputFormat#CSV} files.
+ *
+ */
+final class CsvEventReader extends EventReader {
+
+	/**
+	 * Numbers are passed on as such (so that <code>$time</code>, amounts and <code>_lat</code>/<code>_lng</code>
+	 * fields come out right), except for those with leading zeros, which are most likely identifiers.
+	 */
+	private static final Pattern INTEGER = Pattern.compile("-?(0|[1-9][0-9]*)");
+
+	private static final Pattern DECIMAL = Pattern.compile("-?(0|[1-9][0-9]*)\\.[0-9]+");
+
+	private final JsonNodeFactory nodes;
+
+	/**
+	 * The path to the field each column fills in, e.g. <code>[$billing_address, $city]</code>.
+	 */
+	private final String[][] columns;
+
+	private CsvEventReader(final LineReader lines, final ObjectMapper mapper, final String defaultType, final String[][] columns) {
+		super(lines, mapper, defaultType);
+		this.nodes = mapper.getNodeFactory();
+		this.columns = columns;
+	}
+
+	static CsvEventReader open(final File file, final long offset, final ObjectMapper mapper, final String defaultType)
+			throws IOException {
+
+		final String[][] columns;
+		final long headerEnd;
+		final LineReader header = new LineReader(file, 0);
+		try {
+			final String line = header.readLine();
+			if (line == null) {
+				throw new IOException(String.format("[%s] has no header row.", file));
+			}
+			final List<String> names = split(line);
+			columns = new String[names.size()][];
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = names.get(i).trim().split("\\.");
+			}
+			headerEnd = header.getOffset();
+		} finally {
+			header.close();
+		}
+		return new CsvEventReader(new LineReader(file, Math.max(offset, headerEnd)), mapper, defaultType, columns);
+	}
+
+	@Override
+	ObjectNode parse(final String line) {
+
+		final List<String> values = split(line);
+		if (values.size() > columns.length) {
+			throw new IllegalArgumentException(String.format("The row has [%d] values but there are only [%d] columns.",
+					values.size(), columns.length));
+		}
+
+		final ObjectNode envelope = nodes.objectNode();
+		for (int i = 0; i < values.size(); i++) {
+			final String value = values.get(i);
+			if (!value.isEmpty()) {
+				put(envelope, columns[i], value);
+			}
+		}
+		return envelope;
+	}
+
+	private void put(final ObjectNode envelope, final String[] path, final String value) {
+
+		JsonNode parent = envelope;
+		for (int i = 0; i < path.length; i++) {
+			final boolean last = i == path.length - 1;
+			final JsonNode child = last ? toNode(value) : isIndex(path[i + 1]) ? nodes.arrayNode() : nodes.objectNode();
+			parent = setIfAbsent(parent, path[i], child);
+		}
+	}
+
+	/**
+	 * @return the node found under the key (or index), having put the given node there if there was none.
+	 */
+	private JsonNode setIfAbsent(final JsonNode parent, final String key, final JsonNode child) {
+
+		if (parent instanceof ArrayNode) {
+			final ArrayNode array = (ArrayNode)parent;
+			final int index = Integer.parseInt(key);
+			while (array.size() <= index) {
+				array.addNull();
+			}
+			if (array.get(index).isNull()) {
+				array.set(index, child);
+			}
+			return array.get(index);
+		}
+		final ObjectNode object = (ObjectNode)parent;
+		if (object.get(key) == null) {
+			object.put(key, child);
+		}
+		return object.get(key);
+	}
+
+	private static boolean isIndex(final String key) {
+		return INTEGER.matcher(key).matches() && key.charAt(0) != '-';
+	}
+
+	private JsonNode toNode(final String value) {
+
+		try {
+			if (INTEGER.matcher(value).matches()) {
+				return nodes.numberNode(Long.parseLong(value));
+			}
+			if (DECIMAL.matcher(value).matches()) {
+				return nodes.numberNode(Double.parseDouble(value));
+			}
+		} catch (NumberFormatException e) {
+			// too long to be a number, so most likely an identifier
+		}
+		return nodes.textNode(value);
+	}
+
+	/**
+	 * Splits a row into its values, unquoting those in double quotes.
+	 */
+	static List<String> split(final String line) {
+
+		final List<String> values = new ArrayList<String>();
+		final StringBuilder value = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			final char c = line.charAt(i);
+			if (quoted) {
+				if (c != '"') {
+					value.append(c);
+				} else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					value.append('"');
+					i++;
+				} else {
+					quoted = false;
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				values.add(value.toString());
+				value.setLength(0);
+			} else {
+				value.append(c);
+			}
+		}
+		if (quoted) {
+			throw new IllegalArgumentException("The row has an unterminated quoted value.");
+		}
+		values.add(value.toString());
+		return values;
+	}
+}
@@ -0,0 +1,171 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.backfill;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.node.ObjectNode;
+
+import com.mcac0006.siftscience.event.domain.Custom;
+import com.mcac0006.siftscience.event.domain.Event;
+import com.mcac0006.siftscience.event.domain.EventTypes;
+
+/**
+ * Streams events out of a file, one line at a time, remembering where each one ends so that a
+ * {@link Checkpoint} can resume reading right after the last event dealt with.
+ *
+ */
+public abstract class EventReader implements Closeable {
+
+	private final LineReader lines;
+
+	private final ObjectMapper mapper;
+
+	/**
+	 * The <code>$type</code> of lines which do not state one, or <code>null</code>.
+	 */
+	private final String defaultType;
+
+	EventReader(final LineReader lines, final ObjectMapper mapper, final String defaultType) {
+		this.lines = lines;
+		this.mapper = mapper;
+		this.defaultType = defaultType;
+	}
+
+	/**
+	 * @param offset - where to start reading, e.g. {@link Checkpoint#getOffset()}. Zero reads the whole file.
+	 * @param defaultType - the <code>$type</code> of events which do not state one (e.g. <code>$create_order</code>),
+	 *                      or <code>null</code> if every event must.
+	 */
+	public static EventReader open(final File file, final InputFormat format, final long offset,
+			final String defaultType, final ObjectMapper mapper) throws IOException {
+
+		switch (format) {
+		case NDJSON:
+			return new NdjsonEventReader(new LineReader(file, offset), mapper, defaultType);
+		case CSV:
+			return CsvEventReader.open(file, offset, mapper, defaultType);
+		default:
+			throw new IllegalArgumentException(String.format("Input format [%s] is not supported.", format));
+		}
+	}
+
+	/**
+	 * @return the next event (or the reason the next line could not be read as one), or <code>null</code>
+	 *         at the end of the file. Blank lines are skipped.
+	 */
+	public Record next() throws IOException {
+
+		String line;
+		while ((line = lines.readLine()) != null && line.trim().isEmpty()) {
+			// skip
+		}
+		if (line == null) {
+			return null;
+		}
+		try {
+			return new Record(line, lines.getOffset(), toEvent(parse(line)), null);
+		} catch (IOException e) {
+			return new Record(line, lines.getOffset(), null, e);
+		} catch (IllegalArgumentException e) {
+			return new Record(line, lines.getOffset(), null, e);
+		}
+	}
+
+	/**
+	 * @return the line as an event envelope.
+	 */
+	abstract ObjectNode parse(String line) throws IOException;
+
+	private Event toEvent(final ObjectNode envelope) throws IOException {
+
+		final JsonNode typeNode = envelope.get("$type");
+		final String type = typeNode != null ? typeNode.getTextValue() : defaultType;
+		if (type == null) {
+			throw new IllegalArgumentException("The event has no $type.");
+		}
+		envelope.put("$type", type);
+
+		final Class<? extends Event> eventClass = EventTypes.classOf(type);
+		if (eventClass != null) {
+			return mapper.readValue(envelope, eventClass);
+		}
+
+		final Custom custom = new Custom(type);
+		final Iterator<Map.Entry<String, JsonNode>> fields = envelope.getFields();
+		while (fields.hasNext()) {
+			final Map.Entry<String, JsonNode> field = fields.next();
+			if ("$type".equals(field.getKey())) {
+				continue;
+			} else if ("$api_key".equals(field.getKey())) {
+				custom.setApiKey(field.getValue().getTextValue());
+			} else if ("$time".equals(field.getKey())) {
+				final Calendar time = Calendar.getInstance();
+				time.setTimeInMillis(field.getValue().getLongValue() * 1000);
+				custom.setTime(time);
+			} else {
+				custom.addCustomField(field.getKey(), mapper.treeToValue(field.getValue(), Object.class));
+			}
+		}
+		return custom;
+	}
+
+	@Override
+	public void close() throws IOException {
+		lines.close();
+	}
+
+	/**
+	 * A line read from the file, and the event it holds.
+	 */
+	public static final class Record {
+
+		private final String line;
+
+		private final long endOffset;
+
+		private final Event event;
+
+		private final Exception failure;
+
+		private Record(final String line, final long endOffset, final Event event, final Exception failure) {
+			this.line = line;
+			this.endOffset = endOffset;
+			this.event = event;
+			this.failure = failure;
+		}
+
+		public String getLine() {
+			return line;
+		}
+
+		/**
+		 * @return the offset right after the line, i.e. where to resume reading once the event has been dealt with.
+		 */
+		public long getEndOffset() {
+			return endOffset;
+		}
+
+		/**
+		 * @return the event, or <code>null</code> if the line could not be read as one.
+		 */
+		public Event getEvent() {
+			return event;
+		}
+
+		/**
+		 * @return why the line could not be read as an event, or <code>null</code>.
+		 */
+		public Exception getFailure() {
+			return failure;
+		}
+	}
+}
@@ -0,0 +1,25 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.backfill;
+
+/**
+ * The layouts a {@link Backfill} can read events from.
+ *
+ */
+public enum InputFormat {
+
+	/**
+	 * Newline-delimited JSON: one event envelope per line, exactly as it would be sent to Sift Science
+	 * (<code>$type</code>, <code>$time</code> in seconds, and so on).
+	 */
+	NDJSON,
+
+	/**
+	 * Comma-separated values with a header row naming each column after the field it fills in, e.g.
+	 * <code>$user_id,$time,$amount,$billing_address.$city,$items.0.$item_id</code>. Dots reach into nested
+	 * objects and numbers into arrays. Rows carry a <code>$type</code> column, or all share the backfill's
+	 * default event type. Quoted values may contain commas and doubled quotes, but not line breaks.
+	 */
+	CSV;
+}
@@ -0,0 +1,91 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.backfill;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads a UTF-8 file line by line, keeping track of the byte offset each line ends at, so that reading can
+ * later resume right after it. Only the current line is ever held in memory.
+ *
+ */
+final class LineReader implements Closeable {
+
+	private final FileChannel channel;
+
+	private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+	private byte[] line = new byte[1024];
+
+	/**
+	 * The offset of the first byte not handed out yet.
+	 */
+	private long offset;
+
+	LineReader(final File file, final long offset) throws IOException {
+		this.channel = new RandomAccessFile(file, "r").getChannel();
+		if (offset > channel.size()) {
+			channel.close();
+			throw new IOException(String.format("Offset [%d] lies beyond the end of [%s].", offset, file));
+		}
+		channel.position(offset);
+		this.offset = offset;
+		buffer.flip();
+	}
+
+	/**
+	 * @return the next line (without its line terminator), or <code>null</code> at the end of the file.
+	 */
+	String readLine() throws IOException {
+
+		int length = 0;
+		boolean eol = false;
+		while (!eol) {
+			if (!buffer.hasRemaining()) {
+				buffer.clear();
+				final int read = channel.read(buffer);
+				buffer.flip();
+				if (read < 0) {
+					if (length == 0) {
+						return null;
+					}
+					break; // the last line need not be terminated
+				}
+			}
+			final byte b = buffer.get();
+			offset++;
+			if (b == '\n') {
+				eol = true;
+			} else {
+				if (length == line.length) {
+					line = Arrays.copyOf(line, length * 2);
+				}
+				line[length++] = b;
+			}
+		}
+		if (length > 0 && line[length - 1] == '\r') {
+			length--;
+		}
+		return new String(line, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return the offset right after the last line read.
+	 */
+	long getOffset() {
+		return offset;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
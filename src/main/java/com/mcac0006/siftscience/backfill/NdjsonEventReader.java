@@ -0,0 +1,34 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.backfill;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.node.ObjectNode;
+
+/**
+ * Reads {@link InputFormat#NDJSON} files.
+ *
+ */
+final class NdjsonEventReader extends EventReader {
+
+	private final ObjectMapper mapper;
+
+	NdjsonEventReader(final LineReader lines, final ObjectMapper mapper, final String defaultType) {
+		super(lines, mapper, defaultType);
+		this.mapper = mapper;
+	}
+
+	@Override
+	ObjectNode parse(final String line) throws IOException {
+
+		final JsonNode node = mapper.readTree(line);
+		if (!(node instanceof ObjectNode)) {
+			throw new IllegalArgumentException("The line does not hold a JSON object.");
+		}
+		return (ObjectNode)node;
+	}
+}
@@ -0,0 +1,315 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.cache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.mcac0006.siftscience.event.domain.AddItemToCart;
+import com.mcac0006.siftscience.event.domain.CreateAccount;
+import com.mcac0006.siftscience.event.domain.CreateContent;
+import com.mcac0006.siftscience.event.domain.CreateOrder;
+import com.mcac0006.siftscience.event.domain.Event;
+import com.mcac0006.siftscience.event.domain.LinkSessionToUser;
+import com.mcac0006.siftscience.event.domain.Login;
+import com.mcac0006.siftscience.event.domain.Logout;
+import com.mcac0006.siftscience.event.domain.RemoveItemFromCart;
+import com.mcac0006.siftscience.event.domain.SendMessage;
+import com.mcac0006.siftscience.event.domain.SubmitReview;
+import com.mcac0006.siftscience.event.domain.Transaction;
+import com.mcac0006.siftscience.event.domain.UpdateAccount;
+import com.mcac0006.siftscience.score.domain.SiftScienceScore;
+
+/**
+ * Holds on to users' scores for a while, so that scoring the same user several times over a session
+ * (at login, when adding to the cart, at checkout) takes one request to Sift Science rather than one each.
+ *
+ * Scores are kept per API key and user for a fixed time to live, and only the scores of the most recently
+ * scored users are kept. A user's score is dropped as soon as a label is sent for them, or an event likely
+ * to change their score (see {@link #setInvalidatingEventTypes(String...)}), both when it is sent and when
+ * Sift Science has taken it in. A score fetched before the user's score was dropped is not cached.
+ *
+ * Only successful scores (status 0) are cached. A score served from the cache has zero attempts.
+ *
+ */
+public class ScoreCache {
+
+	/**
+	 * The event types which drop the user's score by default.
+	 */
+	public static final Set<String> DEFAULT_INVALIDATING_EVENT_TYPES = Collections.unmodifiableSet(new HashSet<String>(
+			Arrays.asList("$create_account", "$update_account", "$login", "$create_order", "$transaction")));
+
+	/**
+	 * An entry with no score stands for a score dropped while it was being asked for, remembered until those
+	 * requests are answered so that a score fetched before it was dropped is not cached.
+	 */
+	private static final class CachedScore {
+
+		final SiftScienceScore score;
+
+		/**
+		 * When (in nanoseconds) the score was asked for, or dropped.
+		 */
+		final long since;
+
+		CachedScore(final SiftScienceScore score, final long since) {
+			this.score = score;
+			this.since = since;
+		}
+	}
+
+	private final Map<String, CachedScore> entries;
+
+	/**
+	 * How many requests for each user's score are awaiting Sift Science's answer.
+	 */
+	private final Map<String, Integer> asking = new HashMap<String, Integer>();
+
+	private final long ttlNanos;
+
+	private Set<String> invalidatingEventTypes = DEFAULT_INVALIDATING_EVENT_TYPES;
+
+	private long hits;
+
+	private long misses;
+
+	private long evictions;
+
+	/**
+	 * @param capacity - how many users' scores to keep at most.
+	 * @param ttl - how long to keep a score for.
+	 */
+	public ScoreCache(final int capacity, final long ttl, final TimeUnit unit) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException(String.format("Capacity must be positive, was [%d].", capacity));
+		}
+		if (ttl <= 0) {
+			throw new IllegalArgumentException(String.format("Time to live must be positive, was [%d].", ttl));
+		}
+		this.entries = new LinkedHashMap<String, CachedScore>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, CachedScore> eldest) {
+				if (size() > capacity) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+		this.ttlNanos = unit.toNanos(ttl);
+	}
+
+	/**
+	 * @return a copy of the user's cached score, or <code>null</code> if there is none (or it has expired).
+	 */
+	public synchronized SiftScienceScore get(final String apiKey, final String userId) {
+
+		final CachedScore entry = entries.get(key(apiKey, userId));
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+		if (System.nanoTime() - entry.since >= ttlNanos) {
+			// a dropped score expires too, as any score asked for before it was dropped would have by now
+			entries.remove(key(apiKey, userId));
+			misses++;
+			return null;
+		}
+		if (entry.score == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return entry.score.copy();
+	}
+
+	/**
+	 * Caches a score Sift Science gave, unless it is not a successful one or the user's score was dropped
+	 * after it was asked for.
+	 *
+	 * @param askedAt - when (as per {@link System#nanoTime()}) the score was asked for.
+	 */
+	public synchronized void put(final String apiKey, final String userId, final SiftScienceScore score, final long askedAt) {
+
+		if (score.getStatus() == null || score.getStatus() != 0) {
+			return;
+		}
+		final String key = key(apiKey, userId);
+		final CachedScore entry = entries.get(key);
+		if (entry != null && entry.score == null && entry.since - askedAt >= 0) {
+			return; // the score may predate whatever dropped it
+		}
+		entries.put(key, new CachedScore(score, askedAt));
+	}
+
+	/**
+	 * Notes that the user's score is being asked of Sift Science, so that dropping it before the answer comes
+	 * back keeps that answer out of the cache. Each call must be followed by one to
+	 * {@link #answered(String, String, SiftScienceScore, long)}.
+	 *
+	 * @return when (as per {@link System#nanoTime()}) the score was asked for.
+	 */
+	public synchronized long asking(final String apiKey, final String userId) {
+
+		final String key = key(apiKey, userId);
+		final Integer count = asking.get(key);
+		asking.put(key, count != null ? count + 1 : 1);
+		return System.nanoTime();
+	}
+
+	/**
+	 * Caches the score Sift Science gave (as per {@link #put(String, String, SiftScienceScore, long)}), if
+	 * any, for a request noted by {@link #asking(String, String)}.
+	 *
+	 * @param score - <code>null</code> if the request failed.
+	 * @param askedAt - as returned by {@link #asking(String, String)}.
+	 */
+	public synchronized void answered(final String apiKey, final String userId, final SiftScienceScore score, final long askedAt) {
+
+		if (score != null) {
+			put(apiKey, userId, score, askedAt);
+		}
+		final String key = key(apiKey, userId);
+		final Integer count = asking.get(key);
+		if (count == null || count > 1) {
+			if (count != null) {
+				asking.put(key, count - 1);
+			}
+			return;
+		}
+		asking.remove(key);
+		final CachedScore entry = entries.get(key);
+		if (entry != null && entry.score == null) {
+			entries.remove(key); // nothing left for it to keep out
+		}
+	}
+
+	/**
+	 * Drops the user's score, e.g. after sending Sift Science something which changes it.
+	 */
+	public synchronized void invalidate(final String apiKey, final String userId) {
+
+		final String key = key(apiKey, userId);
+		if (asking.containsKey(key)) {
+			entries.put(key, new CachedScore(null, System.nanoTime()));
+		} else {
+			entries.remove(key);
+		}
+	}
+
+	public synchronized void invalidateAll() {
+
+		final long now = System.nanoTime();
+		entries.clear();
+		for (final String key : asking.keySet()) {
+			entries.put(key, new CachedScore(null, now));
+		}
+	}
+
+	/**
+	 * @return whether sending this event drops its user's score.
+	 */
+	public boolean invalidates(final Event event) {
+		return invalidates(event.getEventType()) && userIdOf(event) != null;
+	}
+
+	/**
+	 * @return whether sending an event of this type drops its user's score.
+	 */
+	public boolean invalidates(final String eventType) {
+		return invalidatingEventTypes.contains(eventType);
+	}
+
+	/**
+	 * @return the user the event is about, or <code>null</code> if it is about no user in particular.
+	 */
+	public static String userIdOf(final Event event) {
+
+		final Object custom = event.getCustomFields().get("$user_id");
+		if (custom != null) {
+			return custom.toString();
+		}
+		if (event instanceof AddItemToCart) {
+			return ((AddItemToCart) event).getUserId();
+		} else if (event instanceof CreateAccount) {
+			return ((CreateAccount) event).getUserId();
+		} else if (event instanceof CreateContent) {
+			return ((CreateContent) event).getUserId();
+		} else if (event instanceof CreateOrder) {
+			return ((CreateOrder) event).getUserId();
+		} else if (event instanceof LinkSessionToUser) {
+			return ((LinkSessionToUser) event).getUserId();
+		} else if (event instanceof Login) {
+			return ((Login) event).getUserId();
+		} else if (event instanceof Logout) {
+			return ((Logout) event).getUserId();
+		} else if (event instanceof RemoveItemFromCart) {
+			return ((RemoveItemFromCart) event).getUserId();
+		} else if (event instanceof SendMessage) {
+			return ((SendMessage) event).getUserId();
+		} else if (event instanceof SubmitReview) {
+			return ((SubmitReview) event).getUserId();
+		} else if (event instanceof Transaction) {
+			return ((Transaction) event).getUserId();
+		} else if (event instanceof UpdateAccount) {
+			return ((UpdateAccount) event).getUserId();
+		}
+		return null; // e.g. a custom event without a $user_id field
+	}
+
+	public Set<String> getInvalidatingEventTypes() {
+		return invalidatingEventTypes;
+	}
+
+	/**
+	 * @param eventTypes - the event types (e.g. <code>$transaction</code>) which drop the user's score when
+	 *                     sent, in place of {@link #DEFAULT_INVALIDATING_EVENT_TYPES}.
+	 */
+	public ScoreCache setInvalidatingEventTypes(String... eventTypes) {
+		this.invalidatingEventTypes = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(eventTypes)));
+		return this;
+	}
+
+	/**
+	 * @return how many scores were served from the cache.
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return how many scores had to be asked of Sift Science.
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return how many entries were dropped to make room for others.
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * @return how many users the cache holds an entry for, including scores dropped while being asked for.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	private static String key(final String apiKey, final String userId) {
+		return apiKey + '\u0000' + userId;
+	}
+}
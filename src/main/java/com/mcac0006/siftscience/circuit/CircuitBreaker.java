@@ -0,0 +1,122 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.circuit;
+
+/**
+ * Stops a client from waiting on Sift Science while it is failing. Once too many of the latest requests
+ * have failed (or been too slow), the circuit <em>opens</em> and requests fail straight away with a
+ * {@link com.mcac0006.siftscience.exception.CircuitOpenException}, without anything being sent. After a while
+ * it goes <em>half-open</em> and lets a few probing requests through: if they all succeed the circuit
+ * <em>closes</em> again, otherwise it re-opens.
+ *
+ * Every request let through by {@link #tryAcquire()} must report its outcome through {@link #onResult(long, boolean)}.
+ *
+ */
+public class CircuitBreaker {
+
+	private final CircuitBreakerConfig config;
+
+	/**
+	 * The outcomes of the latest requests (<code>true</code> meaning failed), as a ring.
+	 */
+	private final boolean[] window;
+
+	private int next;
+
+	private int size;
+
+	private int failures;
+
+	private CircuitState state = CircuitState.CLOSED;
+
+	/**
+	 * When (in milliseconds) the circuit last opened, or last went half-open.
+	 */
+	private long changedAt;
+
+	private int probesLeft;
+
+	private int probesSucceeded;
+
+	public CircuitBreaker(final CircuitBreakerConfig config) {
+		this.config = config;
+		this.window = new boolean[config.getWindowSize()];
+	}
+
+	/**
+	 * @return whether a request may go ahead.
+	 */
+	public synchronized boolean tryAcquire() {
+
+		final long now = System.currentTimeMillis();
+		if (state == CircuitState.CLOSED) {
+			return true;
+		}
+		if (now - changedAt >= config.getOpenMillis()) {
+			if (state == CircuitState.OPEN || probesLeft == 0) {
+				// time to probe, or the last probes never reported back
+				state = CircuitState.HALF_OPEN;
+				changedAt = now;
+				probesLeft = config.getHalfOpenProbes();
+				probesSucceeded = 0;
+			}
+		}
+		if (state == CircuitState.HALF_OPEN && probesLeft > 0) {
+			probesLeft--;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Records the outcome of a request let through by {@link #tryAcquire()}.
+	 *
+	 * @param latencyNanos - how long the request took.
+	 * @param failed - whether it failed in a way which tells of Sift Science struggling.
+	 */
+	public synchronized void onResult(final long latencyNanos, final boolean failed) {
+
+		final boolean bad = failed || (config.getSlowCallNanos() > 0 && latencyNanos > config.getSlowCallNanos());
+		switch (state) {
+		case CLOSED:
+			if (size == window.length) {
+				failures -= window[next] ? 1 : 0;
+			} else {
+				size++;
+			}
+			window[next] = bad;
+			failures += bad ? 1 : 0;
+			next = (next + 1) % window.length;
+			if (size >= config.getMinimumCalls() && failures >= config.getFailureRateThreshold() * size) {
+				open();
+			}
+			break;
+		case HALF_OPEN:
+			if (bad) {
+				open();
+			} else if (++probesSucceeded >= config.getHalfOpenProbes()) {
+				close();
+			}
+			break;
+		default:
+			break; // a request sent before the circuit opened
+		}
+	}
+
+	private void open() {
+		state = CircuitState.OPEN;
+		changedAt = System.currentTimeMillis();
+	}
+
+	private void close() {
+		state = CircuitState.CLOSED;
+		next = 0;
+		size = 0;
+		failures = 0;
+	}
+
+	public synchronized CircuitState getState() {
+		return state;
+	}
+}
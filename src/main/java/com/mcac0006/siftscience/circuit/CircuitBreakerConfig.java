@@ -0,0 +1,118 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.circuit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tunes a {@link CircuitBreaker}.
+ *
+ */
+public class CircuitBreakerConfig {
+
+	/**
+	 * How many of the latest requests the failure rate is worked out over.
+	 */
+	private int windowSize = 20;
+
+	/**
+	 * How many requests the window must hold before the circuit may open, so that a couple of early
+	 * failures do not open it.
+	 */
+	private int minimumCalls = 10;
+
+	/**
+	 * The share of failed (or slow) requests in the window at which the circuit opens.
+	 */
+	private double failureRateThreshold = 0.5;
+
+	/**
+	 * Requests taking longer than this (in nanoseconds) count as failed, even if they succeed. Zero means
+	 * only actual failures count.
+	 */
+	private long slowCallNanos;
+
+	/**
+	 * How long (in milliseconds) the circuit stays open before probing Sift Science again.
+	 */
+	private long openMillis = TimeUnit.SECONDS.toMillis(5);
+
+	/**
+	 * How many probing requests are let through while half-open; the circuit closes once they all succeed.
+	 */
+	private int halfOpenProbes = 3;
+
+	public int getWindowSize() {
+		return windowSize;
+	}
+
+	public CircuitBreakerConfig setWindowSize(int windowSize) {
+		if (windowSize < 1) {
+			throw new IllegalArgumentException(String.format("Window size must be positive, was [%d].", windowSize));
+		}
+		this.windowSize = windowSize;
+		return this;
+	}
+
+	public int getMinimumCalls() {
+		return minimumCalls;
+	}
+
+	public CircuitBreakerConfig setMinimumCalls(int minimumCalls) {
+		if (minimumCalls < 1) {
+			throw new IllegalArgumentException(String.format("Minimum calls must be positive, was [%d].", minimumCalls));
+		}
+		this.minimumCalls = minimumCalls;
+		return this;
+	}
+
+	public double getFailureRateThreshold() {
+		return failureRateThreshold;
+	}
+
+	public CircuitBreakerConfig setFailureRateThreshold(double failureRateThreshold) {
+		if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+			throw new IllegalArgumentException(String.format("Failure rate threshold must lie in (0, 1], was [%s].",
+					failureRateThreshold));
+		}
+		this.failureRateThreshold = failureRateThreshold;
+		return this;
+	}
+
+	public long getSlowCallNanos() {
+		return slowCallNanos;
+	}
+
+	public CircuitBreakerConfig setSlowCallThreshold(long duration, TimeUnit unit) {
+		if (duration < 0) {
+			throw new IllegalArgumentException(String.format("Slow call threshold must not be negative, was [%d].", duration));
+		}
+		this.slowCallNanos = unit.toNanos(duration);
+		return this;
+	}
+
+	public long getOpenMillis() {
+		return openMillis;
+	}
+
+	public CircuitBreakerConfig setOpenDuration(long duration, TimeUnit unit) {
+		if (duration <= 0) {
+			throw new IllegalArgumentException(String.format("Open duration must be positive, was [%d].", duration));
+		}
+		this.openMillis = unit.toMillis(duration);
+		return this;
+	}
+
+	public int getHalfOpenProbes() {
+		return halfOpenProbes;
+	}
+
+	public CircuitBreakerConfig setHalfOpenProbes(int halfOpenProbes) {
+		if (halfOpenProbes < 1) {
+			throw new IllegalArgumentException(String.format("Half-open probes must be positive, was [%d].", halfOpenProbes));
+		}
+		this.halfOpenProbes = halfOpenProbes;
+		return this;
+	}
+}
@@ -0,0 +1,26 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.circuit;
+
+/**
+ * The states a {@link CircuitBreaker} moves between.
+ *
+ */
+public enum CircuitState {
+
+	/**
+	 * Requests go through, and their outcomes are tallied.
+	 */
+	CLOSED,
+
+	/**
+	 * Requests fail straight away, until the open duration has passed.
+	 */
+	OPEN,
+
+	/**
+	 * A few probing requests go through to see whether Sift Science has recovered; the rest fail straight away.
+	 */
+	HALF_OPEN;
+}
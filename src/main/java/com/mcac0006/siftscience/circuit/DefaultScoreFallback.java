@@ -0,0 +1,40 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.circuit;
+
+import com.mcac0006.siftscience.result.SiftStatus;
+import com.mcac0006.siftscience.score.domain.SiftScienceScore;
+
+/**
+ * Falls back on the same, configured score for everyone, e.g. a score low enough to let checkouts through
+ * while Sift Science is down (or high enough to hold them for review).
+ *
+ */
+public class DefaultScoreFallback implements ScoreFallback {
+
+	private final float score;
+
+	/**
+	 * @param score - the score to hand back, from 0.00 (entirely legitimate) to 1.00 (entirely a fraud).
+	 */
+	public DefaultScoreFallback(final float score) {
+		if (!(score >= 0 && score <= 1)) {
+			throw new IllegalArgumentException(String.format("Score must lie between 0 and 1, was [%s].", score));
+		}
+		this.score = score;
+	}
+
+	@Override
+	public void onScore(final String apiKey, final String userId, final SiftScienceScore score) {}
+
+	@Override
+	public SiftScienceScore fallback(final String apiKey, final String userId) {
+		final SiftScienceScore fallback = new SiftScienceScore();
+		fallback.setUserId(userId);
+		fallback.setScore(score);
+		fallback.setStatus((short)SiftStatus.OK);
+		fallback.setAttempts(0);
+		return fallback;
+	}
+}
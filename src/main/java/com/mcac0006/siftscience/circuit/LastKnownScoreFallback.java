@@ -0,0 +1,66 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.circuit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.mcac0006.siftscience.score.domain.SiftScienceScore;
+
+/**
+ * Falls back on the last score Sift Science gave the user, or on another fallback for users it has not
+ * scored lately. Only the scores of the most recently scored users are remembered.
+ *
+ */
+public class LastKnownScoreFallback implements ScoreFallback {
+
+	private final Map<String, SiftScienceScore> scores;
+
+	private final ScoreFallback otherwise;
+
+	/**
+	 * @param capacity - how many users' scores to remember at most.
+	 * @param otherwise - the fallback for users without a score on record, or <code>null</code> to fail them.
+	 */
+	public LastKnownScoreFallback(final int capacity, final ScoreFallback otherwise) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException(String.format("Capacity must be positive, was [%d].", capacity));
+		}
+		this.scores = new LinkedHashMap<String, SiftScienceScore>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, SiftScienceScore> eldest) {
+				return size() > capacity;
+			}
+		};
+		this.otherwise = otherwise;
+	}
+
+	@Override
+	public void onScore(final String apiKey, final String userId, final SiftScienceScore score) {
+		if (score.getStatus() != null && score.getStatus() == 0) {
+			synchronized (scores) {
+				scores.put(apiKey + '\u0000' + userId, score);
+			}
+		}
+		if (otherwise != null) {
+			otherwise.onScore(apiKey, userId, score);
+		}
+	}
+
+	@Override
+	public SiftScienceScore fallback(final String apiKey, final String userId) {
+
+		final SiftScienceScore known;
+		synchronized (scores) {
+			known = scores.get(apiKey + '\u0000' + userId);
+		}
+		if (known == null) {
+			return otherwise != null ? otherwise.fallback(apiKey, userId) : null;
+		}
+		return known.copy(); // as the score on record may still be in the hands of whoever asked for it first
+	}
+}
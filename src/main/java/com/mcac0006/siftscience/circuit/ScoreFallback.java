@@ -0,0 +1,27 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.circuit;
+
+import com.mcac0006.siftscience.score.domain.SiftScienceScore;
+
+/**
+ * Stands in for Sift Science when a score is asked for while the client's {@link CircuitBreaker} is open,
+ * so that callers (e.g. a checkout) get an answer straight away rather than a failure.
+ *
+ * Implementations must be thread-safe.
+ *
+ */
+public interface ScoreFallback {
+
+	/**
+	 * Called with every score Sift Science returns, e.g. to remember it for later.
+	 */
+	void onScore(String apiKey, String userId, SiftScienceScore score);
+
+	/**
+	 * @return the score to hand back in place of Sift Science's, or <code>null</code> to fail the request
+	 *         with a {@link com.mcac0006.siftscience.exception.CircuitOpenException} after all.
+	 */
+	SiftScienceScore fallback(String apiKey, String userId);
+}
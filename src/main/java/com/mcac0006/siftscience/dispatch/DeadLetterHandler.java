@@ -0,0 +1,24 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.dispatch;
+
+import com.mcac0006.siftscience.event.domain.Event;
+
+/**
+ * Takes over spooled events which an {@link EventDispatcher} gave up on after its
+ * {@link EventDispatcher.Builder#maxDeliveryAttempts(int) delivery attempts}. They have been acknowledged in
+ * the spool by then, so they no longer hold back the events after them.
+ *
+ */
+public interface DeadLetterHandler {
+
+	/**
+	 * Called on a worker thread, so implementations should be quick.
+	 *
+	 * @param event - the event, or <code>null</code> if it was replayed from a previous run.
+	 * @param payload - the serialized event, e.g. to send again later through
+	 *                  {@link com.mcac0006.siftscience.SiftClient#sendSerialized(byte[])}.
+	 */
+	void deadLetter(Event event, byte[] payload);
+}
@@ -0,0 +1,30 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.dispatch;
+
+import com.mcac0006.siftscience.event.domain.Event;
+import com.mcac0006.siftscience.result.domain.SiftScienceResponse;
+
+/**
+ * Notified of the outcome of every event handed to an {@link EventDispatcher}. Callbacks run on the
+ * dispatcher's worker threads (or, for dropped events, on the dispatching thread), so they should not block.
+ *
+ */
+public interface DispatchListener {
+
+	/**
+	 * Sift Science responded. Note the response may still carry a non-zero {@link SiftScienceResponse#getStatus() status}.
+	 */
+	void onResponse(Event event, SiftScienceResponse response);
+
+	/**
+	 * The event could not be sent at all.
+	 */
+	void onFailure(Event event, Throwable cause);
+
+	/**
+	 * The event was discarded because the queue was full (or the dispatcher closed without a {@link SpillHandler}).
+	 */
+	void onDrop(Event event);
+}
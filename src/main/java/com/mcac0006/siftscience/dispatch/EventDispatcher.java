@@ -0,0 +1,702 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.dispatch;
+
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import com.mcac0006.siftscience.SiftClient;
+import com.mcac0006.siftscience.event.domain.Event;
+import com.mcac0006.siftscience.exception.SiftScienceException;
+import com.mcac0006.siftscience.jmx.EventDispatcherStats;
+import com.mcac0006.siftscience.result.SiftStatus;
+import com.mcac0006.siftscience.result.domain.SiftScienceResponse;
+import com.mcac0006.siftscience.spool.EventSpool;
+
+/**
+ * Sends fire-and-forget events ($login, $logout, $add_item_to_cart, ...) in the background so that
+ * request threads only pay for putting the event on an in-memory queue.
+ *
+ * <pre><code>
+ * EventDispatcher dispatcher = EventDispatcher.builder(client)
+ *     .capacity(10000)
+ *     .workers(4)
+ *     .overflowPolicy(OverflowPolicy.DROP_OLDEST)
+ *     .build();
+ *
+ * dispatcher.dispatch(login); // returns straight away
+ * ...
+ * dispatcher.close(); // drains whatever is left in the queue
+ * </code></pre>
+ *
+ * The queue is bounded; what happens once it is full is decided by the {@link OverflowPolicy}.
+ * Each worker drains the queue in batches and sends the events through the {@link SiftClient} one by one.
+ *
+ * <h2>Write-ahead spooling</h2>
+ *
+ * Given an {@link EventSpool}, the dispatcher becomes durable: every event is serialized and appended to
+ * the spool before {@link #dispatch(Event)} returns, a feeder thread moves events from the spool into the
+ * in-memory queue as room frees up, and each event is acknowledged in the spool once Sift Science has
+ * settled it. An event which failed to send, or which Sift Science did not settle, is sent again after a
+ * backoff (see {@link Builder#redeliveryDelays(long, long, TimeUnit)}) until it is settled or has had its
+ * {@link Builder#maxDeliveryAttempts(int) attempts}, so that it does not hold back the acknowledgement of the
+ * events after it. The spool absorbs any backlog, so the overflow policy does not apply, and events left
+ * unacknowledged (still queued, or waiting to be sent again) are replayed when a dispatcher is next built on
+ * the same spool.
+ *
+ */
+public class EventDispatcher implements Closeable {
+
+	private final SiftClient client;
+
+	private final BlockingQueue<Entry> queue;
+
+	private final OverflowPolicy overflowPolicy;
+
+	private final SpillHandler spillHandler;
+
+	private final DispatchListener listener;
+
+	private final int batchSize;
+
+	private final long drainTimeoutMillis;
+
+	private final List<Thread> workers;
+
+	private final EventSpool spool;
+
+	private final Thread feeder;
+
+	/**
+	 * Puts spooled events back on the queue once their redelivery delay is up; <code>null</code> without a spool.
+	 */
+	private final ScheduledExecutorService redelivery;
+
+	private final long redeliveryBaseMillis;
+
+	private final long redeliveryMaxMillis;
+
+	/**
+	 * Zero means no limit.
+	 */
+	private final int maxDeliveryAttempts;
+
+	private final DeadLetterHandler deadLetterHandler;
+
+	/**
+	 * Spooled events not yet picked up by the feeder, so that listeners can be told about the event
+	 * itself rather than just its serialized form. Bounded by the queue's capacity; beyond that (and for
+	 * events replayed after a restart) listeners are handed <code>null</code>.
+	 */
+	private final ConcurrentMap<Long, Event> spooledEvents = new ConcurrentHashMap<Long, Event>();
+
+	private final int capacity;
+
+	private volatile boolean closed;
+
+	private final LongAdder sent = new LongAdder();
+
+	private final LongAdder failed = new LongAdder();
+
+	private final LongAdder dropped = new LongAdder();
+
+	private final LongAdder spilled = new LongAdder();
+
+	private final LongAdder redelivered = new LongAdder();
+
+	private final LongAdder deadLettered = new LongAdder();
+
+	/**
+	 * <code>null</code> unless registered with JMX.
+	 */
+	private final EventDispatcherStats stats;
+
+	private final ObjectName objectName;
+
+	private EventDispatcher(final Builder builder) {
+
+		this.client = builder.client;
+		this.queue = new ArrayBlockingQueue<Entry>(builder.capacity);
+		this.capacity = builder.capacity;
+		this.spool = builder.spool;
+		this.overflowPolicy = builder.overflowPolicy;
+		this.spillHandler = builder.spillHandler;
+		this.listener = builder.listener;
+		this.batchSize = builder.batchSize;
+		this.drainTimeoutMillis = builder.drainTimeoutMillis;
+		this.redeliveryBaseMillis = builder.redeliveryBaseMillis;
+		this.redeliveryMaxMillis = builder.redeliveryMaxMillis;
+		this.maxDeliveryAttempts = builder.maxDeliveryAttempts;
+		this.deadLetterHandler = builder.deadLetterHandler;
+		if (builder.jmxName != null) {
+			this.stats = new EventDispatcherStats(this);
+			try {
+				this.objectName = new ObjectName("com.mcac0006.siftscience:type=EventDispatcher,name=" + ObjectName.quote(builder.jmxName));
+				ManagementFactory.getPlatformMBeanServer().registerMBean(stats, objectName);
+			} catch (JMException e) {
+				throw new SiftScienceException(String.format("Could not register the dispatcher with JMX as [%s].", builder.jmxName), e);
+			}
+		} else {
+			this.stats = null;
+			this.objectName = null;
+		}
+
+		this.workers = new ArrayList<Thread>(builder.workers);
+		for (int i = 0; i < builder.workers; i++) {
+			final Thread worker = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					drain();
+				}
+			}, "sift-dispatcher-" + i);
+			worker.setDaemon(true);
+			workers.add(worker);
+			worker.start();
+		}
+
+		if (spool != null) {
+			feeder = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					feed();
+				}
+			}, "sift-dispatcher-feeder");
+			feeder.setDaemon(true);
+			feeder.start();
+			redelivery = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable r) {
+					final Thread t = new Thread(r, "sift-dispatcher-redelivery");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		} else {
+			feeder = null;
+			redelivery = null;
+		}
+	}
+
+	public static Builder builder(final SiftClient client) {
+		return new Builder(client);
+	}
+
+	/**
+	 * Queues an event to be sent in the background.
+	 *
+	 * @param event - the event to send.
+	 * @return <code>true</code> if the event was queued (or spilled), <code>false</code> if it was dropped.
+	 * @throws IllegalStateException if the dispatcher has been closed.
+	 */
+	public boolean dispatch(final Event event) {
+
+		if (closed) {
+			throw new IllegalStateException("Dispatcher has been closed.");
+		}
+
+		if (spool != null) {
+			final long sequence = spool.append(client.serialize(event));
+			if (spooledEvents.size() < capacity) {
+				spooledEvents.put(sequence, event);
+			}
+			LockSupport.unpark(feeder);
+			return true;
+		}
+
+		final Entry entry = new Entry(event, -1, null, 1, System.nanoTime());
+		if (queue.offer(entry)) {
+			return true;
+		}
+
+		switch (overflowPolicy) {
+
+		case BLOCK:
+			try {
+				queue.put(entry);
+				return true;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				drop(event);
+				return false;
+			}
+
+		case DROP_OLDEST:
+			while (!queue.offer(entry)) {
+				final Entry oldest = queue.poll();
+				if (oldest != null) {
+					drop(oldest.event);
+				}
+			}
+			return true;
+
+		case SPILL:
+			spill(event);
+			return true;
+
+		case DROP_NEWEST:
+		default:
+			drop(event);
+			return false;
+		}
+	}
+
+	/**
+	 * Moves spooled events into the in-memory queue, blocking whenever the queue is full.
+	 */
+	private void feed() {
+
+		final EventSpool.Cursor cursor = spool.cursor();
+		while (!closed) {
+			final EventSpool.Record record = cursor.next();
+			if (record == null) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50)); // woken up early by dispatch()
+				continue;
+			}
+			final Event event = spooledEvents.remove(record.getSequence());
+			try {
+				queue.put(new Entry(event, record.getSequence(), record.getPayload(), 1, System.nanoTime()));
+			} catch (InterruptedException e) {
+				return;
+			}
+		}
+	}
+
+	private void drain() {
+
+		final List<Entry> batch = new ArrayList<Entry>(batchSize);
+		while (true) {
+			try {
+				final Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					if (closed) {
+						return;
+					}
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+				for (final Entry entry : batch) {
+					deliver(entry);
+				}
+			} catch (InterruptedException e) {
+				return; // closing down; whatever is left in the queue is spilled or dropped by close()
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void deliver(final Entry entry) {
+
+		final SiftScienceResponse response;
+		try {
+			response = entry.payload != null ? client.sendSerialized(entry.payload) : client.send(entry.event);
+		} catch (RuntimeException e) {
+			failed.increment();
+			listener.onFailure(entry.event, e);
+			if (spool != null) {
+				redeliver(entry);
+			} else {
+				acked(entry);
+			}
+			return;
+		}
+		if (spool == null) {
+			acked(entry);
+		} else if (isSettled(response)) {
+			spool.ack(entry.sequence);
+			acked(entry);
+		} else {
+			redeliver(entry);
+		}
+		sent.increment();
+		listener.onResponse(entry.event, response);
+	}
+
+	/**
+	 * Queues a spooled event Sift Science has not settled to be sent again after a while, or gives up on it
+	 * (acknowledging it, so that it does not hold back the events after it) once it has had its attempts.
+	 */
+	private void redeliver(final Entry entry) {
+
+		if (maxDeliveryAttempts > 0 && entry.attempt >= maxDeliveryAttempts) {
+			spool.ack(entry.sequence);
+			acked(entry);
+			if (deadLetterHandler != null) {
+				deadLettered.increment();
+				deadLetterHandler.deadLetter(entry.event, entry.payload);
+			} else {
+				drop(entry.event);
+			}
+			return;
+		}
+
+		final long delayMillis = Math.min(redeliveryMaxMillis, redeliveryBaseMillis << Math.min(entry.attempt - 1, 30));
+		try {
+			redelivery.schedule(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						queue.put(new Entry(entry.event, entry.sequence, entry.payload, entry.attempt + 1, entry.queuedAt));
+						redelivered.increment();
+					} catch (InterruptedException e) {
+						// closing down; the event stays in the spool for the next run
+					}
+				}
+			}, delayMillis, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			// closed; the event stays in the spool for the next run
+		}
+	}
+
+	private void acked(final Entry entry) {
+		if (stats != null) {
+			stats.onAcked(System.nanoTime() - entry.queuedAt);
+		}
+	}
+
+	/**
+	 * Whether Sift Science has dealt with the event for good - accepted it, or rejected it for a reason
+	 * which sending it again would not fix. Server-side errors and rate limiting (see
+	 * {@link SiftStatus#isOverloaded(Number)}) leave it in the spool.
+	 */
+	private static boolean isSettled(final SiftScienceResponse response) {
+		final Integer status = response.getStatus();
+		return status != null && !SiftStatus.isOverloaded(status);
+	}
+
+	private void drop(final Event event) {
+		dropped.increment();
+		listener.onDrop(event);
+	}
+
+	private void spill(final Event event) {
+		spilled.increment();
+		spillHandler.spill(event);
+	}
+
+	/**
+	 * @return the number of events waiting to be sent.
+	 */
+	public int getQueueDepth() {
+		return queue.size();
+	}
+
+	/**
+	 * @return the number of spooled events not yet acknowledged (zero without a spool).
+	 */
+	public long getSpoolBacklog() {
+		return spool != null ? spool.getBacklog() : 0;
+	}
+
+	/**
+	 * @return the number of events Sift Science has responded to (whatever the response's status).
+	 */
+	public long getSent() {
+		return sent.sum();
+	}
+
+	/**
+	 * @return the number of events which could not be sent.
+	 */
+	public long getFailed() {
+		return failed.sum();
+	}
+
+	public long getDropped() {
+		return dropped.sum();
+	}
+
+	public long getSpilled() {
+		return spilled.sum();
+	}
+
+	/**
+	 * @return the number of times spooled events were queued to be sent again.
+	 */
+	public long getRedelivered() {
+		return redelivered.sum();
+	}
+
+	/**
+	 * @return the number of spooled events handed to the {@link DeadLetterHandler}.
+	 */
+	public long getDeadLettered() {
+		return deadLettered.sum();
+	}
+
+	/**
+	 * Stops accepting events and gives the workers up to the configured drain timeout to send what is
+	 * already queued. Anything still queued after that is spilled (if there is a {@link SpillHandler})
+	 * or dropped - or, with a spool, simply left in the spool. Neither the {@link SiftClient} nor the
+	 * {@link EventSpool} is closed.
+	 */
+	@Override
+	public void close() {
+
+		closed = true;
+		if (feeder != null) {
+			feeder.interrupt();
+			redelivery.shutdownNow(); // events waiting to be sent again stay in the spool
+		}
+
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainTimeoutMillis);
+		try {
+			for (final Thread worker : workers) {
+				final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+				if (remaining > 0) {
+					worker.join(remaining);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		for (final Thread worker : workers) {
+			worker.interrupt();
+		}
+
+		Entry leftover;
+		while ((leftover = queue.poll()) != null) {
+			if (spool != null) {
+				continue; // still in the spool, to be replayed next time round
+			}
+			if (spillHandler != null) {
+				spill(leftover.event);
+			} else {
+				drop(leftover.event);
+			}
+		}
+		spooledEvents.clear();
+		if (objectName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+			} catch (JMException e) {
+				// already unregistered, e.g. by a second close
+			}
+		}
+	}
+
+	/**
+	 * An event on its way to Sift Science, along with its spool sequence number and serialized form
+	 * when spooled.
+	 */
+	private static final class Entry {
+
+		private final Event event;
+
+		private final long sequence;
+
+		private final byte[] payload;
+
+		/**
+		 * How many times the event will have been sent, this time included.
+		 */
+		private final int attempt;
+
+		/**
+		 * When (in nanoseconds) the event was first queued in memory.
+		 */
+		private final long queuedAt;
+
+		private Entry(final Event event, final long sequence, final byte[] payload, final int attempt, final long queuedAt) {
+			this.event = event;
+			this.sequence = sequence;
+			this.payload = payload;
+			this.attempt = attempt;
+			this.queuedAt = queuedAt;
+		}
+	}
+
+	/**
+	 * Builds {@link EventDispatcher} instances.
+	 */
+	public static class Builder {
+
+		private final SiftClient client;
+
+		private int capacity = 10000;
+
+		private int workers = 2;
+
+		private int batchSize = 64;
+
+		private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+
+		private SpillHandler spillHandler;
+
+		private DispatchListener listener;
+
+		private long drainTimeoutMillis = TimeUnit.SECONDS.toMillis(10);
+
+		private EventSpool spool;
+
+		private long redeliveryBaseMillis = TimeUnit.SECONDS.toMillis(1);
+
+		private long redeliveryMaxMillis = TimeUnit.MINUTES.toMillis(1);
+
+		private int maxDeliveryAttempts;
+
+		private DeadLetterHandler deadLetterHandler;
+
+		private String jmxName;
+
+		private Builder(final SiftClient client) {
+			if (client == null) {
+				throw new IllegalArgumentException("A client is required.");
+			}
+			this.client = client;
+		}
+
+		/**
+		 * @param capacity - the most events which can be waiting to be sent.
+		 */
+		public Builder capacity(final int capacity) {
+			if (capacity < 1) {
+				throw new IllegalArgumentException(String.format("Capacity must be positive, was [%d].", capacity));
+			}
+			this.capacity = capacity;
+			return this;
+		}
+
+		/**
+		 * @param workers - the number of threads sending events.
+		 */
+		public Builder workers(final int workers) {
+			if (workers < 1) {
+				throw new IllegalArgumentException(String.format("Workers must be positive, was [%d].", workers));
+			}
+			this.workers = workers;
+			return this;
+		}
+
+		/**
+		 * @param batchSize - the most events a worker takes off the queue in one go.
+		 */
+		public Builder batchSize(final int batchSize) {
+			if (batchSize < 1) {
+				throw new IllegalArgumentException(String.format("Batch size must be positive, was [%d].", batchSize));
+			}
+			this.batchSize = batchSize;
+			return this;
+		}
+
+		public Builder overflowPolicy(final OverflowPolicy overflowPolicy) {
+			this.overflowPolicy = overflowPolicy;
+			return this;
+		}
+
+		/**
+		 * @param spillHandler - takes over events under {@link OverflowPolicy#SPILL}, and whatever is left
+		 *                       in the queue when the dispatcher is closed.
+		 */
+		public Builder spillHandler(final SpillHandler spillHandler) {
+			this.spillHandler = spillHandler;
+			return this;
+		}
+
+		/**
+		 * @param spool - makes the dispatcher write every event ahead to this spool, and replay whatever the
+		 *                spool holds unacknowledged from previous runs. The caller remains responsible for closing it.
+		 */
+		public Builder spool(final EventSpool spool) {
+			this.spool = spool;
+			return this;
+		}
+
+		/**
+		 * @param base - how long to wait before sending a spooled event again the first time, doubling with
+		 *               every further attempt. Defaults to a second.
+		 * @param max - the longest wait between attempts. Defaults to a minute.
+		 */
+		public Builder redeliveryDelays(final long base, final long max, final TimeUnit unit) {
+			if (base < 1 || max < base) {
+				throw new IllegalArgumentException(String.format("Delays must satisfy 0 < base <= max, were [%d] and [%d].", base, max));
+			}
+			this.redeliveryBaseMillis = unit.toMillis(base);
+			this.redeliveryMaxMillis = unit.toMillis(max);
+			return this;
+		}
+
+		/**
+		 * @param maxDeliveryAttempts - how many times a spooled event is sent at most before it is acknowledged
+		 *                              and handed to the {@link DeadLetterHandler} (or dropped, without one).
+		 *                              Defaults to no limit, i.e. until Sift Science settles it.
+		 */
+		public Builder maxDeliveryAttempts(final int maxDeliveryAttempts) {
+			if (maxDeliveryAttempts < 1) {
+				throw new IllegalArgumentException(String.format("Max delivery attempts must be positive, was [%d].", maxDeliveryAttempts));
+			}
+			this.maxDeliveryAttempts = maxDeliveryAttempts;
+			return this;
+		}
+
+		public Builder deadLetterHandler(final DeadLetterHandler deadLetterHandler) {
+			this.deadLetterHandler = deadLetterHandler;
+			return this;
+		}
+
+		public Builder listener(final DispatchListener listener) {
+			this.listener = listener;
+			return this;
+		}
+
+		/**
+		 * @param duration - how long {@link EventDispatcher#close()} waits for the queue to drain.
+		 */
+		public Builder drainTimeout(final long duration, final TimeUnit unit) {
+			this.drainTimeoutMillis = unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * @param name - registers the dispatcher's live statistics (see {@link com.mcac0006.siftscience.jmx.EventDispatcherMXBean})
+		 *               with the platform MBean server as <code>com.mcac0006.siftscience:type=EventDispatcher,name="..."</code>,
+		 *               until the dispatcher is closed. Not registered by default.
+		 */
+		public Builder jmx(final String name) {
+			this.jmxName = name;
+			return this;
+		}
+
+		public EventDispatcher build() {
+
+			if (overflowPolicy == null) {
+				throw new IllegalArgumentException("An overflow policy is required.");
+			}
+			if (overflowPolicy == OverflowPolicy.SPILL && spillHandler == null && spool == null) {
+				throw new IllegalArgumentException("The SPILL overflow policy requires a spill handler.");
+			}
+			if (listener == null) {
+				listener = new DispatchListener() {
+					@Override
+					public void onResponse(final Event event, final SiftScienceResponse response) {}
+
+					@Override
+					public void onFailure(final Event event, final Throwable cause) {}
+
+					@Override
+					public void onDrop(final Event event) {}
+				};
+			}
+			return new EventDispatcher(this);
+		}
+	}
+}
@@ -0,0 +1,33 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.dispatch;
+
+/**
+ * What an {@link EventDispatcher} does with an event when its queue is full.
+ *
+ */
+public enum OverflowPolicy {
+
+	/**
+	 * Block the dispatching thread until there is room in the queue. Nothing is lost, but
+	 * request threads slow down to Sift Science's pace.
+	 */
+	BLOCK,
+
+	/**
+	 * Evict the oldest queued event to make room for the new one.
+	 */
+	DROP_OLDEST,
+
+	/**
+	 * Discard the new event, leaving the queue as it is.
+	 */
+	DROP_NEWEST,
+
+	/**
+	 * Hand the new event over to the dispatcher's {@link SpillHandler} (e.g. a disk spool) so that
+	 * it can be delivered later.
+	 */
+	SPILL;
+}
@@ -0,0 +1,21 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.dispatch;
+
+import com.mcac0006.siftscience.event.domain.Event;
+
+/**
+ * Takes over events which an {@link EventDispatcher} could not queue - because its queue was full
+ * under {@link OverflowPolicy#SPILL}, or because it was closed before they could be sent.
+ *
+ */
+public interface SpillHandler {
+
+	/**
+	 * Called on the dispatching (or closing) thread, so implementations should be quick.
+	 *
+	 * @param event - the event which could not be queued.
+	 */
+	void spill(Event event);
+}
@@ -0,0 +1,231 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.event;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.codehaus.jackson.io.JsonStringEncoder;
+import org.codehaus.jackson.map.ObjectMapper;
+
+import com.mcac0006.siftscience.event.serializer.EventSerializerModule;
+import com.mcac0006.siftscience.exception.SiftScienceException;
+import com.mcac0006.siftscience.json.JsonBuffer;
+
+/**
+ * A pre-encoded event for the high-frequency event types whose envelopes differ only in the user, the
+ * session and the time, e.g. $login, $logout and $link_session_to_user.
+ *
+ * The constant part of the envelope (its <code>$type</code>, <code>$api_key</code> and any fixed fields) is
+ * serialized once, when the template is built. Each event is then the constant bytes with the user, the
+ * session and the time spliced in, with no event object, serializer or generator involved.
+ *
+ * <pre><code>
+ * final EventTemplate logins = client.template("$login").field("$login_status", LoginStatus.SUCCESS).build();
+ * ...
+ * client.send(logins, userId, sessionId, null);
+ * </code></pre>
+ *
+ * Templates are immutable and thread-safe.
+ *
+ */
+public final class EventTemplate {
+
+	private static final byte[] TIME = ",\"$time\":".getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] USER_ID = ",\"$user_id\":".getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] SESSION_ID = ",\"$session_id\":".getBytes(StandardCharsets.UTF_8);
+
+	private static final ThreadLocal<JsonBuffer> BUFFERS = new ThreadLocal<JsonBuffer>() {
+		@Override
+		protected JsonBuffer initialValue() {
+			return new JsonBuffer(512);
+		}
+	};
+
+	private final String eventType;
+
+	private final String apiKey;
+
+	/**
+	 * The envelope up to its variable fields, i.e. without its closing brace.
+	 */
+	private final byte[] head;
+
+	/**
+	 * The fixed fields, preceded by a comma, and the closing brace.
+	 */
+	private final byte[] tail;
+
+	private EventTemplate(final String eventType, final String apiKey, final byte[] head, final byte[] tail) {
+		this.eventType = eventType;
+		this.apiKey = apiKey;
+		this.head = head;
+		this.tail = tail;
+	}
+
+	/**
+	 * @param eventType - the <code>$type</code> of the events made from the template, e.g. <code>$login</code>.
+	 */
+	public static Builder builder(final String eventType) {
+		return new Builder(eventType);
+	}
+
+	/**
+	 * @param userId - the user the event is about, or <code>null</code> to leave it out.
+	 * @param sessionId - the user's session, or <code>null</code> to leave it out.
+	 * @param time - when the event took place, or <code>null</code> for when Sift Science receives it.
+	 * @return the event's envelope as UTF-8 JSON.
+	 */
+	public byte[] render(final String userId, final String sessionId, final Calendar time) {
+
+		final JsonBuffer buffer = BUFFERS.get();
+		try {
+			render(buffer, userId, sessionId, time);
+			return buffer.toByteArray();
+		} finally {
+			buffer.reset();
+		}
+	}
+
+	/**
+	 * Writes the event's envelope to a stream, which is left open.
+	 *
+	 * @see #render(String, String, Calendar)
+	 */
+	public void write(final OutputStream out, final String userId, final String sessionId, final Calendar time) throws IOException {
+
+		final JsonBuffer buffer = BUFFERS.get();
+		try {
+			render(buffer, userId, sessionId, time);
+			buffer.writeTo(out);
+		} finally {
+			buffer.reset();
+		}
+	}
+
+	private void render(final JsonBuffer buffer, final String userId, final String sessionId, final Calendar time) {
+
+		buffer.write(head, 0, head.length);
+		if (time != null) {
+			buffer.write(TIME, 0, TIME.length);
+			writeAscii(buffer, Long.toString(time.getTimeInMillis() / 1000)); // as Fields.writeTime does
+		}
+		if (userId != null) {
+			buffer.write(USER_ID, 0, USER_ID.length);
+			writeString(buffer, userId);
+		}
+		if (sessionId != null) {
+			buffer.write(SESSION_ID, 0, SESSION_ID.length);
+			writeString(buffer, sessionId);
+		}
+		buffer.write(tail, 0, tail.length);
+	}
+
+	/**
+	 * Writes a quoted JSON string. Identifiers are nearly always plain ASCII, which is copied across as it
+	 * is; anything else is left to Jackson's encoder.
+	 */
+	private static void writeString(final JsonBuffer buffer, final String value) {
+
+		buffer.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			if (c < 0x20 || c > 0x7e || c == '"' || c == '\\') {
+				final byte[] escaped = JsonStringEncoder.getInstance().quoteAsUTF8(value.substring(i));
+				buffer.write(escaped, 0, escaped.length);
+				break;
+			}
+			buffer.write(c);
+		}
+		buffer.write('"');
+	}
+
+	private static void writeAscii(final JsonBuffer buffer, final String value) {
+		for (int i = 0; i < value.length(); i++) {
+			buffer.write(value.charAt(i));
+		}
+	}
+
+	public String getEventType() {
+		return eventType;
+	}
+
+	public String getApiKey() {
+		return apiKey;
+	}
+
+	public static final class Builder {
+
+		private final String eventType;
+
+		private String apiKey;
+
+		private ObjectMapper mapper;
+
+		private final Map<String, Object> fields = new LinkedHashMap<String, Object>();
+
+		private Builder(final String eventType) {
+			if (eventType == null) {
+				throw new IllegalArgumentException("An event type is required.");
+			}
+			this.eventType = eventType;
+		}
+
+		public Builder apiKey(final String apiKey) {
+			this.apiKey = apiKey;
+			return this;
+		}
+
+		/**
+		 * @param mapper - the mapper the fixed fields are serialized with, once; by default one configured like
+		 *                 the client's own (see {@link EventSerializerModule#newObjectMapper()}).
+		 */
+		public Builder mapper(final ObjectMapper mapper) {
+			this.mapper = mapper;
+			return this;
+		}
+
+		/**
+		 * Adds a field with the same value in every event, e.g. <code>$login_status</code> or a custom field.
+		 */
+		public Builder field(final String name, final Object value) {
+			if ("$type".equals(name) || "$api_key".equals(name) || "$user_id".equals(name) || "$session_id".equals(name)
+					|| "$time".equals(name)) {
+				throw new IllegalArgumentException(String.format("Field [%s] is set through the template itself.", name));
+			}
+			fields.put(name, value);
+			return this;
+		}
+
+		public EventTemplate build() {
+
+			final ObjectMapper m = mapper != null ? mapper : EventSerializerModule.newObjectMapper();
+			final Map<String, Object> envelope = new LinkedHashMap<String, Object>();
+			envelope.put("$type", eventType);
+			if (apiKey != null) {
+				envelope.put("$api_key", apiKey);
+			}
+			try {
+				final byte[] head = m.writeValueAsBytes(envelope);
+				final byte[] tail = m.writeValueAsBytes(fields);
+				// {"$type":...} loses its closing brace, and {"field":...} its opening one in favour of a comma
+				final byte[] trimmedHead = new byte[head.length - 1];
+				System.arraycopy(head, 0, trimmedHead, 0, trimmedHead.length);
+				if (fields.isEmpty()) {
+					return new EventTemplate(eventType, apiKey, trimmedHead, new byte[] { '}' });
+				}
+				tail[0] = ',';
+				return new EventTemplate(eventType, apiKey, trimmedHead, tail);
+			} catch (IOException e) {
+				throw new SiftScienceException("Error generating JSON content for the event template.", e);
+			}
+		}
+	}
+}
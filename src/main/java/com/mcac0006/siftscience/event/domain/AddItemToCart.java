@@ -79,6 +79,17 @@ public class AddItemToCart extends Event {
 	}
 
 
+    /**
+     * Clears every field but the event type, so that the instance can be reused.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        userId = null;
+        sessionId = null;
+        item = null;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -131,6 +131,20 @@ public class CreateContent extends Event {
 
     }
 
+    /**
+     * Clears every field but the event type, so that the instance can be reused.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        userId = null;
+        sessionId = null;
+        contactEmail = null;
+        contactPhone = null;
+        subject = null;
+        content = null;
+    }
+
     @Override
     // auto-generated with intellij idea 15
     public int hashCode() {
@@ -235,6 +235,26 @@ public class CreateOrder extends Event {
 		return sellerUserId;
 	}
 
+    /**
+     * Clears every field but the event type, so that the instance can be reused.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        userId = null;
+        sessionId = null;
+        orderId = null;
+        userEmail = null;
+        amount = null;
+        currencyCode = null;
+        billingAddress = null;
+        paymentMethods = null;
+        shippingAddress = null;
+        expeditedShipping = null;
+        items = null;
+        sellerUserId = null;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -15,6 +15,7 @@ import org.codehaus.jackson.map.annotate.JsonDeserialize;
 import org.codehaus.jackson.map.annotate.JsonSerialize;
 import org.codehaus.jackson.map.annotate.JsonSerialize.Inclusion;
 
+import com.mcac0006.siftscience.pool.Resettable;
 import com.mcac0006.siftscience.types.deserializer.DateDeserializer;
 import com.mcac0006.siftscience.types.serializer.DateSerializer;
 
@@ -23,7 +24,7 @@ import com.mcac0006.siftscience.types.serializer.DateSerializer;
  *
  */
 //@JsonSerialize(using=EventSerializer.class)
-public abstract class Event {
+public abstract class Event implements Resettable {
 
 	/**
 	 * The event type. Can be $create_order, $transaction, etc ...
@@ -113,6 +114,17 @@ public abstract class Event {
 		return time;
 	}
 
+	/**
+	 * Clears the API key, the time and the custom fields (keeping the map itself), so that the instance can
+	 * be reused. Subclasses clear their own fields on top.
+	 */
+	@Override
+	public void reset() {
+		apiKey = null;
+		time = null;
+		customFields.clear();
+	}
+
 	public void setTime(Calendar time) {
 		this.time = time;
 	}
@@ -0,0 +1,53 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.event.domain;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the reserved <code>$type</code> of every built-in event to the class which models it, e.g. to
+ * read events of mixed types back from a file.
+ *
+ */
+public final class EventTypes {
+
+	private static final Map<String, Class<? extends Event>> TYPES;
+
+	static {
+		final Map<String, Class<? extends Event>> types = new HashMap<String, Class<? extends Event>>();
+		types.put("$add_item_to_cart", AddItemToCart.class);
+		types.put("$create_account", CreateAccount.class);
+		types.put("$create_content", CreateContent.class);
+		types.put("$create_order", CreateOrder.class);
+		types.put("$link_session_to_user", LinkSessionToUser.class);
+		types.put("$login", Login.class);
+		types.put("$logout", Logout.class);
+		types.put("$remove_item_from_cart", RemoveItemFromCart.class);
+		types.put("$send_message", SendMessage.class);
+		types.put("$submit_review", SubmitReview.class);
+		types.put("$transaction", Transaction.class);
+		types.put("$update_account", UpdateAccount.class);
+		TYPES = Collections.unmodifiableMap(types);
+	}
+
+	private EventTypes() {}
+
+	/**
+	 * @param eventType - the event's <code>$type</code>, e.g. <code>$create_order</code>.
+	 * @return the class modelling the event type, or <code>null</code> if it is not a built-in one (i.e. a
+	 *         {@link Custom} event).
+	 */
+	public static Class<? extends Event> classOf(final String eventType) {
+		return TYPES.get(eventType);
+	}
+
+	/**
+	 * @return every built-in event type, keyed by its <code>$type</code>.
+	 */
+	public static Map<String, Class<? extends Event>> all() {
+		return TYPES;
+	}
+}
@@ -51,6 +51,16 @@ public class LinkSessionToUser extends Event {
 		return this;
 	}
 
+    /**
+     * Clears every field but the event type, so that the instance can be reused.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        sessionId = null;
+        userId = null;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
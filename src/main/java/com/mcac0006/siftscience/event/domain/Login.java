@@ -75,6 +75,17 @@ public class Login extends Event {
 	}
 
 
+    /**
+     * Clears every field but the event type, so that the instance can be reused.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        userId = null;
+        sessionId = null;
+        loginStatus = null;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -38,6 +38,15 @@ public class Logout extends Event {
 	}
 
 
+    /**
+     * Clears every field but the event type, so that the instance can be reused.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        userId = null;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -105,6 +105,19 @@ public class SendMessage extends Event {
 		return this;
 	}
 
+    /**
+     * Clears every field but the event type, so that the instance can be reused.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        userId = null;
+        sessionId = null;
+        recipientUserId = null;
+        subject = null;
+        content = null;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -130,6 +130,21 @@ public class SubmitReview extends Event {
 		return this;
 	}
 
+    /**
+     * Clears every field but the event type, so that the instance can be reused.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        userId = null;
+        sessionId = null;
+        content = null;
+        reviewTitle = null;
+        itemId = null;
+        reviewedUserId = null;
+        submissionStatus = null;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -233,6 +233,27 @@ public class Transaction extends Event {
 		return this;
 	}
 
+    /**
+     * Clears every field but the event type, so that the instance can be reused.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        userId = null;
+        userEmail = null;
+        transactionType = null;
+        transactionStatus = null;
+        amount = null;
+        currencyCode = null;
+        orderId = null;
+        transactionId = null;
+        billingAddress = null;
+        paymentMethod = null;
+        shippingAddress = null;
+        sessionId = null;
+        sellerUserId = null;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
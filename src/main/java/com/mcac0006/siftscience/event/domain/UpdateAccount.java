@@ -205,6 +205,23 @@ public class UpdateAccount extends Event {
 	}
 
 
+    /**
+     * Clears every field but the event type, so that the instance can be reused.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        userId = null;
+        changedPassword = null;
+        userEmail = null;
+        name = null;
+        phone = null;
+        referrerUserId = null;
+        paymentMethods = null;
+        billingAddress = null;
+        socialSignOnType = null;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -0,0 +1,27 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.event.serializer;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.SerializerProvider;
+
+import com.mcac0006.siftscience.event.domain.AddItemToCart;
+import com.mcac0006.siftscience.json.Fields;
+import com.mcac0006.siftscience.types.serializer.ItemSerializer;
+
+/**
+ * Writes the {@link AddItemToCart} fields, in declaration order.
+ *
+ */
+public class AddItemToCartSerializer extends EventSerializer<AddItemToCart> {
+
+	@Override
+	protected void serializeFields(final AddItemToCart event, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+		Fields.writeString(gen, Fields.USER_ID, event.getUserId());
+		Fields.writeString(gen, Fields.SESSION_ID, event.getSessionId());
+		Fields.writeObject(gen, Fields.ITEM, event.getItem(), ItemSerializer.INSTANCE, provider);
+	}
+}
@@ -0,0 +1,40 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.event.serializer;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.SerializerProvider;
+
+import com.mcac0006.siftscience.event.domain.CreateAccount;
+import com.mcac0006.siftscience.json.Fields;
+import com.mcac0006.siftscience.types.SocialSignOnType;
+import com.mcac0006.siftscience.types.serializer.AddressSerializer;
+import com.mcac0006.siftscience.types.serializer.PaymentMethodSerializer;
+
+/**
+ * Writes the {@link CreateAccount} fields, in declaration order.
+ *
+ */
+public class CreateAccountSerializer extends EventSerializer<CreateAccount> {
+
+	@Override
+	protected void serializeFields(final CreateAccount event, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+		Fields.writeString(gen, Fields.USER_ID, event.getUserId());
+		Fields.writeString(gen, Fields.SESSION_ID, event.getSessionId());
+		Fields.writeString(gen, Fields.USER_EMAIL, event.getUserEmail());
+		Fields.writeString(gen, Fields.NAME, event.getName());
+		Fields.writeString(gen, Fields.PHONE, event.getPhone());
+		Fields.writeString(gen, Fields.REFERRER_USER_ID, event.getReferrerUserId());
+		Fields.writeArray(gen, Fields.PAYMENT_METHODS, event.getPaymentMethods(), PaymentMethodSerializer.INSTANCE, provider);
+		Fields.writeObject(gen, Fields.BILLING_ADDRESS, event.getBillingAddress(), AddressSerializer.INSTANCE, provider);
+
+		final SocialSignOnType socialSignOnType = event.getSocialSignOnType();
+		if (socialSignOnType != null) {
+			gen.writeFieldName(Fields.SOCIAL_SIGN_ON_TYPE);
+			gen.writeString(socialSignOnType.getSiftScienceValue());
+		}
+	}
+}
@@ -0,0 +1,29 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.event.serializer;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.SerializerProvider;
+
+import com.mcac0006.siftscience.event.domain.CreateContent;
+import com.mcac0006.siftscience.json.Fields;
+
+/**
+ * Writes the {@link CreateContent} fields, in declaration order.
+ *
+ */
+public class CreateContentSerializer extends EventSerializer<CreateContent> {
+
+	@Override
+	protected void serializeFields(final CreateContent event, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+		Fields.writeString(gen, Fields.USER_ID, event.getUserId());
+		Fields.writeString(gen, Fields.SESSION_ID, event.getSessionId());
+		Fields.writeString(gen, Fields.CONTACT_EMAIL, event.getContactEmail());
+		Fields.writeString(gen, Fields.CONTACT_PHONE, event.getContactPhone());
+		Fields.writeString(gen, Fields.SUBJECT, event.getSubject());
+		Fields.writeString(gen, Fields.CONTENT, event.getContent());
+	}
+}
@@ -0,0 +1,38 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.event.serializer;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.SerializerProvider;
+
+import com.mcac0006.siftscience.event.domain.CreateOrder;
+import com.mcac0006.siftscience.json.Fields;
+import com.mcac0006.siftscience.types.serializer.AddressSerializer;
+import com.mcac0006.siftscience.types.serializer.ItemSerializer;
+import com.mcac0006.siftscience.types.serializer.PaymentMethodSerializer;
+
+/**
+ * Writes the {@link CreateOrder} fields, in declaration order.
+ *
+ */
+public class CreateOrderSerializer extends EventSerializer<CreateOrder> {
+
+	@Override
+	protected void serializeFields(final CreateOrder event, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+		Fields.writeString(gen, Fields.USER_ID, event.getUserId());
+		Fields.writeString(gen, Fields.SESSION_ID, event.getSessionId());
+		Fields.writeString(gen, Fields.ORDER_ID, event.getOrderId());
+		Fields.writeString(gen, Fields.USER_EMAIL, event.getUserEmail());
+		Fields.writeNumber(gen, Fields.AMOUNT, event.getAmount());
+		Fields.writeString(gen, Fields.CURRENCY_CODE, event.getCurrencyCode());
+		Fields.writeObject(gen, Fields.BILLING_ADDRESS, event.getBillingAddress(), AddressSerializer.INSTANCE, provider);
+		Fields.writeArray(gen, Fields.PAYMENT_METHODS, event.getPaymentMethods(), PaymentMethodSerializer.INSTANCE, provider);
+		Fields.writeObject(gen, Fields.SHIPPING_ADDRESS, event.getShippingAddress(), AddressSerializer.INSTANCE, provider);
+		Fields.writeBoolean(gen, Fields.EXPEDITED_SHIPPING, event.getExpeditedShipping());
+		Fields.writeArray(gen, Fields.ITEMS, event.getItems(), ItemSerializer.INSTANCE, provider);
+		Fields.writeString(gen, Fields.SELLER_USER_ID, event.getSellerUserId());
+	}
+}
@@ -0,0 +1,23 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.event.serializer;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.SerializerProvider;
+
+import com.mcac0006.siftscience.event.domain.Custom;
+
+/**
+ * Writes the {@link Custom} fields, in declaration order.
+ *
+ */
+public class CustomSerializer extends EventSerializer<Custom> {
+
+	@Override
+	protected void serializeFields(final Custom event, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+		// nothing beyond the common envelope fields and custom fields
+	}
+}
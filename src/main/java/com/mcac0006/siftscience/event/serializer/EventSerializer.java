@@ -0,0 +1,45 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.event.serializer;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.JsonSerializer;
+import org.codehaus.jackson.map.SerializerProvider;
+
+import com.mcac0006.siftscience.event.domain.Event;
+import com.mcac0006.siftscience.json.Fields;
+
+/**
+ * Writes an event the way Jackson's bean serializer would - the common envelope fields first, then the
+ * event's own fields in declaration order, then any custom fields - but through plain getter calls and
+ * pre-encoded field names rather than introspection.
+ *
+ * @see EventSerializerModule
+ */
+public abstract class EventSerializer<T extends Event> extends JsonSerializer<T> {
+
+	@Override
+	public final void serialize(final T event, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+
+		gen.writeStartObject();
+		Fields.writeString(gen, Fields.TYPE, event.getEventType());
+		Fields.writeString(gen, Fields.API_KEY, event.getApiKey());
+		Fields.writeTime(gen, Fields.TIME, event.getTime());
+
+		serializeFields(event, gen, provider);
+
+		for (final Map.Entry<String, Object> field : event.getCustomFields().entrySet()) {
+			provider.defaultSerializeField(field.getKey(), field.getValue(), gen); // arbitrary values; left to the mapper
+		}
+		gen.writeEndObject();
+	}
+
+	/**
+	 * Writes the fields specific to this type of event, skipping those which are <code>null</code>.
+	 */
+	protected abstract void serializeFields(T event, JsonGenerator gen, SerializerProvider provider) throws IOException;
+}
@@ -0,0 +1,107 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.event.serializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.codehaus.jackson.Version;
+import org.codehaus.jackson.map.BeanDescription;
+import org.codehaus.jackson.map.BeanProperty;
+import org.codehaus.jackson.map.JsonSerializer;
+import org.codehaus.jackson.map.Module;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.SerializationConfig;
+import org.codehaus.jackson.map.Serializers;
+import org.codehaus.jackson.map.annotate.JsonSerialize.Inclusion;
+import org.codehaus.jackson.type.JavaType;
+
+import com.mcac0006.siftscience.event.domain.AddItemToCart;
+import com.mcac0006.siftscience.event.domain.CreateAccount;
+import com.mcac0006.siftscience.event.domain.CreateContent;
+import com.mcac0006.siftscience.event.domain.CreateOrder;
+import com.mcac0006.siftscience.event.domain.Custom;
+import com.mcac0006.siftscience.event.domain.LinkSessionToUser;
+import com.mcac0006.siftscience.event.domain.Login;
+import com.mcac0006.siftscience.event.domain.Logout;
+import com.mcac0006.siftscience.event.domain.RemoveItemFromCart;
+import com.mcac0006.siftscience.event.domain.SendMessage;
+import com.mcac0006.siftscience.event.domain.SubmitReview;
+import com.mcac0006.siftscience.event.domain.Transaction;
+import com.mcac0006.siftscience.event.domain.UpdateAccount;
+import com.mcac0006.siftscience.types.Address;
+import com.mcac0006.siftscience.types.Item;
+import com.mcac0006.siftscience.types.PaymentMethod;
+import com.mcac0006.siftscience.types.serializer.AddressSerializer;
+import com.mcac0006.siftscience.types.serializer.ItemSerializer;
+import com.mcac0006.siftscience.types.serializer.PaymentMethodSerializer;
+
+/**
+ * Registers the hand-written serializers of every event type (and of {@link Address}, {@link Item} and
+ * {@link PaymentMethod}) with a mapper:
+ *
+ * <pre><code>
+ * mapper.registerModule(new EventSerializerModule());
+ * </code></pre>
+ *
+ * Serializers are matched on the exact class only, so a subclass of, say, {@link CreateOrder} (which may
+ * well carry fields of its own) still goes through Jackson's bean serializer.
+ *
+ */
+public class EventSerializerModule extends Module {
+
+	private static final Map<Class<?>, JsonSerializer<?>> SERIALIZERS = new HashMap<Class<?>, JsonSerializer<?>>();
+
+	static {
+		SERIALIZERS.put(AddItemToCart.class, new AddItemToCartSerializer());
+		SERIALIZERS.put(CreateAccount.class, new CreateAccountSerializer());
+		SERIALIZERS.put(CreateContent.class, new CreateContentSerializer());
+		SERIALIZERS.put(CreateOrder.class, new CreateOrderSerializer());
+		SERIALIZERS.put(Custom.class, new CustomSerializer());
+		SERIALIZERS.put(LinkSessionToUser.class, new LinkSessionToUserSerializer());
+		SERIALIZERS.put(Login.class, new LoginSerializer());
+		SERIALIZERS.put(Logout.class, new LogoutSerializer());
+		SERIALIZERS.put(RemoveItemFromCart.class, new RemoveItemFromCartSerializer());
+		SERIALIZERS.put(SendMessage.class, new SendMessageSerializer());
+		SERIALIZERS.put(SubmitReview.class, new SubmitReviewSerializer());
+		SERIALIZERS.put(Transaction.class, new TransactionSerializer());
+		SERIALIZERS.put(UpdateAccount.class, new UpdateAccountSerializer());
+
+		SERIALIZERS.put(Address.class, AddressSerializer.INSTANCE);
+		SERIALIZERS.put(Item.class, ItemSerializer.INSTANCE);
+		SERIALIZERS.put(PaymentMethod.class, PaymentMethodSerializer.INSTANCE);
+	}
+
+	/**
+	 * @return a mapper configured the way Sift Science expects its envelopes to be (de)serialized, writing
+	 *         the built-in event types through their hand-written serializers.
+	 */
+	public static ObjectMapper newObjectMapper() {
+		final ObjectMapper mapper = new ObjectMapper();
+		mapper.setSerializationInclusion(Inclusion.NON_NULL);
+		mapper.registerModule(new EventSerializerModule());
+		return mapper;
+	}
+
+	@Override
+	public String getModuleName() {
+		return "sift-event-serializers";
+	}
+
+	@Override
+	public Version version() {
+		return new Version(0, 0, 2, null);
+	}
+
+	@Override
+	public void setupModule(final SetupContext context) {
+		context.addSerializers(new Serializers.Base() {
+			@Override
+			public JsonSerializer<?> findSerializer(final SerializationConfig config, final JavaType type,
+					final BeanDescription beanDesc, final BeanProperty property) {
+				return SERIALIZERS.get(type.getRawClass());
+			}
+		});
+	}
+}
@@ -0,0 +1,25 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.event.serializer;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.SerializerProvider;
+
+import com.mcac0006.siftscience.event.domain.LinkSessionToUser;
+import com.mcac0006.siftscience.json.Fields;
+
+/**
+ * Writes the {@link LinkSessionToUser} fields, in declaration order.
+ *
+ */
+public class LinkSessionToUserSerializer extends EventSerializer<LinkSessionToUser> {
+
+	@Override
+	protected void serializeFields(final LinkSessionToUser event, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+		Fields.writeString(gen, Fields.SESSION_ID, event.getSessionId());
+		Fields.writeString(gen, Fields.USER_ID, event.getUserId());
+	}
+}
@@ -0,0 +1,32 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.event.serializer;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.SerializerProvider;
+
+import com.mcac0006.siftscience.event.domain.Login;
+import com.mcac0006.siftscience.json.Fields;
+import com.mcac0006.siftscience.types.LoginStatus;
+
+/**
+ * Writes the {@link Login} fields, in declaration order.
+ *
+ */
+public class LoginSerializer extends EventSerializer<Login> {
+
+	@Override
+	protected void serializeFields(final Login event, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+		Fields.writeString(gen, Fields.USER_ID, event.getUserId());
+		Fields.writeString(gen, Fields.SESSION_ID, event.getSessionId());
+
+		final LoginStatus loginStatus = event.getLoginStatus();
+		if (loginStatus != null) {
+			gen.writeFieldName(Fields.LOGIN_STATUS);
+			gen.writeString(loginStatus.getSiftScienceValue());
+		}
+	}
+}
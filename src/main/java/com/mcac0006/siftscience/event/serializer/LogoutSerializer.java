@@ -0,0 +1,24 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.event.serializer;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.SerializerProvider;
+
+import com.mcac0006.siftscience.event.domain.Logout;
+import com.mcac0006.siftscience.json.Fields;
+
+/**
+ * Writes the {@link Logout} fields, in declaration order.
+ *
+ */
+public class LogoutSerializer extends EventSerializer<Logout> {
+
+	@Override
+	protected void serializeFields(final Logout event, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+		Fields.writeString(gen, Fields.USER_ID, event.getUserId());
+	}
+}
@@ -0,0 +1,28 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.event.serializer;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.SerializerProvider;
+
+import com.mcac0006.siftscience.event.domain.SendMessage;
+import com.mcac0006.siftscience.json.Fields;
+
+/**
+ * Writes the {@link SendMessage} fields, in declaration order.
+ *
+ */
+public class SendMessageSerializer extends EventSerializer<SendMessage> {
+
+	@Override
+	protected void serializeFields(final SendMessage event, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+		Fields.writeString(gen, Fields.USER_ID, event.getUserId());
+		Fields.writeString(gen, Fields.SESSION_ID, event.getSessionId());
+		Fields.writeString(gen, Fields.RECIPIENT_USER_ID, event.getRecipientUserId());
+		Fields.writeString(gen, Fields.SUBJECT, event.getSubject());
+		Fields.writeString(gen, Fields.CONTENT, event.getContent());
+	}
+}
@@ -0,0 +1,36 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.event.serializer;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.SerializerProvider;
+
+import com.mcac0006.siftscience.event.domain.SubmitReview;
+import com.mcac0006.siftscience.json.Fields;
+import com.mcac0006.siftscience.types.SubmissionStatus;
+
+/**
+ * Writes the {@link SubmitReview} fields, in declaration order.
+ *
+ */
+public class SubmitReviewSerializer extends EventSerializer<SubmitReview> {
+
+	@Override
+	protected void serializeFields(final SubmitReview event, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+		Fields.writeString(gen, Fields.USER_ID, event.getUserId());
+		Fields.writeString(gen, Fields.SESSION_ID, event.getSessionId());
+		Fields.writeString(gen, Fields.CONTENT, event.getContent());
+		Fields.writeString(gen, Fields.REVIEW_TITLE, event.getReviewTitle());
+		Fields.writeString(gen, Fields.ITEM_ID, event.getItemId());
+		Fields.writeString(gen, Fields.REVIEWED_USER_ID, event.getReviewedUserId());
+
+		final SubmissionStatus submissionStatus = event.getSubmissionStatus();
+		if (submissionStatus != null) {
+			gen.writeFieldName(Fields.SUBMISSION_STATUS);
+			gen.writeString(submissionStatus.getSiftScienceValue());
+		}
+	}
+}
@@ -0,0 +1,51 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.event.serializer;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.SerializerProvider;
+
+import com.mcac0006.siftscience.event.domain.Transaction;
+import com.mcac0006.siftscience.json.Fields;
+import com.mcac0006.siftscience.types.TransactionStatus;
+import com.mcac0006.siftscience.types.TransactionType;
+import com.mcac0006.siftscience.types.serializer.AddressSerializer;
+import com.mcac0006.siftscience.types.serializer.PaymentMethodSerializer;
+
+/**
+ * Writes the {@link Transaction} fields, in declaration order.
+ *
+ */
+public class TransactionSerializer extends EventSerializer<Transaction> {
+
+	@Override
+	protected void serializeFields(final Transaction event, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+		Fields.writeString(gen, Fields.USER_ID, event.getUserId());
+		Fields.writeString(gen, Fields.USER_EMAIL, event.getUserEmail());
+
+		final TransactionType transactionType = event.getTransactionType();
+		if (transactionType != null) {
+			gen.writeFieldName(Fields.TRANSACTION_TYPE);
+			gen.writeString(transactionType.getSiftScienceValue());
+		}
+
+		final TransactionStatus transactionStatus = event.getTransactionStatus();
+		if (transactionStatus != null) {
+			gen.writeFieldName(Fields.TRANSACTION_STATUS);
+			gen.writeString(transactionStatus.getSiftScienceValue());
+		}
+
+		Fields.writeNumber(gen, Fields.AMOUNT, event.getAmount());
+		Fields.writeString(gen, Fields.CURRENCY_CODE, event.getCurrencyCode());
+		Fields.writeString(gen, Fields.ORDER_ID, event.getOrderId());
+		Fields.writeString(gen, Fields.TRANSACTION_ID, event.getTransactionId());
+		Fields.writeObject(gen, Fields.BILLING_ADDRESS, event.getBillingAddress(), AddressSerializer.INSTANCE, provider);
+		Fields.writeObject(gen, Fields.PAYMENT_METHOD, event.getPaymentMethod(), PaymentMethodSerializer.INSTANCE, provider);
+		Fields.writeObject(gen, Fields.SHIPPING_ADDRESS, event.getShippingAddress(), AddressSerializer.INSTANCE, provider);
+		Fields.writeString(gen, Fields.SESSION_ID, event.getSessionId());
+		Fields.writeString(gen, Fields.SELLER_USER_ID, event.getSellerUserId());
+	}
+}
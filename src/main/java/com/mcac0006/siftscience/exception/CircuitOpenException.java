@@ -0,0 +1,18 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.exception;
+
+/**
+ * Thrown, without anything being sent, when a request is made while the client's
+ * {@link com.mcac0006.siftscience.circuit.CircuitBreaker} is open because Sift Science has been failing.
+ *
+ */
+public class CircuitOpenException extends SiftScienceException {
+
+	private static final long serialVersionUID = -2318447617725030245L;
+
+	public CircuitOpenException(final String msg) {
+		super(msg);
+	}
+}
@@ -0,0 +1,17 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.exception;
+
+/**
+ * Thrown when a call has not completed by its {@link com.mcac0006.siftscience.transport.Deadline}.
+ *
+ */
+public class DeadlineExceededException extends SiftScienceException {
+
+	private static final long serialVersionUID = 6190384775017436622L;
+
+	public DeadlineExceededException(final String msg) {
+		super(msg);
+	}
+}
@@ -0,0 +1,28 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.exception;
+
+/**
+ * Thrown when Sift Science (or something in between, such as a proxy or load balancer) answers with an
+ * HTTP error status and a body which is not a Sift Science response.
+ *
+ */
+public class HttpStatusException extends SiftScienceException {
+
+	private static final long serialVersionUID = 3527012617395914612L;
+
+	private final int status;
+
+	public HttpStatusException(final int status, final Throwable t) {
+		super(String.format("Sift Science responded with HTTP status [%d].", status), t);
+		this.status = status;
+	}
+
+	/**
+	 * @return the HTTP status code.
+	 */
+	public int getStatus() {
+		return status;
+	}
+}
@@ -14,6 +14,10 @@ public class SiftScienceException extends RuntimeException {
 
 	private static final long serialVersionUID = -8699213474050478659L;
 
+	public SiftScienceException(final String msg) {
+		super(msg);
+	}
+
 	public SiftScienceException(final String msg, final Throwable t) {
 		super(msg, t);
 	}
@@ -0,0 +1,64 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.jmx;
+
+/**
+ * The live statistics of an {@link com.mcac0006.siftscience.dispatch.EventDispatcher}, as seen through JMX (see
+ * {@link com.mcac0006.siftscience.dispatch.EventDispatcher.Builder#jmx(String)}). Counts and lags cover the
+ * dispatcher's whole life.
+ *
+ */
+public interface EventDispatcherMXBean {
+
+	/**
+	 * @return how many events are queued in memory, waiting to be sent.
+	 */
+	int getQueueDepth();
+
+	/**
+	 * @return how many spooled events are not yet acknowledged, zero without a spool.
+	 */
+	long getSpoolBacklog();
+
+	/**
+	 * @return how many events Sift Science has responded to, whatever the response's status.
+	 */
+	long getSent();
+
+	/**
+	 * @return how many attempts at sending an event failed without a response.
+	 */
+	long getFailed();
+
+	long getDropped();
+
+	long getSpilled();
+
+	/**
+	 * @return how many times spooled events were queued to be sent again.
+	 */
+	long getRedelivered();
+
+	/**
+	 * @return how many spooled events were handed to the dead letter handler.
+	 */
+	long getDeadLettered();
+
+	/**
+	 * @return the mean time from an event being queued to the dispatcher being done with it (acknowledged in
+	 *         the spool, if any, redeliveries included), in microseconds. A spooled event counts as queued once
+	 *         it is taken off the spool.
+	 */
+	long getAckLagMeanMicros();
+
+	/**
+	 * @return the 99th percentile of {@link #getAckLagMeanMicros() the lag}, in microseconds.
+	 */
+	long getAckLagP99Micros();
+
+	/**
+	 * @return the highest {@link #getAckLagMeanMicros() lag}, in microseconds.
+	 */
+	long getAckLagMaxMicros();
+}
@@ -0,0 +1,89 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.jmx;
+
+import java.util.concurrent.TimeUnit;
+
+import com.mcac0006.siftscience.dispatch.EventDispatcher;
+import com.mcac0006.siftscience.metrics.Histogram;
+
+/**
+ * Records how long a dispatcher takes to be done with its events, and reads everything else off the
+ * dispatcher (whose counters are striped already) as it is asked for.
+ *
+ */
+public class EventDispatcherStats implements EventDispatcherMXBean {
+
+	private final EventDispatcher dispatcher;
+
+	private final Histogram ackLag = new Histogram();
+
+	public EventDispatcherStats(final EventDispatcher dispatcher) {
+		this.dispatcher = dispatcher;
+	}
+
+	/**
+	 * Records the dispatcher being done with an event.
+	 *
+	 * @param nanos - how long after being queued.
+	 */
+	public void onAcked(final long nanos) {
+		ackLag.record(nanos);
+	}
+
+	@Override
+	public int getQueueDepth() {
+		return dispatcher.getQueueDepth();
+	}
+
+	@Override
+	public long getSpoolBacklog() {
+		return dispatcher.getSpoolBacklog();
+	}
+
+	@Override
+	public long getSent() {
+		return dispatcher.getSent();
+	}
+
+	@Override
+	public long getFailed() {
+		return dispatcher.getFailed();
+	}
+
+	@Override
+	public long getDropped() {
+		return dispatcher.getDropped();
+	}
+
+	@Override
+	public long getSpilled() {
+		return dispatcher.getSpilled();
+	}
+
+	@Override
+	public long getRedelivered() {
+		return dispatcher.getRedelivered();
+	}
+
+	@Override
+	public long getDeadLettered() {
+		return dispatcher.getDeadLettered();
+	}
+
+	@Override
+	public long getAckLagMeanMicros() {
+		return TimeUnit.NANOSECONDS.toMicros(ackLag.snapshot().getMean());
+	}
+
+	@Override
+	public long getAckLagP99Micros() {
+		return TimeUnit.NANOSECONDS.toMicros(ackLag.snapshot().getPercentile(99));
+	}
+
+	@Override
+	public long getAckLagMaxMicros() {
+		return TimeUnit.NANOSECONDS.toMicros(ackLag.snapshot().getMax());
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.jmx;
+
+import java.util.Map;
+
+/**
+ * The live statistics of a {@link com.mcac0006.siftscience.SiftClient}, as seen through JMX (see
+ * {@link com.mcac0006.siftscience.SiftClient.Builder#jmx(String)}). Counts and lags cover the client's whole life.
+ *
+ */
+public interface SiftClientMXBean {
+
+	/**
+	 * @return how many requests are on the wire.
+	 */
+	int getInFlight();
+
+	/**
+	 * @return how many requests may be on the wire at once, which moves under adaptive concurrency.
+	 */
+	int getInFlightLimit();
+
+	/**
+	 * @return how many requests are queued for an in-flight slot.
+	 */
+	int getWaiting();
+
+	/**
+	 * @return how many calls have completed, successfully or not.
+	 */
+	long getCalls();
+
+	/**
+	 * @return how many calls have failed, i.e. completed without a response from Sift Science.
+	 */
+	long getFailures();
+
+	/**
+	 * @return how many times requests were sent again (see {@link com.mcac0006.siftscience.retry.RetryPolicy}).
+	 */
+	long getRetries();
+
+	/**
+	 * @return how many responses carried each non-zero Sift Science status (e.g. 51 for an invalid API key),
+	 *         retried ones included.
+	 */
+	Map<Integer, Long> getErrorsByStatus();
+
+	/**
+	 * @return the mean time from a call being made to its completion (queueing and retries included), in microseconds.
+	 */
+	long getLagMeanMicros();
+
+	/**
+	 * @return the 99th percentile of {@link #getLagMeanMicros() the lag}, in microseconds.
+	 */
+	long getLagP99Micros();
+
+	/**
+	 * @return the highest {@link #getLagMeanMicros() lag}, in microseconds.
+	 */
+	long getLagMaxMicros();
+
+	/**
+	 * @return the state of the client's circuit breaker (<code>CLOSED</code> without one).
+	 */
+	String getCircuitState();
+
+	/**
+	 * @return how many scores were served from the score cache, zero without one.
+	 */
+	long getScoreCacheHits();
+
+	/**
+	 * @return how many scores had to be asked of Sift Science, zero without a score cache.
+	 */
+	long getScoreCacheMisses();
+
+	/**
+	 * @return the share of scores served from the score cache, between 0 and 1.
+	 */
+	double getScoreCacheHitRatio();
+
+	/**
+	 * @return how many users the score cache holds an entry for, zero without one.
+	 */
+	int getScoreCacheSize();
+}
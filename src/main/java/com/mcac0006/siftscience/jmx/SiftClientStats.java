@@ -0,0 +1,164 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.jmx;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.mcac0006.siftscience.SiftClient;
+import com.mcac0006.siftscience.cache.ScoreCache;
+import com.mcac0006.siftscience.metrics.Histogram;
+
+/**
+ * Tallies a client's calls, retries and error statuses in striped counters (see {@link LongAdder}), so that
+ * requests completing on many threads at once do not contend over them, and reads everything else off the
+ * client as it is asked for.
+ *
+ */
+public class SiftClientStats implements SiftClientMXBean {
+
+	private final SiftClient client;
+
+	private final LongAdder calls = new LongAdder();
+
+	private final LongAdder failures = new LongAdder();
+
+	private final LongAdder retries = new LongAdder();
+
+	private final ConcurrentMap<Integer, LongAdder> errorsByStatus = new ConcurrentHashMap<Integer, LongAdder>();
+
+	private final Histogram lag = new Histogram();
+
+	public SiftClientStats(final SiftClient client) {
+		this.client = client;
+	}
+
+	/**
+	 * Records a call completing.
+	 *
+	 * @param nanos - how long it took, from being made to completing.
+	 * @param failed - whether it completed exceptionally.
+	 */
+	public void onCompleted(final long nanos, final boolean failed) {
+		calls.increment();
+		if (failed) {
+			failures.increment();
+		}
+		lag.record(nanos);
+	}
+
+	/**
+	 * Records a response from Sift Science.
+	 *
+	 * @param status - its status, or <code>null</code> if it carried none.
+	 */
+	public void onResponse(final Number status) {
+
+		if (status == null || status.intValue() == 0) {
+			return;
+		}
+		final Integer key = status.intValue();
+		LongAdder count = errorsByStatus.get(key);
+		if (count == null) {
+			final LongAdder created = new LongAdder();
+			count = errorsByStatus.putIfAbsent(key, created);
+			if (count == null) {
+				count = created;
+			}
+		}
+		count.increment();
+	}
+
+	public void onRetry() {
+		retries.increment();
+	}
+
+	@Override
+	public int getInFlight() {
+		return client.getInFlight();
+	}
+
+	@Override
+	public int getInFlightLimit() {
+		return client.getInFlightLimit();
+	}
+
+	@Override
+	public int getWaiting() {
+		return client.getWaiting();
+	}
+
+	@Override
+	public long getCalls() {
+		return calls.sum();
+	}
+
+	@Override
+	public long getFailures() {
+		return failures.sum();
+	}
+
+	@Override
+	public long getRetries() {
+		return retries.sum();
+	}
+
+	@Override
+	public Map<Integer, Long> getErrorsByStatus() {
+		final Map<Integer, Long> counts = new TreeMap<Integer, Long>();
+		for (final Map.Entry<Integer, LongAdder> entry : errorsByStatus.entrySet()) {
+			counts.put(entry.getKey(), entry.getValue().sum());
+		}
+		return counts;
+	}
+
+	@Override
+	public long getLagMeanMicros() {
+		return TimeUnit.NANOSECONDS.toMicros(lag.snapshot().getMean());
+	}
+
+	@Override
+	public long getLagP99Micros() {
+		return TimeUnit.NANOSECONDS.toMicros(lag.snapshot().getPercentile(99));
+	}
+
+	@Override
+	public long getLagMaxMicros() {
+		return TimeUnit.NANOSECONDS.toMicros(lag.snapshot().getMax());
+	}
+
+	@Override
+	public String getCircuitState() {
+		return client.getCircuitState().name();
+	}
+
+	@Override
+	public long getScoreCacheHits() {
+		final ScoreCache cache = client.getScoreCache();
+		return cache != null ? cache.getHits() : 0;
+	}
+
+	@Override
+	public long getScoreCacheMisses() {
+		final ScoreCache cache = client.getScoreCache();
+		return cache != null ? cache.getMisses() : 0;
+	}
+
+	@Override
+	public double getScoreCacheHitRatio() {
+		final long hits = getScoreCacheHits();
+		final long total = hits + getScoreCacheMisses();
+		return total == 0 ? 0 : (double)hits / total;
+	}
+
+	@Override
+	public int getScoreCacheSize() {
+		final ScoreCache cache = client.getScoreCache();
+		return cache != null ? cache.size() : 0;
+	}
+}
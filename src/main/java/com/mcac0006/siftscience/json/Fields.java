@@ -0,0 +1,224 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.json;
+
+import java.io.IOException;
+import java.util.Calendar;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.io.SerializedString;
+import org.codehaus.jackson.map.JsonSerializer;
+import org.codehaus.jackson.map.SerializerProvider;
+
+/**
+ * The field names of the Sift Science envelopes, along with helpers to write a field only when it has a value
+ * (mirroring the mapper's <code>NON_NULL</code> inclusion).
+ *
+ * Each name is a {@link SerializedString}, which encodes (and quotes and escapes) itself once and is then
+ * copied into the generator's output buffer as raw UTF-8 bytes on every write.
+ *
+ */
+public final class Fields {
+
+	public static final SerializedString ADDRESS_1 = new SerializedString("$address_1");
+
+	public static final SerializedString ADDRESS_2 = new SerializedString("$address_2");
+
+	public static final SerializedString AMOUNT = new SerializedString("$amount");
+
+	public static final SerializedString API_KEY = new SerializedString("$api_key");
+
+	public static final SerializedString AVS_RESULT_CODE = new SerializedString("$avs_result_code");
+
+	public static final SerializedString BILLING_ADDRESS = new SerializedString("$billing_address");
+
+	public static final SerializedString BRAND = new SerializedString("$brand");
+
+	public static final SerializedString CARD_BIN = new SerializedString("$card_bin");
+
+	public static final SerializedString CARD_LAST4 = new SerializedString("$card_last4");
+
+	public static final SerializedString CATEGORY = new SerializedString("$category");
+
+	public static final SerializedString CHANGED_PASSWORD = new SerializedString("$changed_password");
+
+	public static final SerializedString CITY = new SerializedString("$city");
+
+	public static final SerializedString COLOR = new SerializedString("$color");
+
+	public static final SerializedString CONTACT_EMAIL = new SerializedString("$contact_email");
+
+	public static final SerializedString CONTACT_PHONE = new SerializedString("$contact_phone");
+
+	public static final SerializedString CONTENT = new SerializedString("$content");
+
+	public static final SerializedString COUNTRY = new SerializedString("$country");
+
+	public static final SerializedString CURRENCY_CODE = new SerializedString("$currency_code");
+
+	public static final SerializedString CVV_RESULT_CODE = new SerializedString("$cvv_result_code");
+
+	public static final SerializedString EXPEDITED_SHIPPING = new SerializedString("$expedited_shipping");
+
+	public static final SerializedString ISBN = new SerializedString("$isbn");
+
+	public static final SerializedString ITEM = new SerializedString("$item");
+
+	public static final SerializedString ITEM_ID = new SerializedString("$item_id");
+
+	public static final SerializedString ITEMS = new SerializedString("$items");
+
+	public static final SerializedString LOGIN_STATUS = new SerializedString("$login_status");
+
+	public static final SerializedString MANUFACTURER = new SerializedString("$manufacturer");
+
+	public static final SerializedString NAME = new SerializedString("$name");
+
+	public static final SerializedString ORDER_ID = new SerializedString("$order_id");
+
+	public static final SerializedString PAYMENT_GATEWAY = new SerializedString("$payment_gateway");
+
+	public static final SerializedString PAYMENT_METHOD = new SerializedString("$payment_method");
+
+	public static final SerializedString PAYMENT_METHODS = new SerializedString("$payment_methods");
+
+	public static final SerializedString PAYMENT_TYPE = new SerializedString("$payment_type");
+
+	public static final SerializedString PHONE = new SerializedString("$phone");
+
+	public static final SerializedString PRICE = new SerializedString("$price");
+
+	public static final SerializedString PRODUCT_TITLE = new SerializedString("$product_title");
+
+	public static final SerializedString QUANTITY = new SerializedString("$quantity");
+
+	public static final SerializedString RECIPIENT_USER_ID = new SerializedString("$recipient_user_id");
+
+	public static final SerializedString REFERRER_USER_ID = new SerializedString("$referrer_user_id");
+
+	public static final SerializedString REGION = new SerializedString("$region");
+
+	public static final SerializedString REVIEW_TITLE = new SerializedString("$review_title");
+
+	public static final SerializedString REVIEWED_USER_ID = new SerializedString("$reviewed_user_id");
+
+	public static final SerializedString ROUTING_NUMBER = new SerializedString("$routing_number");
+
+	public static final SerializedString SELLER_USER_ID = new SerializedString("$seller_user_id");
+
+	public static final SerializedString SESSION_ID = new SerializedString("$session_id");
+
+	public static final SerializedString SHIPPING_ADDRESS = new SerializedString("$shipping_address");
+
+	public static final SerializedString SIZE = new SerializedString("$size");
+
+	public static final SerializedString SKU = new SerializedString("$sku");
+
+	public static final SerializedString SOCIAL_SIGN_ON_TYPE = new SerializedString("$social_sign_on_type");
+
+	public static final SerializedString SUBJECT = new SerializedString("$subject");
+
+	public static final SerializedString SUBMISSION_STATUS = new SerializedString("$submission_status");
+
+	public static final SerializedString TAGS = new SerializedString("$tags");
+
+	public static final SerializedString TIME = new SerializedString("$time");
+
+	public static final SerializedString TRANSACTION_ID = new SerializedString("$transaction_id");
+
+	public static final SerializedString TRANSACTION_STATUS = new SerializedString("$transaction_status");
+
+	public static final SerializedString TRANSACTION_TYPE = new SerializedString("$transaction_type");
+
+	public static final SerializedString TYPE = new SerializedString("$type");
+
+	public static final SerializedString UPC = new SerializedString("$upc");
+
+	public static final SerializedString USER_EMAIL = new SerializedString("$user_email");
+
+	public static final SerializedString USER_ID = new SerializedString("$user_id");
+
+	public static final SerializedString VERIFICATION_STATUS = new SerializedString("$verification_status");
+
+	public static final SerializedString ZIPCODE = new SerializedString("$zipcode");
+
+	private Fields() {}
+
+	public static void writeString(final JsonGenerator gen, final SerializedString name, final String value) throws IOException {
+		if (value != null) {
+			gen.writeFieldName(name);
+			gen.writeString(value);
+		}
+	}
+
+	public static void writeNumber(final JsonGenerator gen, final SerializedString name, final Long value) throws IOException {
+		if (value != null) {
+			gen.writeFieldName(name);
+			gen.writeNumber(value.longValue());
+		}
+	}
+
+	public static void writeNumber(final JsonGenerator gen, final SerializedString name, final Integer value) throws IOException {
+		if (value != null) {
+			gen.writeFieldName(name);
+			gen.writeNumber(value.intValue());
+		}
+	}
+
+	public static void writeBoolean(final JsonGenerator gen, final SerializedString name, final Boolean value) throws IOException {
+		if (value != null) {
+			gen.writeFieldName(name);
+			gen.writeBoolean(value.booleanValue());
+		}
+	}
+
+	/**
+	 * Writes a timestamp in seconds since the epoch, the way {@link com.mcac0006.siftscience.types.serializer.DateSerializer} does.
+	 */
+	public static void writeTime(final JsonGenerator gen, final SerializedString name, final Calendar value) throws IOException {
+		if (value != null) {
+			gen.writeFieldName(name);
+			gen.writeNumber(value.getTimeInMillis() / 1000);
+		}
+	}
+
+	public static void writeStrings(final JsonGenerator gen, final SerializedString name, final String[] values) throws IOException {
+		if (values != null) {
+			gen.writeFieldName(name);
+			gen.writeStartArray();
+			for (final String value : values) {
+				if (value == null) {
+					gen.writeNull();
+				} else {
+					gen.writeString(value);
+				}
+			}
+			gen.writeEndArray();
+		}
+	}
+
+	public static <T> void writeObject(final JsonGenerator gen, final SerializedString name, final T value,
+			final JsonSerializer<T> serializer, final SerializerProvider provider) throws IOException {
+		if (value != null) {
+			gen.writeFieldName(name);
+			serializer.serialize(value, gen, provider);
+		}
+	}
+
+	public static <T> void writeArray(final JsonGenerator gen, final SerializedString name, final T[] values,
+			final JsonSerializer<T> serializer, final SerializerProvider provider) throws IOException {
+		if (values != null) {
+			gen.writeFieldName(name);
+			gen.writeStartArray();
+			for (final T value : values) {
+				if (value == null) {
+					gen.writeNull();
+				} else {
+					serializer.serialize(value, gen, provider);
+				}
+			}
+			gen.writeEndArray();
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A growable, reusable byte buffer. Unlike {@link java.io.ByteArrayOutputStream} it is not synchronized,
+ * and {@link #reset()} keeps the backing array so that a buffer serializing one envelope after another
+ * settles on a size and stops allocating.
+ *
+ */
+public class JsonBuffer extends OutputStream {
+
+	/**
+	 * Buffers which grew beyond this are shrunk back on {@link #reset()}, so that one huge envelope
+	 * does not pin its memory for the lifetime of the thread holding the buffer.
+	 */
+	private static final int MAX_RETAINED_SIZE = 256 * 1024;
+
+	private final int initialSize;
+
+	private byte[] buf;
+
+	private int count;
+
+	public JsonBuffer() {
+		this(4096);
+	}
+
+	public JsonBuffer(final int initialSize) {
+		if (initialSize < 1) {
+			throw new IllegalArgumentException(String.format("Initial size must be positive, was [%d].", initialSize));
+		}
+		this.initialSize = initialSize;
+		this.buf = new byte[initialSize];
+	}
+
+	@Override
+	public void write(final int b) {
+		ensureCapacity(count + 1);
+		buf[count++] = (byte)b;
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len) {
+		ensureCapacity(count + len);
+		System.arraycopy(b, off, buf, count, len);
+		count += len;
+	}
+
+	private void ensureCapacity(final int capacity) {
+		if (capacity > buf.length) {
+			buf = Arrays.copyOf(buf, Math.max(capacity, buf.length << 1));
+		}
+	}
+
+	/**
+	 * Empties the buffer for reuse.
+	 */
+	public void reset() {
+		count = 0;
+		if (buf.length > MAX_RETAINED_SIZE) {
+			buf = new byte[initialSize];
+		}
+	}
+
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * @return a copy of the bytes written so far.
+	 */
+	public byte[] toByteArray() {
+		return Arrays.copyOf(buf, count);
+	}
+
+	/**
+	 * Writes the bytes written so far to another stream, without copying them.
+	 */
+	public void writeTo(final OutputStream out) throws IOException {
+		out.write(buf, 0, count);
+	}
+}
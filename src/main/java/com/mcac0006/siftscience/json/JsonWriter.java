@@ -0,0 +1,81 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.ObjectMapper;
+
+/**
+ * Writes envelopes (events and labels) as UTF-8 JSON straight onto an {@link OutputStream}.
+ *
+ * {@link ObjectMapper#writeValueAsString(Object)} builds the whole envelope as a <code>String</code>
+ * (via a char buffer) only for it to be encoded to bytes again on its way out; for a $create_order
+ * carrying dozens of items and payment methods that is a fair amount of garbage per request. Here the
+ * generator encodes UTF-8 as it goes, into the request body itself or into a per-thread {@link JsonBuffer}.
+ *
+ * Instances are thread-safe.
+ *
+ */
+public class JsonWriter {
+
+	private final ObjectMapper mapper;
+
+	private final ThreadLocal<JsonBuffer> buffers = new ThreadLocal<JsonBuffer>() {
+		@Override
+		protected JsonBuffer initialValue() {
+			return new JsonBuffer();
+		}
+	};
+
+	public JsonWriter(final ObjectMapper mapper) {
+		this.mapper = mapper;
+	}
+
+	/**
+	 * Writes the value to the stream, which is flushed but left open.
+	 */
+	public void write(final Object value, final OutputStream out) throws IOException {
+
+		final JsonGenerator generator = mapper.getJsonFactory().createJsonGenerator(out, JsonEncoding.UTF8);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		try {
+			mapper.writeValue(generator, value);
+		} finally {
+			generator.close(); // flushes, and hands the generator's buffers back for recycling
+		}
+	}
+
+	/**
+	 * @return the value in JSON form, serialized through this thread's reusable buffer.
+	 */
+	public byte[] toBytes(final Object value) throws IOException {
+
+		final JsonBuffer buffer = buffers.get();
+		try {
+			write(value, buffer);
+			return buffer.toByteArray();
+		} finally {
+			buffer.reset();
+		}
+	}
+
+	/**
+	 * @return a request body which serializes the value as it is being sent. The value is read when the
+	 *         request goes out, which for asynchronous requests is some time after this method returns.
+	 */
+	public StreamingOutput streaming(final Object value) {
+		return new StreamingOutput() {
+			@Override
+			public void write(final OutputStream out) throws IOException {
+				JsonWriter.this.write(value, out);
+			}
+		};
+	}
+}
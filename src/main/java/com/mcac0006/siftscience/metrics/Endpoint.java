@@ -0,0 +1,26 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.metrics;
+
+/**
+ * The Sift Science endpoints a client sends requests to, as reported to {@link SiftMetrics}.
+ *
+ */
+public enum Endpoint {
+
+	/**
+	 * Events, e.g. $create_order or $login.
+	 */
+	EVENTS,
+
+	/**
+	 * Labels.
+	 */
+	LABELS,
+
+	/**
+	 * Score requests.
+	 */
+	SCORE;
+}
@@ -0,0 +1,157 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds, along the lines of HdrHistogram: values below 64 each
+ * get a bucket of their own, and each power of two above that is split into 32 buckets. Recording a value
+ * is a few shifts and an atomic increment, with no allocation, and percentiles are exact to within about 3%.
+ * Values of about 18 minutes and above are recorded as 18 minutes.
+ *
+ * Recording is thread-safe. A {@link #snapshot()} taken while values are being recorded may miss some of them.
+ *
+ */
+public final class Histogram {
+
+	private static final int LINEAR_BITS = 6;
+
+	private static final int LINEAR = 1 << LINEAR_BITS;
+
+	private static final int SUB_BUCKETS = LINEAR / 2;
+
+	private static final long MAX_VALUE = (1L << 40) - 1;
+
+	private static final int BUCKETS = index(MAX_VALUE) + 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	private final LongAdder sum = new LongAdder();
+
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * @param nanos - the duration to record; negative ones count as zero.
+	 */
+	public void record(final long nanos) {
+
+		final long value = nanos < 0 ? 0 : Math.min(nanos, MAX_VALUE);
+		counts.incrementAndGet(index(value));
+		sum.add(value);
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+
+	public Snapshot snapshot() {
+
+		final long[] copy = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			copy[i] = counts.get(i);
+			count += copy[i];
+		}
+		return new Snapshot(copy, count, sum.sum(), max.get());
+	}
+
+	private static int index(final long value) {
+
+		if (value < LINEAR) {
+			return (int)value;
+		}
+		final int shift = (63 - Long.numberOfLeadingZeros(value)) - (LINEAR_BITS - 1);
+		return LINEAR + (shift - 1) * SUB_BUCKETS + (int)(value >>> shift) - SUB_BUCKETS;
+	}
+
+	/**
+	 * @return the highest value which falls into the bucket.
+	 */
+	private static long highest(final int index) {
+
+		if (index < LINEAR) {
+			return index;
+		}
+		final int shift = (index - LINEAR) / SUB_BUCKETS + 1;
+		final long top = (index - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+		return ((top + 1) << shift) - 1;
+	}
+
+	/**
+	 * The recorded values as they were at one point in time.
+	 */
+	public static final class Snapshot {
+
+		private final long[] counts;
+
+		private final long count;
+
+		private final long sum;
+
+		private final long max;
+
+		private Snapshot(final long[] counts, final long count, final long sum, final long max) {
+			this.counts = counts;
+			this.count = count;
+			this.sum = sum;
+			this.max = max;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * @return the mean, in nanoseconds, or zero if nothing was recorded.
+		 */
+		public long getMean() {
+			return count == 0 ? 0 : sum / count;
+		}
+
+		/**
+		 * @return the highest value recorded, in nanoseconds.
+		 */
+		public long getMax() {
+			return max;
+		}
+
+		/**
+		 * @param percentile - e.g. 99.9 for the 99.9th percentile.
+		 * @return the value (in nanoseconds) below which the given percentage of the recorded values fall, or
+		 *         zero if nothing was recorded.
+		 */
+		public long getPercentile(final double percentile) {
+
+			if (percentile < 0 || percentile > 100) {
+				throw new IllegalArgumentException(String.format("Percentile must be between 0 and 100, was [%s].", percentile));
+			}
+			if (count == 0) {
+				return 0;
+			}
+			final long rank = Math.max(1, (long)Math.ceil(percentile / 100 * count));
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank) {
+					return Math.min(highest(i), max);
+				}
+			}
+			return max; // values recorded while the snapshot was taken
+		}
+
+		@Override
+		public String toString() {
+			return String.format("count=%d mean=%dus p50=%dus p99=%dus p99.9=%dus max=%dus", count, micros(getMean()),
+					micros(getPercentile(50)), micros(getPercentile(99)), micros(getPercentile(99.9)), micros(max));
+		}
+
+		private static long micros(final long nanos) {
+			return TimeUnit.NANOSECONDS.toMicros(nanos);
+		}
+	}
+}
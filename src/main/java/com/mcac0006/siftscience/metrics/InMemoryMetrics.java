@@ -0,0 +1,171 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a {@link Histogram} per endpoint, event type and stage (plus one of whole calls), and counts of the
+ * bodies sent, their bytes and the calls which failed. Recording takes no locks and, once an event type has
+ * been seen, allocates nothing.
+ *
+ * <pre><code>
+ * final InMemoryMetrics metrics = new InMemoryMetrics();
+ * final SiftClient client = SiftClient.builder().apiKey(...).metrics(metrics).build();
+ * ...
+ * log.info(metrics.snapshot().toString());
+ * </code></pre>
+ *
+ */
+public class InMemoryMetrics implements SiftMetrics {
+
+	/**
+	 * Stands in for the event type of labels, score requests and events sent already serialized.
+	 */
+	private static final String NO_EVENT_TYPE = "";
+
+	private static final class Recorder {
+
+		final Histogram[] stages = new Histogram[Stage.values().length];
+
+		final Histogram calls = new Histogram();
+
+		final LongAdder bodies = new LongAdder();
+
+		final LongAdder bytes = new LongAdder();
+
+		final LongAdder failures = new LongAdder();
+
+		Recorder() {
+			for (int i = 0; i < stages.length; i++) {
+				stages[i] = new Histogram();
+			}
+		}
+	}
+
+	private final Map<Endpoint, ConcurrentMap<String, Recorder>> recorders;
+
+	public InMemoryMetrics() {
+		this.recorders = new EnumMap<Endpoint, ConcurrentMap<String, Recorder>>(Endpoint.class);
+		for (final Endpoint endpoint : Endpoint.values()) {
+			recorders.put(endpoint, new ConcurrentHashMap<String, Recorder>());
+		}
+	}
+
+	@Override
+	public void onStage(final Endpoint endpoint, final String eventType, final Stage stage, final long nanos) {
+		recorder(endpoint, eventType).stages[stage.ordinal()].record(nanos);
+	}
+
+	@Override
+	public void onBody(final Endpoint endpoint, final String eventType, final long bytes) {
+		final Recorder recorder = recorder(endpoint, eventType);
+		recorder.bodies.increment();
+		recorder.bytes.add(bytes);
+	}
+
+	@Override
+	public void onCompleted(final Endpoint endpoint, final String eventType, final long nanos, final boolean failed) {
+		final Recorder recorder = recorder(endpoint, eventType);
+		recorder.calls.record(nanos);
+		if (failed) {
+			recorder.failures.increment();
+		}
+	}
+
+	private Recorder recorder(final Endpoint endpoint, final String eventType) {
+
+		final ConcurrentMap<String, Recorder> byType = recorders.get(endpoint);
+		final String key = eventType != null ? eventType : NO_EVENT_TYPE;
+		Recorder recorder = byType.get(key);
+		if (recorder == null) {
+			final Recorder created = new Recorder();
+			recorder = byType.putIfAbsent(key, created);
+			if (recorder == null) {
+				recorder = created;
+			}
+		}
+		return recorder;
+	}
+
+	/**
+	 * @return what has been recorded so far, named <code>endpoint[.eventType].what</code>, e.g.
+	 *         <code>events.$login.request</code> or <code>score.calls</code>.
+	 */
+	public Snapshot snapshot() {
+
+		final SortedMap<String, Histogram.Snapshot> latencies = new TreeMap<String, Histogram.Snapshot>();
+		final SortedMap<String, Long> counters = new TreeMap<String, Long>();
+		for (final Map.Entry<Endpoint, ConcurrentMap<String, Recorder>> byType : recorders.entrySet()) {
+			for (final Map.Entry<String, Recorder> entry : byType.getValue().entrySet()) {
+
+				final String prefix = byType.getKey().name().toLowerCase(Locale.ROOT)
+						+ (entry.getKey().isEmpty() ? "" : "." + entry.getKey()) + ".";
+				final Recorder recorder = entry.getValue();
+				for (final Stage stage : Stage.values()) {
+					final Histogram.Snapshot snapshot = recorder.stages[stage.ordinal()].snapshot();
+					if (snapshot.getCount() > 0) {
+						latencies.put(prefix + stage.name().toLowerCase(Locale.ROOT), snapshot);
+					}
+				}
+				latencies.put(prefix + "calls", recorder.calls.snapshot());
+				counters.put(prefix + "bodies", recorder.bodies.sum());
+				counters.put(prefix + "bytes", recorder.bytes.sum());
+				counters.put(prefix + "failures", recorder.failures.sum());
+			}
+		}
+		return new Snapshot(latencies, counters);
+	}
+
+	public static final class Snapshot {
+
+		private final SortedMap<String, Histogram.Snapshot> latencies;
+
+		private final SortedMap<String, Long> counters;
+
+		private Snapshot(final SortedMap<String, Histogram.Snapshot> latencies, final SortedMap<String, Long> counters) {
+			this.latencies = Collections.unmodifiableSortedMap(latencies);
+			this.counters = Collections.unmodifiableSortedMap(counters);
+		}
+
+		/**
+		 * @return the latency histograms of each stage (e.g. <code>events.$login.request</code>) and of whole
+		 *         calls (e.g. <code>events.$login.calls</code>), by name.
+		 */
+		public SortedMap<String, Histogram.Snapshot> getLatencies() {
+			return latencies;
+		}
+
+		/**
+		 * @return how many bodies were sent (e.g. <code>labels.bodies</code>), how many bytes they came to
+		 *         (<code>labels.bytes</code>) and how many calls failed (<code>labels.failures</code>), by name.
+		 */
+		public SortedMap<String, Long> getCounters() {
+			return counters;
+		}
+
+		/**
+		 * @return one line per histogram and counter, e.g. for logging.
+		 */
+		@Override
+		public String toString() {
+			final StringBuilder out = new StringBuilder();
+			for (final Map.Entry<String, Histogram.Snapshot> latency : latencies.entrySet()) {
+				out.append(latency.getKey()).append(' ').append(latency.getValue()).append('\n');
+			}
+			for (final Map.Entry<String, Long> counter : counters.entrySet()) {
+				out.append(counter.getKey()).append(' ').append(counter.getValue()).append('\n');
+			}
+			return out.toString();
+		}
+	}
+}
@@ -0,0 +1,41 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.metrics;
+
+/**
+ * Listens to what a {@link com.mcac0006.siftscience.SiftClient} does: how long each stage of each request
+ * takes, how large the bodies it sends are and how each call turns out. See {@link InMemoryMetrics} for one
+ * which keeps latency histograms in memory.
+ *
+ * Methods are called on the threads doing the work (the caller's, the transport's or the client's scheduler),
+ * so implementations must be thread-safe and must return quickly.
+ *
+ */
+public interface SiftMetrics {
+
+	/**
+	 * Called as a stage of an attempt at a request ends. Retried requests go through the stages once per attempt.
+	 *
+	 * @param eventType - the type of the event sent (e.g. <code>$login</code>), or <code>null</code> for labels,
+	 *                    score requests and events sent already serialized.
+	 * @param nanos - how long the stage took.
+	 */
+	void onStage(Endpoint endpoint, String eventType, Stage stage, long nanos);
+
+	/**
+	 * Called with the size of each request body, before any compression.
+	 *
+	 * @param eventType - as for {@link #onStage(Endpoint, String, Stage, long)}.
+	 */
+	void onBody(Endpoint endpoint, String eventType, long bytes);
+
+	/**
+	 * Called as a call completes, retries and all.
+	 *
+	 * @param eventType - as for {@link #onStage(Endpoint, String, Stage, long)}.
+	 * @param nanos - how long the call took, from being made to completing.
+	 * @param failed - whether it completed exceptionally. A response carrying an error status has not failed.
+	 */
+	void onCompleted(Endpoint endpoint, String eventType, long nanos, boolean failed);
+}
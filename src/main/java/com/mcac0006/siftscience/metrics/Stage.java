@@ -0,0 +1,32 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.metrics;
+
+/**
+ * The stages a request goes through, each timed separately (see {@link SiftMetrics#onStage}).
+ *
+ */
+public enum Stage {
+
+	/**
+	 * Encoding the envelope into the request body. For a body serialized as it is sent, this includes
+	 * writing it to the connection.
+	 */
+	SERIALIZE,
+
+	/**
+	 * Waiting on the API key's rate limit and for a free in-flight slot.
+	 */
+	ENQUEUE,
+
+	/**
+	 * From handing the request to the transport until Sift Science's response comes in, connecting included.
+	 */
+	REQUEST,
+
+	/**
+	 * Parsing the response.
+	 */
+	PARSE;
+}
@@ -0,0 +1,106 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.pool;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of {@link Resettable} objects, e.g. events and the items, addresses and payment methods
+ * they carry, for producing events without creating new ones once the pool has warmed up. Arrays set on
+ * pooled objects are dropped when they are reset, not reused.
+ *
+ * <pre><code>
+ * final ObjectPool&lt;CreateOrder&gt; orders = new ObjectPool&lt;CreateOrder&gt;(64, new Supplier&lt;CreateOrder&gt;() { ... });
+ *
+ * final CreateOrder order = orders.acquire();
+ * order.setUserId(...)...;
+ * client.sendAsync(order).whenComplete((response, t) -&gt; orders.release(order));
+ * </code></pre>
+ *
+ * An event sent asynchronously is serialized as its request goes out, so it must not be released before
+ * the request completes. Nested objects are not released along with the object holding them; release
+ * them on their own, or pool only the outer one.
+ *
+ * The pool is a fixed array of slots, each taken and filled with a compare-and-set. A thread starts looking
+ * at a slot of its own, so that threads rarely contend for the same slots, and looks at a few slots at most
+ * before giving up: acquiring from a (nearly) empty pool creates an object, and releasing into a (nearly)
+ * full one drops it. Objects may be released on another thread than the one which acquired them.
+ *
+ * Instances are thread-safe.
+ *
+ */
+public class ObjectPool<T extends Resettable> {
+
+	/**
+	 * How many slots an acquire or a release looks at before giving up.
+	 */
+	private static final int PROBES = 8;
+
+	private final AtomicReferenceArray<T> slots;
+
+	private final Supplier<? extends T> factory;
+
+	/**
+	 * @param capacity - how many idle objects the pool holds on to at most.
+	 * @param factory - creates objects when the pool has none idle.
+	 */
+	public ObjectPool(final int capacity, final Supplier<? extends T> factory) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException(String.format("Capacity must be positive, was [%d].", capacity));
+		}
+		this.slots = new AtomicReferenceArray<T>(capacity);
+		this.factory = factory;
+	}
+
+	/**
+	 * @return an idle object from the pool, or a new one if there is none to hand.
+	 */
+	public T acquire() {
+
+		final int start = start();
+		final int probes = Math.min(PROBES, slots.length());
+		for (int i = 0; i < probes; i++) {
+			final int slot = (start + i) % slots.length();
+			final T idle = slots.get(slot);
+			if (idle != null && slots.compareAndSet(slot, idle, null)) {
+				return idle;
+			}
+		}
+		return factory.get();
+	}
+
+	/**
+	 * Resets the object and hands it back to the pool. It must not be used by the caller afterwards.
+	 */
+	public void release(final T object) {
+
+		object.reset();
+		final int start = start();
+		final int probes = Math.min(PROBES, slots.length());
+		for (int i = 0; i < probes; i++) {
+			final int slot = (start + i) % slots.length();
+			if (slots.get(slot) == null && slots.compareAndSet(slot, null, object)) {
+				return;
+			}
+		}
+		// the pool is full around here; let the garbage collector have it
+	}
+
+	/**
+	 * @return how many idle objects the pool holds.
+	 */
+	public int getIdle() {
+		int idle = 0;
+		for (int i = 0; i < slots.length(); i++) {
+			idle += slots.get(i) != null ? 1 : 0;
+		}
+		return idle;
+	}
+
+	private int start() {
+		final int h = (int)Thread.currentThread().getId() * 0x9E3779B9; // spreads consecutive thread ids apart
+		return ((h ^ (h >>> 16)) & Integer.MAX_VALUE) % slots.length();
+	}
+}
@@ -0,0 +1,17 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.pool;
+
+/**
+ * An object which can be wiped clean and used again, e.g. through an {@link ObjectPool}.
+ *
+ */
+public interface Resettable {
+
+	/**
+	 * Puts the object back the way it was when created, as far as its observable state goes. Memory it
+	 * holds on to (e.g. a map of custom fields) may be kept for reuse.
+	 */
+	void reset();
+}
@@ -0,0 +1,58 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.result;
+
+import com.mcac0006.siftscience.event.domain.Event;
+import com.mcac0006.siftscience.result.domain.SiftScienceResponse;
+
+/**
+ * The outcome of sending one event as part of a bulk send: either Sift Science's response, or the
+ * reason the event never got one.
+ *
+ */
+public final class SendResult {
+
+	private final Event event;
+
+	private final SiftScienceResponse response;
+
+	private final Throwable failure;
+
+	public SendResult(final Event event, final SiftScienceResponse response, final Throwable failure) {
+		this.event = event;
+		this.response = response;
+		this.failure = failure;
+	}
+
+	public Event getEvent() {
+		return event;
+	}
+
+	/**
+	 * @return Sift Science's response, or <code>null</code> if the event could not be sent.
+	 */
+	public SiftScienceResponse getResponse() {
+		return response;
+	}
+
+	/**
+	 * @return why the event could not be sent (e.g. a {@link javax.ws.rs.ProcessingException}), or
+	 *         <code>null</code> if Sift Science responded.
+	 */
+	public Throwable getFailure() {
+		return failure;
+	}
+
+	/**
+	 * @return whether Sift Science accepted the event (responded with a status of zero).
+	 */
+	public boolean isSuccessful() {
+		return response != null && response.getStatus() != null && response.getStatus() == 0;
+	}
+
+	@Override
+	public String toString() {
+		return failure != null ? "SendResult[failure=" + failure + "]" : "SendResult[status=" + (response != null ? response.getStatus() : null) + "]";
+	}
+}
@@ -0,0 +1,55 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.result;
+
+/**
+ * The <code>status</code> codes Sift Science answers requests with. Refer to Sift Science's
+ * <a href="https://siftscience.com/developers/docs/curl/events-api/error-codes">error codes</a>.
+ *
+ */
+public final class SiftStatus {
+
+	/**
+	 * The request was processed successfully.
+	 */
+	public static final int OK = 0;
+
+	/**
+	 * Unknown error on Sift Science's side. Codes down to <code>-4</code> signal other server-side failures.
+	 */
+	public static final int SERVER_ERROR = -1;
+
+	public static final int INVALID_API_KEY = 51;
+
+	public static final int INVALID_CHARACTERS_IN_FIELD_NAME = 52;
+
+	public static final int INVALID_CHARACTERS_IN_FIELD_VALUE = 53;
+
+	public static final int NO_SCORABLE_EVENTS = 54;
+
+	public static final int MISSING_REQUIRED_FIELD = 55;
+
+	public static final int INVALID_JSON = 56;
+
+	public static final int INVALID_HTTP_BODY = 57;
+
+	/**
+	 * Too many requests; back off.
+	 */
+	public static final int RATE_LIMITED = 60;
+
+	public static final int INVALID_API_VERSION = 104;
+
+	public static final int NOT_VALID_RESERVED_FIELD = 105;
+
+	private SiftStatus() {}
+
+	/**
+	 * @return whether the status means Sift Science is struggling to keep up (it failed on its side, or
+	 *         throttled the request), so that sending less would help.
+	 */
+	public static boolean isOverloaded(final Number status) {
+		return status != null && (status.intValue() < 0 || status.intValue() == RATE_LIMITED);
+	}
+}
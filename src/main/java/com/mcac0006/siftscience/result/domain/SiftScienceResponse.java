@@ -3,6 +3,8 @@
  */
 package com.mcac0006.siftscience.result.domain;
 
+import org.codehaus.jackson.annotate.JsonIgnore;
+import org.codehaus.jackson.annotate.JsonIgnoreProperties;
 import org.codehaus.jackson.annotate.JsonProperty;
 
 import com.mcac0006.siftscience.score.domain.SiftScienceScore;
@@ -37,6 +39,9 @@ public class SiftScienceResponse {
 	/**
 	 * The request content received sent to Sift Science. This is particularly 
 	 * useful in case you need to investigate the content itself.
+	 * 
+	 * Left out by {@link com.mcac0006.siftscience.SiftClient}s unless they are built to keep it (see
+	 * {@link WithoutRequest}).
 	 */
 	private String request;
 	
@@ -46,6 +51,13 @@ public class SiftScienceResponse {
 	@JsonProperty(value="score_response")
 	private SiftScienceScore scoreResponse;
 
+	/**
+	 * How many times the request was sent before this response was accepted as final (see
+	 * {@link com.mcac0006.siftscience.retry.RetryPolicy}). Not part of Sift Science's response.
+	 */
+	@JsonIgnore
+	private int attempts = 1;
+
 	public Integer getStatus() {
 		return status;
 	}
@@ -70,6 +82,16 @@ public class SiftScienceResponse {
 		this.time = time;
 	}
 
+	@JsonIgnore
+	public int getAttempts() {
+		return attempts;
+	}
+
+	@JsonIgnore
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
 	public String getRequest() {
 		return request;
 	}
@@ -152,4 +174,10 @@ public class SiftScienceResponse {
         return true;
     }
 
+	/**
+	 * A mix-in which has the echo of the request skipped while parsing, rather than read into a second copy
+	 * of the event just sent. The echo is still scanned past, but never decoded into a <code>String</code>.
+	 */
+	@JsonIgnoreProperties({ "request" })
+	public static abstract class WithoutRequest {}
 }
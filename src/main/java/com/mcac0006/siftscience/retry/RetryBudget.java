@@ -0,0 +1,69 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.retry;
+
+import com.mcac0006.siftscience.transport.TokenBucket;
+
+/**
+ * Caps retries at a share of the requests made, so that retrying cannot multiply the load on Sift Science
+ * while it is struggling: when most requests fail, the budget runs dry and failures are handed straight
+ * back rather than retried.
+ *
+ * Every request puts <code>ratio</code> of a retry into the budget (up to a cap) and every retry takes a
+ * whole one out. A trickle of <code>minRetriesPerSecond</code> is allowed regardless, so that a client
+ * which makes few requests can still retry now and again.
+ *
+ * A budget is meant to be shared, e.g. by every request a client makes, or by several clients.
+ *
+ */
+public class RetryBudget {
+
+	private final double ratio;
+
+	private final double cap;
+
+	private final TokenBucket floor;
+
+	private double balance;
+
+	/**
+	 * @param ratio - how many retries each request earns, e.g. <code>0.1</code> for at most one retry per
+	 *                ten requests.
+	 * @param minRetriesPerSecond - the retries allowed regardless of the balance, or zero for none.
+	 */
+	public RetryBudget(final double ratio, final double minRetriesPerSecond) {
+		if (!(ratio >= 0)) {
+			throw new IllegalArgumentException(String.format("Ratio must not be negative, was [%s].", ratio));
+		}
+		if (!(minRetriesPerSecond >= 0)) {
+			throw new IllegalArgumentException(String.format("Minimum retries per second must not be negative, was [%s].",
+					minRetriesPerSecond));
+		}
+		this.ratio = ratio;
+		this.cap = Math.max(1, ratio * 1000); // saved up over no more than the last thousand requests
+		this.floor = minRetriesPerSecond > 0 ? new TokenBucket(minRetriesPerSecond, (int)Math.ceil(minRetriesPerSecond)) : null;
+	}
+
+	/**
+	 * Records a (first) request.
+	 */
+	public synchronized void onRequest() {
+		balance = Math.min(cap, balance + ratio);
+	}
+
+	/**
+	 * Takes a retry out of the budget, if there is one left.
+	 *
+	 * @return whether the retry may go ahead.
+	 */
+	public boolean tryRetry() {
+		synchronized (this) {
+			if (balance >= 1) {
+				balance--;
+				return true;
+			}
+		}
+		return floor != null && floor.tryAcquire();
+	}
+}
@@ -0,0 +1,153 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.retry;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.ProcessingException;
+
+import com.mcac0006.siftscience.exception.HttpStatusException;
+import com.mcac0006.siftscience.exception.SiftScienceException;
+import com.mcac0006.siftscience.result.SiftStatus;
+
+/**
+ * Decides which failed requests a {@link com.mcac0006.siftscience.SiftClient} sends again, and when.
+ *
+ * <ul>
+ * <li><strong>Retried</strong> are transport failures (timeouts, refused or reset connections), HTTP 429 and
+ *     5xx responses, and the Sift Science statuses which tell of a passing problem: server-side errors
+ *     (negative statuses) and {@link SiftStatus#RATE_LIMITED}.</li>
+ * <li><strong>Not retried</strong> is anything which would fail the same way again: a bad API key, an invalid
+ *     field, malformed JSON, and so on.</li>
+ * </ul>
+ *
+ * Retries are spaced by "decorrelated jitter": each delay is picked at random between the base delay
+ * and three times the previous one (capped), which spreads out clients that failed together. Retries
+ * are also drawn from a {@link RetryBudget}, so that they cannot amplify an outage.
+ *
+ * Bear in mind that an event whose request timed out may well have reached Sift Science, so retrying it
+ * may record it twice.
+ *
+ */
+public class RetryPolicy {
+
+	/**
+	 * How many times a request is sent at most, the first time included.
+	 */
+	private int maxAttempts = 3;
+
+	private long baseDelayMillis = 100;
+
+	private long maxDelayMillis = TimeUnit.SECONDS.toMillis(5);
+
+	private Set<Integer> retryableStatuses = new HashSet<Integer>();
+
+	private RetryBudget budget = new RetryBudget(0.1, 10);
+
+	public RetryPolicy() {
+		for (int status = -4; status <= SiftStatus.SERVER_ERROR; status++) {
+			retryableStatuses.add(status);
+		}
+		retryableStatuses.add(SiftStatus.RATE_LIMITED);
+	}
+
+	/**
+	 * @return whether a response with this Sift Science status is worth sending again.
+	 */
+	public boolean isRetryable(final Number status) {
+		return status != null && retryableStatuses.contains(status.intValue());
+	}
+
+	/**
+	 * @return whether a request which failed this way is worth sending again.
+	 */
+	public boolean isRetryable(final Throwable failure) {
+
+		if (failure instanceof HttpStatusException) {
+			final int status = ((HttpStatusException)failure).getStatus();
+			return status == 429 || status >= 500;
+		}
+		if (failure instanceof SiftScienceException) {
+			return false; // the request or the response could not be (de)serialized
+		}
+		return failure instanceof ProcessingException;
+	}
+
+	/**
+	 * @param previousDelayMillis - the delay before the previous retry, or zero before the first one.
+	 * @return the delay before the next retry.
+	 */
+	public long nextDelayMillis(final long previousDelayMillis) {
+		final long upper = Math.min(maxDelayMillis, Math.max(baseDelayMillis, previousDelayMillis * 3));
+		return upper <= baseDelayMillis ? baseDelayMillis : ThreadLocalRandom.current().nextLong(baseDelayMillis, upper + 1);
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	public RetryPolicy setMaxAttempts(int maxAttempts) {
+		if (maxAttempts < 1) {
+			throw new IllegalArgumentException(String.format("Max attempts must be positive, was [%d].", maxAttempts));
+		}
+		this.maxAttempts = maxAttempts;
+		return this;
+	}
+
+	public long getBaseDelayMillis() {
+		return baseDelayMillis;
+	}
+
+	public long getMaxDelayMillis() {
+		return maxDelayMillis;
+	}
+
+	/**
+	 * @param base - the shortest delay before a retry.
+	 * @param max - the longest delay before a retry.
+	 */
+	public RetryPolicy setDelays(long base, long max, TimeUnit unit) {
+		if (base < 0 || max < base) {
+			throw new IllegalArgumentException(String.format("Delays must satisfy 0 <= base <= max, were [%d] and [%d].", base, max));
+		}
+		this.baseDelayMillis = unit.toMillis(base);
+		this.maxDelayMillis = unit.toMillis(max);
+		return this;
+	}
+
+	public Set<Integer> getRetryableStatuses() {
+		return retryableStatuses;
+	}
+
+	/**
+	 * @param statuses - the Sift Science statuses worth sending a request again for, in place of the defaults.
+	 */
+	public RetryPolicy setRetryableStatuses(int... statuses) {
+		final Set<Integer> retryable = new HashSet<Integer>();
+		for (final int status : statuses) {
+			retryable.add(status);
+		}
+		this.retryableStatuses = retryable;
+		return this;
+	}
+
+	public RetryBudget getBudget() {
+		return budget;
+	}
+
+	/**
+	 * @param budget - the budget retries are drawn from, by default one allowing a retry per ten requests
+	 *                 plus ten per second. Share a budget between policies to cap their retries together.
+	 */
+	public RetryPolicy setBudget(RetryBudget budget) {
+		if (budget == null) {
+			throw new IllegalArgumentException("A retry budget is required.");
+		}
+		this.budget = budget;
+		return this;
+	}
+}
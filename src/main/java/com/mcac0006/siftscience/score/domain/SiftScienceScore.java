@@ -5,6 +5,7 @@ package com.mcac0006.siftscience.score.domain;
 
 import java.util.Arrays;
 
+import org.codehaus.jackson.annotate.JsonIgnore;
 import org.codehaus.jackson.annotate.JsonIgnoreProperties;
 import org.codehaus.jackson.annotate.JsonProperty;
 
@@ -61,6 +62,15 @@ public class SiftScienceScore {
 	@JsonProperty(value="error_message")
 	private String errorMessage;
 
+	/**
+	 * How many times the request was sent before this response was accepted as final (see
+	 * {@link com.mcac0006.siftscience.retry.RetryPolicy}), or zero if the score did not come from Sift Science
+	 * just now but from a {@link com.mcac0006.siftscience.circuit.ScoreFallback} or a
+	 * {@link com.mcac0006.siftscience.cache.ScoreCache}. Not part of Sift Science's response.
+	 */
+	@JsonIgnore
+	private int attempts = 1;
+
 	public final String getUserId() {
 		return userId;
 	}
@@ -85,6 +95,11 @@ public class SiftScienceScore {
 		return errorMessage;
 	}
 
+	@JsonIgnore
+	public final int getAttempts() {
+		return attempts;
+	}
+
 	public final void setUserId(String userId) {
 		this.userId = userId;
 	}
@@ -109,6 +124,27 @@ public class SiftScienceScore {
 		this.errorMessage = errorMessage;
 	}
 
+	@JsonIgnore
+	public final void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	/**
+	 * @return a copy of this score which has not been sent any request yet (its attempts are zero), for
+	 *         handing out a score held on to since.
+	 */
+	public final SiftScienceScore copy() {
+		final SiftScienceScore copy = new SiftScienceScore();
+		copy.userId = userId;
+		copy.score = score;
+		copy.reasons = reasons;
+		copy.latestLabel = latestLabel;
+		copy.status = status;
+		copy.errorMessage = errorMessage;
+		copy.attempts = 0;
+		return copy;
+	}
+
     @Override
     public int hashCode() {
         final int prime = 31;
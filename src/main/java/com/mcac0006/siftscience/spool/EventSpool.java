@@ -0,0 +1,531 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.spool;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import com.mcac0006.siftscience.exception.SiftScienceException;
+
+/**
+ * A durable, append-only write-ahead log of serialized events awaiting delivery to Sift Science.
+ *
+ * Events are appended (as produced by {@link com.mcac0006.siftscience.SiftScienceHelper#serialize(com.mcac0006.siftscience.event.domain.Event)})
+ * before they are sent, and {@link #ack(long) acknowledged} once Sift Science has accepted them.
+ * Whatever has not been acknowledged when the process stops is handed back by a {@link #cursor()}
+ * the next time the spool is opened, so events survive both an unreachable endpoint and a restart.
+ * Delivery is hence <em>at least once</em>.
+ *
+ * On disk, the spool is a directory of fixed-size, memory-mapped segment files, each named after the
+ * sequence number of its first event. Every record is laid out as
+ * <code>[length:int][crc32:int][payload:length bytes]</code>; the length is written last, so a record
+ * torn by a crash reads as the end of the log. Segments are deleted once all their events have been
+ * acknowledged. The highest contiguously acknowledged sequence number lives in a separate
+ * <code>ack.pos</code> file.
+ *
+ * An open spool holds a lock on its directory; only one process can use it at a time.
+ *
+ */
+public class EventSpool implements Closeable {
+
+	private static final String SEGMENT_SUFFIX = ".spool";
+
+	private static final String ACK_FILE = "ack.pos";
+
+	private static final String LOCK_FILE = "spool.lock";
+
+	/**
+	 * Length plus checksum.
+	 */
+	private static final int RECORD_HEADER = 8;
+
+	private final File directory;
+
+	private final SpoolConfig config;
+
+	private final TreeMap<Long, Segment> segments = new TreeMap<Long, Segment>();
+
+	private final FileChannel lockChannel;
+
+	private final FileLock lock;
+
+	private final FileChannel ackChannel;
+
+	private final MappedByteBuffer ackBuffer;
+
+	private final ScheduledExecutorService flusher;
+
+	private final CRC32 crc = new CRC32();
+
+	/**
+	 * Out-of-order acknowledgements, waiting for the gap below them to close.
+	 */
+	private final TreeSet<Long> pendingAcks = new TreeSet<Long>();
+
+	private Segment active;
+
+	private long nextSequence;
+
+	/**
+	 * Every event with a sequence number up to (and including) this one has been acknowledged.
+	 */
+	private long ackedUpTo;
+
+	private boolean dirty;
+
+	private boolean closed;
+
+	private EventSpool(final File directory, final SpoolConfig config) throws IOException {
+
+		this.directory = directory;
+		this.config = config;
+
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException(String.format("Could not create spool directory [%s].", directory));
+		}
+
+		lockChannel = new RandomAccessFile(new File(directory, LOCK_FILE), "rw").getChannel();
+		lock = lockChannel.tryLock();
+		if (lock == null) {
+			lockChannel.close();
+			throw new IOException(String.format("Spool directory [%s] is in use by another process.", directory));
+		}
+
+		ackChannel = new RandomAccessFile(new File(directory, ACK_FILE), "rw").getChannel();
+		// missing, or cut short by a crash before its first write made it to disk; mapping would pad it
+		// with zeros, which would read as event 0 having been acknowledged
+		final boolean fresh = ackChannel.size() < 8;
+		ackBuffer = ackChannel.map(FileChannel.MapMode.READ_WRITE, 0, 8);
+		ackedUpTo = fresh ? -1 : ackBuffer.getLong(0);
+		if (fresh) {
+			ackBuffer.putLong(0, ackedUpTo);
+		}
+
+		recover();
+
+		if (config.getFsyncPolicy() == FsyncPolicy.INTERVAL) {
+			flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable r) {
+					final Thread t = new Thread(r, "sift-spool-flusher");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+			flusher.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					flush();
+				}
+			}, config.getFsyncIntervalMillis(), config.getFsyncIntervalMillis(), TimeUnit.MILLISECONDS);
+		} else {
+			flusher = null;
+		}
+	}
+
+	/**
+	 * Opens (or creates) the spool in the given directory, recovering whatever was left in it.
+	 *
+	 * @param directory - where the segment files live.
+	 * @param config - the spool's settings.
+	 * @throws IOException if the directory cannot be created, read or locked.
+	 */
+	public static EventSpool open(final File directory, final SpoolConfig config) throws IOException {
+		return new EventSpool(directory, config);
+	}
+
+	private void recover() throws IOException {
+
+		final File[] files = directory.listFiles(new FilenameFilter() {
+			@Override
+			public boolean accept(final File dir, final String name) {
+				return name.endsWith(SEGMENT_SUFFIX);
+			}
+		});
+
+		for (final File file : files) {
+			final String name = file.getName();
+			final long baseSequence = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+			final Segment segment = new Segment(file, baseSequence, (int)file.length());
+			segment.scan();
+			segments.put(baseSequence, segment);
+		}
+
+		// a segment cut short by corruption leaves a gap in the sequence numbers before the next segment;
+		// treat the missing events as acknowledged so that they do not hold back the ones after them
+		long expected = ackedUpTo + 1;
+		for (final Segment segment : segments.values()) {
+			for (long s = expected; s < segment.baseSequence; s++) {
+				pendingAcks.add(s);
+			}
+			expected = Math.max(expected, segment.baseSequence + segment.count);
+		}
+		advanceAcks();
+
+		// segments wholly acknowledged before the last shutdown may not have been deleted yet
+		deleteAcknowledgedSegments();
+
+		if (segments.isEmpty()) {
+			nextSequence = ackedUpTo + 1;
+		} else {
+			active = segments.lastEntry().getValue();
+			nextSequence = active.baseSequence + active.count;
+			if (active.writePosition + RECORD_HEADER <= active.capacity) {
+				active.buffer.putInt(active.writePosition, 0); // wipe the length of any torn record
+			}
+		}
+	}
+
+	/**
+	 * Appends a serialized event to the spool.
+	 *
+	 * @param payload - the serialized event.
+	 * @return the sequence number to {@link #ack(long) acknowledge} the event with once it has been delivered.
+	 */
+	public synchronized long append(final byte[] payload) {
+
+		ensureOpen();
+
+		final int needed = RECORD_HEADER + payload.length;
+		if (needed > config.getSegmentSize()) {
+			throw new IllegalArgumentException(String.format("Event of [%d] bytes does not fit in a spool segment of [%d] bytes.", payload.length, config.getSegmentSize()));
+		}
+		if (active == null || active.writePosition + needed > active.capacity) {
+			roll();
+		}
+
+		crc.reset();
+		crc.update(payload, 0, payload.length);
+
+		final int position = active.writePosition;
+		final ByteBuffer buffer = active.buffer.duplicate();
+		buffer.position(position + RECORD_HEADER);
+		buffer.put(payload);
+		active.buffer.putInt(position + 4, (int)crc.getValue());
+		active.buffer.putInt(position, payload.length); // commits the record
+
+		active.writePosition += needed;
+		active.count++;
+
+		if (config.getFsyncPolicy() == FsyncPolicy.ALWAYS) {
+			active.buffer.force();
+		} else {
+			dirty = true;
+		}
+		return nextSequence++;
+	}
+
+	private void roll() {
+
+		if (active != null && config.getFsyncPolicy() != FsyncPolicy.NEVER) {
+			active.buffer.force();
+		}
+		try {
+			final File file = new File(directory, String.format("%020d%s", nextSequence, SEGMENT_SUFFIX));
+			active = new Segment(file, nextSequence, config.getSegmentSize());
+		} catch (IOException e) {
+			throw new SiftScienceException("Error creating spool segment.", e);
+		}
+		segments.put(active.baseSequence, active);
+	}
+
+	/**
+	 * Marks an event as delivered. Events can be acknowledged in any order; a segment is deleted once
+	 * every event in it has been acknowledged.
+	 *
+	 * @param sequence - as returned by {@link #append(byte[])} or {@link Record#getSequence()}.
+	 */
+	public synchronized void ack(final long sequence) {
+
+		ensureOpen();
+
+		if (sequence <= ackedUpTo || sequence >= nextSequence) {
+			return;
+		}
+		if (sequence != ackedUpTo + 1) {
+			pendingAcks.add(sequence);
+			return;
+		}
+
+		ackedUpTo = sequence;
+		advanceAcks();
+
+		ackBuffer.putLong(0, ackedUpTo);
+		if (config.getFsyncPolicy() == FsyncPolicy.ALWAYS) {
+			ackBuffer.force();
+		} else {
+			dirty = true;
+		}
+
+		deleteAcknowledgedSegments();
+	}
+
+	private void advanceAcks() {
+		while (!pendingAcks.isEmpty() && pendingAcks.first() == ackedUpTo + 1) {
+			ackedUpTo = pendingAcks.pollFirst();
+		}
+	}
+
+	private void deleteAcknowledgedSegments() {
+
+		while (!segments.isEmpty()) {
+			final Segment oldest = segments.firstEntry().getValue();
+			if (oldest == active || oldest.baseSequence + oldest.count - 1 > ackedUpTo) {
+				return;
+			}
+			segments.remove(oldest.baseSequence);
+			oldest.delete();
+		}
+	}
+
+	/**
+	 * @return a cursor positioned on the oldest event which has not been acknowledged yet.
+	 */
+	public synchronized Cursor cursor() {
+		ensureOpen();
+		return new Cursor(ackedUpTo + 1);
+	}
+
+	/**
+	 * @return the number of events appended but not acknowledged yet.
+	 */
+	public synchronized long getBacklog() {
+		return nextSequence - 1 - ackedUpTo - pendingAcks.size();
+	}
+
+	public synchronized long getAckedUpTo() {
+		return ackedUpTo;
+	}
+
+	public synchronized int getSegmentCount() {
+		return segments.size();
+	}
+
+	/**
+	 * Forces any appends and acknowledgements not yet on disk out to it.
+	 */
+	public synchronized void flush() {
+
+		if (closed || !dirty) {
+			return;
+		}
+		if (active != null) {
+			active.buffer.force();
+		}
+		ackBuffer.force();
+		dirty = false;
+	}
+
+	private void ensureOpen() {
+		if (closed) {
+			throw new IllegalStateException("Spool has been closed.");
+		}
+	}
+
+	/**
+	 * Flushes (whatever the {@link FsyncPolicy}) and closes every segment file. Unacknowledged events stay on
+	 * disk for the next time the spool is opened.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+
+		if (closed) {
+			return;
+		}
+		if (flusher != null) {
+			flusher.shutdownNow();
+		}
+		dirty = true;
+		flush();
+		closed = true;
+
+		for (final Segment segment : segments.values()) {
+			segment.channel.close();
+		}
+		segments.clear();
+		ackChannel.close();
+		lock.release();
+		lockChannel.close();
+	}
+
+	/**
+	 * An event read back from the spool.
+	 */
+	public static final class Record {
+
+		private final long sequence;
+
+		private final byte[] payload;
+
+		private Record(final long sequence, final byte[] payload) {
+			this.sequence = sequence;
+			this.payload = payload;
+		}
+
+		public long getSequence() {
+			return sequence;
+		}
+
+		public byte[] getPayload() {
+			return payload;
+		}
+	}
+
+	/**
+	 * Walks the spool in append order. A cursor keeps up with the spool as it grows: once it has
+	 * caught up, {@link #next()} returns <code>null</code> until something else is appended.
+	 */
+	public final class Cursor {
+
+		private long sequence;
+
+		private Segment segment;
+
+		private int position;
+
+		private Cursor(final long sequence) {
+			this.sequence = sequence;
+		}
+
+		/**
+		 * @return the next event, or <code>null</code> if the cursor has caught up with the spool.
+		 */
+		public Record next() {
+
+			synchronized (EventSpool.this) {
+
+				ensureOpen();
+
+				if (segment != null && !segments.containsKey(segment.baseSequence)) {
+					segment = null; // deleted from under us, i.e. everything in it was acknowledged
+				}
+				if (segment == null && !seek()) {
+					return null;
+				}
+
+				while (sequence >= segment.baseSequence + segment.count) {
+					final Map.Entry<Long, Segment> following = segments.higherEntry(segment.baseSequence);
+					if (following == null) {
+						return null;
+					}
+					segment = following.getValue();
+					position = 0;
+				}
+
+				final int length = segment.buffer.getInt(position);
+				final byte[] payload = new byte[length];
+				final ByteBuffer buffer = segment.buffer.duplicate();
+				buffer.position(position + RECORD_HEADER);
+				buffer.get(payload);
+				position += RECORD_HEADER + length;
+				return new Record(sequence++, payload);
+			}
+		}
+
+		/**
+		 * Positions the cursor on the segment holding {@link #sequence} (or the first one after it).
+		 */
+		private boolean seek() {
+
+			sequence = Math.max(sequence, ackedUpTo + 1);
+
+			Map.Entry<Long, Segment> entry = segments.floorEntry(sequence);
+			if (entry == null) {
+				entry = segments.ceilingEntry(sequence);
+				if (entry == null) {
+					return false;
+				}
+				sequence = entry.getKey();
+			}
+			segment = entry.getValue();
+			position = 0;
+			for (long s = segment.baseSequence; s < sequence && s < segment.baseSequence + segment.count; s++) {
+				position += RECORD_HEADER + segment.buffer.getInt(position);
+			}
+			return true;
+		}
+	}
+
+	private final class Segment {
+
+		private final File file;
+
+		private final long baseSequence;
+
+		private final int capacity;
+
+		private final FileChannel channel;
+
+		private final MappedByteBuffer buffer;
+
+		private int writePosition;
+
+		/**
+		 * The number of (complete) records in this segment.
+		 */
+		private long count;
+
+		private Segment(final File file, final long baseSequence, final int capacity) throws IOException {
+			this.file = file;
+			this.baseSequence = baseSequence;
+			this.capacity = capacity;
+			this.channel = new RandomAccessFile(file, "rw").getChannel();
+			this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+		}
+
+		/**
+		 * Counts the complete records in a segment left behind by a previous run, stopping at the first
+		 * torn or corrupt one.
+		 */
+		private void scan() {
+
+			final CRC32 check = new CRC32();
+			int position = 0;
+			while (position + RECORD_HEADER <= capacity) {
+				final int length = buffer.getInt(position);
+				if (length <= 0 || position + RECORD_HEADER + length > capacity) {
+					break;
+				}
+				final byte[] payload = new byte[length];
+				final ByteBuffer slice = buffer.duplicate();
+				slice.position(position + RECORD_HEADER);
+				slice.get(payload);
+				check.reset();
+				check.update(payload, 0, length);
+				if ((int)check.getValue() != buffer.getInt(position + 4)) {
+					break;
+				}
+				position += RECORD_HEADER + length;
+				count++;
+			}
+			writePosition = position;
+		}
+
+		private void delete() {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// the file is going away regardless
+			}
+			if (!file.delete()) {
+				file.deleteOnExit();
+			}
+		}
+	}
+}
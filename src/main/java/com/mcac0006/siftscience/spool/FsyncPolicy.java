@@ -0,0 +1,29 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.spool;
+
+/**
+ * When an {@link EventSpool} forces what it has written out to the storage device. The stronger the
+ * guarantee, the lower the append throughput.
+ *
+ */
+public enum FsyncPolicy {
+
+	/**
+	 * Force after every append and every acknowledgement. Nothing which has been appended is lost,
+	 * even if the machine loses power.
+	 */
+	ALWAYS,
+
+	/**
+	 * Force in the background every {@link SpoolConfig#getFsyncIntervalMillis()}. A power loss may
+	 * cost the last interval's worth of appends (a process crash costs nothing, since the page cache survives).
+	 */
+	INTERVAL,
+
+	/**
+	 * Leave it to the operating system to write dirty pages back whenever it sees fit.
+	 */
+	NEVER;
+}
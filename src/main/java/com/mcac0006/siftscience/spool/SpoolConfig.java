@@ -0,0 +1,59 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.spool;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tunes an {@link EventSpool}.
+ *
+ */
+public class SpoolConfig {
+
+	/**
+	 * The size of each segment file (in bytes). Segments are memory-mapped in full, and deleted
+	 * as a whole once every event in them has been acknowledged.
+	 */
+	private int segmentSize = 64 * 1024 * 1024;
+
+	private FsyncPolicy fsyncPolicy = FsyncPolicy.INTERVAL;
+
+	/**
+	 * How often (in milliseconds) the spool is forced to disk under {@link FsyncPolicy#INTERVAL}.
+	 */
+	private long fsyncIntervalMillis = TimeUnit.SECONDS.toMillis(1);
+
+	public int getSegmentSize() {
+		return segmentSize;
+	}
+
+	public SpoolConfig setSegmentSize(int segmentSize) {
+		if (segmentSize < 1024) {
+			throw new IllegalArgumentException(String.format("Segment size must be at least 1KB, was [%d].", segmentSize));
+		}
+		this.segmentSize = segmentSize;
+		return this;
+	}
+
+	public FsyncPolicy getFsyncPolicy() {
+		return fsyncPolicy;
+	}
+
+	public SpoolConfig setFsyncPolicy(FsyncPolicy fsyncPolicy) {
+		this.fsyncPolicy = fsyncPolicy;
+		return this;
+	}
+
+	public long getFsyncIntervalMillis() {
+		return fsyncIntervalMillis;
+	}
+
+	public SpoolConfig setFsyncInterval(long duration, TimeUnit unit) {
+		if (duration <= 0) {
+			throw new IllegalArgumentException(String.format("Fsync interval must be positive, was [%d].", duration));
+		}
+		this.fsyncIntervalMillis = unit.toMillis(duration);
+		return this;
+	}
+}
@@ -0,0 +1,96 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.transport;
+
+/**
+ * Works out how many requests a client should have on the wire from how Sift Science responds, by
+ * additive increase / multiplicative decrease (as TCP does with its congestion window):
+ *
+ * <ul>
+ * <li>every response which comes back fine, while the limit is actually being used, adds
+ *     <code>1/limit</code> to it, i.e. the limit grows by one per round of requests;</li>
+ * <li>a sign of overload (Sift Science throttling or failing a request, a request failing outright, or a
+ *     response taking more than {@link AdaptiveLimitConfig#getLatencyTolerance()} times as long as the
+ *     fastest recent one) multiplies the limit by {@link AdaptiveLimitConfig#getBackoffRatio()}.</li>
+ * </ul>
+ *
+ * A burst of bad responses to requests which were all on the wire together only backs off once, as
+ * they tell of the same overload.
+ *
+ */
+public class AdaptiveLimit {
+
+	/**
+	 * How quickly the latency baseline creeps up towards slower responses, so that it follows Sift Science
+	 * becoming slower for good rather than holding on to a one-off fast response.
+	 */
+	private static final double BASELINE_DRIFT = 0.01;
+
+	private final int minLimit;
+
+	private final int maxLimit;
+
+	private final double backoffRatio;
+
+	private final double latencyTolerance;
+
+	private double limit;
+
+	/**
+	 * The latency (in nanoseconds) of the fastest recent response, or zero before the first one.
+	 */
+	private double baselineNanos;
+
+	private boolean backedOff;
+
+	/**
+	 * When (as per {@link System#nanoTime()}) the limit last backed off.
+	 */
+	private long backedOffAt;
+
+	public AdaptiveLimit(final AdaptiveLimitConfig config, final int maxLimit) {
+		this.maxLimit = maxLimit;
+		this.minLimit = Math.min(config.getMinLimit(), maxLimit);
+		this.backoffRatio = config.getBackoffRatio();
+		this.latencyTolerance = config.getLatencyTolerance();
+		this.limit = Math.max(minLimit, Math.min(maxLimit, config.getInitialLimit()));
+	}
+
+	/**
+	 * Takes a completed request into account.
+	 *
+	 * @param startNanos - when the request was sent, as per {@link System#nanoTime()}.
+	 * @param endNanos - when its response (or failure) came back.
+	 * @param inFlight - how many requests were on the wire alongside it.
+	 * @param overloaded - whether the request failed in a way that calls for sending less.
+	 * @return the new limit.
+	 */
+	public synchronized int onSample(final long startNanos, final long endNanos, final int inFlight, final boolean overloaded) {
+
+		final long latency = endNanos - startNanos;
+		final boolean slow = !overloaded && baselineNanos > 0 && latency > baselineNanos * latencyTolerance;
+		if (!overloaded) {
+			baselineNanos = baselineNanos == 0 || latency < baselineNanos ? latency : baselineNanos + (latency - baselineNanos) * BASELINE_DRIFT;
+		}
+
+		if (overloaded || slow) {
+			if (!backedOff || startNanos - backedOffAt > 0) { // sent after the last back-off, so news of a fresh overload
+				limit = Math.max(minLimit, limit * backoffRatio);
+				backedOff = true;
+				backedOffAt = endNanos;
+			}
+		} else if (inFlight * 2 >= limit) {
+			limit = Math.min(maxLimit, limit + 1 / limit);
+		}
+		return getLimit();
+	}
+
+	public synchronized int getLimit() {
+		return (int)limit;
+	}
+
+	public int getMaxLimit() {
+		return maxLimit;
+	}
+}
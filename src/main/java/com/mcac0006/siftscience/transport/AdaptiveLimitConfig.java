@@ -0,0 +1,80 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.transport;
+
+/**
+ * Tunes an {@link AdaptiveLimit}. The limit never goes above the client's <code>maxInFlight</code>.
+ *
+ */
+public class AdaptiveLimitConfig {
+
+	/**
+	 * The fewest requests the limit will allow on the wire, however overloaded Sift Science seems.
+	 */
+	private int minLimit = 1;
+
+	/**
+	 * Where the limit starts off before it has seen any responses.
+	 */
+	private int initialLimit = 4;
+
+	/**
+	 * What the limit is multiplied by when Sift Science seems overloaded.
+	 */
+	private double backoffRatio = 0.75;
+
+	/**
+	 * How many times slower than the fastest recent response a response may be before it counts as a
+	 * sign of overload (i.e. requests queueing up on Sift Science's side).
+	 */
+	private double latencyTolerance = 2.0;
+
+	public int getMinLimit() {
+		return minLimit;
+	}
+
+	public AdaptiveLimitConfig setMinLimit(int minLimit) {
+		if (minLimit < 1) {
+			throw new IllegalArgumentException(String.format("Minimum limit must be positive, was [%d].", minLimit));
+		}
+		this.minLimit = minLimit;
+		return this;
+	}
+
+	public int getInitialLimit() {
+		return initialLimit;
+	}
+
+	public AdaptiveLimitConfig setInitialLimit(int initialLimit) {
+		if (initialLimit < 1) {
+			throw new IllegalArgumentException(String.format("Initial limit must be positive, was [%d].", initialLimit));
+		}
+		this.initialLimit = initialLimit;
+		return this;
+	}
+
+	public double getBackoffRatio() {
+		return backoffRatio;
+	}
+
+	public AdaptiveLimitConfig setBackoffRatio(double backoffRatio) {
+		if (!(backoffRatio > 0 && backoffRatio < 1)) {
+			throw new IllegalArgumentException(String.format("Backoff ratio must lie between 0 and 1, was [%s].", backoffRatio));
+		}
+		this.backoffRatio = backoffRatio;
+		return this;
+	}
+
+	public double getLatencyTolerance() {
+		return latencyTolerance;
+	}
+
+	public AdaptiveLimitConfig setLatencyTolerance(double latencyTolerance) {
+		if (!(latencyTolerance > 1)) {
+			throw new IllegalArgumentException(String.format("Latency tolerance must be above 1, was [%s].", latencyTolerance));
+		}
+		this.latencyTolerance = latencyTolerance;
+		return this;
+	}
+}
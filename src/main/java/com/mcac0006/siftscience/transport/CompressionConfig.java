@@ -0,0 +1,49 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.transport;
+
+import java.util.zip.Deflater;
+
+/**
+ * Tunes the gzip compression of request bodies. Compression trades CPU for bandwidth, which pays off for
+ * large envelopes (a $create_order with many items, a $send_message with a full message body) but not for
+ * the typical few-hundred-byte $login, hence the threshold.
+ *
+ */
+public class CompressionConfig {
+
+	/**
+	 * Envelopes smaller than this (in bytes, once serialized) are sent as they are.
+	 */
+	private int thresholdBytes = 1024;
+
+	/**
+	 * The deflate level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}.
+	 */
+	private int level = Deflater.BEST_SPEED;
+
+	public int getThresholdBytes() {
+		return thresholdBytes;
+	}
+
+	public CompressionConfig setThresholdBytes(int thresholdBytes) {
+		if (thresholdBytes < 0) {
+			throw new IllegalArgumentException(String.format("Threshold must not be negative, was [%d].", thresholdBytes));
+		}
+		this.thresholdBytes = thresholdBytes;
+		return this;
+	}
+
+	public int getLevel() {
+		return level;
+	}
+
+	public CompressionConfig setLevel(int level) {
+		if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+			throw new IllegalArgumentException(String.format("Level must lie in [1, 9], was [%d].", level));
+		}
+		this.level = level;
+		return this;
+	}
+}
@@ -0,0 +1,99 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.transport;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tunes the keep-alive connection pool shared by every request sent through a {@link SiftTransport}.
+ *
+ * All requests go to the same host, so {@link #maxPerRoute} is effectively the number of
+ * concurrent connections to Sift Science; {@link #maxTotal} only matters if you point the
+ * transport at more than one host (e.g. a proxy).
+ *
+ */
+public class ConnectionPoolConfig {
+
+	/**
+	 * The maximum number of pooled connections across all routes.
+	 */
+	private int maxTotal = 50;
+
+	/**
+	 * The maximum number of pooled connections to a single host.
+	 */
+	private int maxPerRoute = 20;
+
+	/**
+	 * Connections which have been idle in the pool for longer than this (in milliseconds)
+	 * are closed by the background evictor.
+	 */
+	private long idleTimeoutMillis = TimeUnit.SECONDS.toMillis(30);
+
+	/**
+	 * How often (in milliseconds) the background evictor sweeps the pool for idle and expired connections.
+	 */
+	private long evictionIntervalMillis = TimeUnit.SECONDS.toMillis(5);
+
+	/**
+	 * A pooled connection which has been inactive for longer than this (in milliseconds) is
+	 * re-validated before being leased again, so that connections half-closed by the
+	 * server are not handed out.
+	 */
+	private int validateAfterInactivityMillis = 2000;
+
+	public int getMaxTotal() {
+		return maxTotal;
+	}
+
+	public ConnectionPoolConfig setMaxTotal(int maxTotal) {
+		if (maxTotal < 1) {
+			throw new IllegalArgumentException(String.format("maxTotal must be positive, was [%d].", maxTotal));
+		}
+		this.maxTotal = maxTotal;
+		return this;
+	}
+
+	public int getMaxPerRoute() {
+		return maxPerRoute;
+	}
+
+	public ConnectionPoolConfig setMaxPerRoute(int maxPerRoute) {
+		if (maxPerRoute < 1) {
+			throw new IllegalArgumentException(String.format("maxPerRoute must be positive, was [%d].", maxPerRoute));
+		}
+		this.maxPerRoute = maxPerRoute;
+		return this;
+	}
+
+	public long getIdleTimeoutMillis() {
+		return idleTimeoutMillis;
+	}
+
+	public ConnectionPoolConfig setIdleTimeout(long duration, TimeUnit unit) {
+		this.idleTimeoutMillis = unit.toMillis(duration);
+		return this;
+	}
+
+	public long getEvictionIntervalMillis() {
+		return evictionIntervalMillis;
+	}
+
+	public ConnectionPoolConfig setEvictionInterval(long duration, TimeUnit unit) {
+		if (duration <= 0) {
+			throw new IllegalArgumentException(String.format("Eviction interval must be positive, was [%d].", duration));
+		}
+		this.evictionIntervalMillis = unit.toMillis(duration);
+		return this;
+	}
+
+	public int getValidateAfterInactivityMillis() {
+		return validateAfterInactivityMillis;
+	}
+
+	public ConnectionPoolConfig setValidateAfterInactivityMillis(int validateAfterInactivityMillis) {
+		this.validateAfterInactivityMillis = validateAfterInactivityMillis;
+		return this;
+	}
+}
@@ -0,0 +1,53 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.transport;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time by which a call must have completed, however many requests (retries included) it takes.
+ * Hand the same deadline down to every call made on behalf of one piece of work (e.g. a checkout) so that
+ * together they never take longer than it allows.
+ *
+ * <pre><code>
+ * final Deadline deadline = Deadline.after(500, TimeUnit.MILLISECONDS);
+ * client.send(event, deadline);
+ * client.getScore(userId, deadline); // gets whatever time is left
+ * </code></pre>
+ *
+ */
+public final class Deadline {
+
+	private final long deadlineNanos;
+
+	private Deadline(final long deadlineNanos) {
+		this.deadlineNanos = deadlineNanos;
+	}
+
+	/**
+	 * @return a deadline the given time from now.
+	 */
+	public static Deadline after(final long duration, final TimeUnit unit) {
+		if (duration < 0) {
+			throw new IllegalArgumentException(String.format("Duration must not be negative, was [%d].", duration));
+		}
+		return new Deadline(System.nanoTime() + unit.toNanos(duration));
+	}
+
+	/**
+	 * @return the time left until the deadline, negative once it has passed.
+	 */
+	public long remaining(final TimeUnit unit) {
+		return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+	}
+
+	public boolean isExpired() {
+		return deadlineNanos - System.nanoTime() <= 0;
+	}
+
+	@Override
+	public String toString() {
+		return "Deadline[" + remaining(TimeUnit.MILLISECONDS) + "ms from now]";
+	}
+}
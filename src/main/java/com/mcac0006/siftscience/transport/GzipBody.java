@@ -0,0 +1,83 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.transport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * A request body gzipped as it is being sent, straight into the request, so that the compressed
+ * envelope is never held in memory as a whole.
+ *
+ * {@link java.util.zip.GZIPOutputStream} sets up a new {@link Deflater} (and its native memory) for every
+ * stream; here each sending thread keeps one and resets it between bodies.
+ *
+ */
+public class GzipBody implements StreamingOutput {
+
+	private static final byte[] HEADER = { 0x1f, (byte)0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte)0xff };
+
+	private static final ThreadLocal<Deflater> DEFLATERS = new ThreadLocal<Deflater>() {
+		@Override
+		protected Deflater initialValue() {
+			return new Deflater(Deflater.DEFAULT_COMPRESSION, true); // raw deflate; the gzip framing is written here
+		}
+	};
+
+	private static final ThreadLocal<byte[]> CHUNKS = new ThreadLocal<byte[]>() {
+		@Override
+		protected byte[] initialValue() {
+			return new byte[8192];
+		}
+	};
+
+	private final byte[] content;
+
+	private final int level;
+
+	/**
+	 * @param content - the body before compression.
+	 * @param level - the deflate level.
+	 */
+	public GzipBody(final byte[] content, final int level) {
+		this.content = content;
+		this.level = level;
+	}
+
+	@Override
+	public void write(final OutputStream out) throws IOException {
+
+		final Deflater deflater = DEFLATERS.get();
+		final byte[] chunk = CHUNKS.get();
+		deflater.reset();
+		deflater.setLevel(level);
+		deflater.setInput(content);
+		deflater.finish();
+
+		out.write(HEADER);
+		while (!deflater.finished()) {
+			final int n = deflater.deflate(chunk);
+			out.write(chunk, 0, n);
+		}
+
+		final CRC32 crc = new CRC32();
+		crc.update(content, 0, content.length);
+		writeInt(out, (int)crc.getValue());
+		writeInt(out, content.length);
+	}
+
+	/**
+	 * Writes an int little-endian, as gzip's trailer has it.
+	 */
+	private static void writeInt(final OutputStream out, final int value) throws IOException {
+		out.write(value & 0xff);
+		out.write((value >>> 8) & 0xff);
+		out.write((value >>> 16) & 0xff);
+		out.write((value >>> 24) & 0xff);
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.transport;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Caps the number of requests a client has on the wire at any one time. Requests submitted
+ * beyond the limit are parked (without blocking the submitting thread) and started, in
+ * submission order, as earlier requests complete.
+ *
+ * Every task started by the limiter <strong>must</strong> eventually call {@link #release()}
+ * exactly once, whether it succeeded or not.
+ *
+ * The limit may be moved while requests are in flight (see {@link AdaptiveLimit}): raising it starts
+ * parked tasks straight away, lowering it lets the requests in flight drain down to the new limit.
+ *
+ */
+public class InFlightLimiter {
+
+	private int limit;
+
+	private final Queue<Runnable> waiting = new ArrayDeque<Runnable>();
+
+	private int inFlight;
+
+	public InFlightLimiter(final int limit) {
+		if (limit < 1) {
+			throw new IllegalArgumentException(String.format("In-flight limit must be positive, was [%d].", limit));
+		}
+		this.limit = limit;
+	}
+
+	/**
+	 * Runs the task straight away on the calling thread if there is room, otherwise parks it until
+	 * a slot is {@link #release() released}.
+	 *
+	 * @param task - starts a request, and arranges for {@link #release()} to be called once it completes.
+	 */
+	public void submit(final Runnable task) {
+
+		synchronized (this) {
+			if (inFlight >= limit) {
+				waiting.add(task);
+				return;
+			}
+			inFlight++;
+		}
+		run(task);
+	}
+
+	/**
+	 * Frees up the slot held by a completed request, handing it over to the oldest parked task (if any).
+	 */
+	public void release() {
+
+		final Runnable next;
+		synchronized (this) {
+			next = inFlight > limit ? null : waiting.poll();
+			if (next == null) {
+				inFlight--;
+				return;
+			}
+		}
+		run(next); // the slot passes on to the parked task as-is
+	}
+
+	/**
+	 * Moves the limit, starting as many parked tasks as the new limit makes room for.
+	 */
+	public void setLimit(final int limit) {
+
+		if (limit < 1) {
+			throw new IllegalArgumentException(String.format("In-flight limit must be positive, was [%d].", limit));
+		}
+		final List<Runnable> started = new ArrayList<Runnable>();
+		synchronized (this) {
+			this.limit = limit;
+			while (inFlight < limit && !waiting.isEmpty()) {
+				started.add(waiting.poll());
+				inFlight++;
+			}
+		}
+		for (final Runnable task : started) {
+			run(task);
+		}
+	}
+
+	private void run(final Runnable task) {
+		try {
+			task.run();
+		} catch (RuntimeException e) {
+			release(); // the task never got as far as arranging its own release
+			throw e;
+		}
+	}
+
+	public synchronized int getLimit() {
+		return limit;
+	}
+
+	public synchronized int getInFlight() {
+		return inFlight;
+	}
+
+	public synchronized int getWaiting() {
+		return waiting.size();
+	}
+}
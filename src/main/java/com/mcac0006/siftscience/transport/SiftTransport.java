@@ -0,0 +1,120 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.transport;
+
+import java.io.Closeable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+
+/**
+ * A long-lived Jersey {@link Client} backed by a keep-alive connection pool.
+ *
+ * Building a client per request costs a TCP connect and a TLS handshake every time (and leaks the
+ * client unless it is closed). A transport is meant to be created once and shared by every
+ * event, label and score request; connections are returned to the pool after each response
+ * has been read and reused by the next request.
+ *
+ * <strong>Always {@link #close()} a transport you no longer need</strong> - this closes all pooled
+ * connections and stops the idle connection evictor.
+ *
+ */
+public class SiftTransport implements Closeable {
+
+	private final PoolingHttpClientConnectionManager connectionManager;
+
+	private final Client client;
+
+	private final ScheduledExecutorService evictor;
+
+	private final int maxPerRoute;
+
+	public SiftTransport() {
+		this(new ConnectionPoolConfig());
+	}
+
+	public SiftTransport(final ConnectionPoolConfig poolConfig) {
+
+		connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(poolConfig.getMaxTotal());
+		connectionManager.setDefaultMaxPerRoute(poolConfig.getMaxPerRoute());
+		connectionManager.setValidateAfterInactivity(poolConfig.getValidateAfterInactivityMillis());
+		maxPerRoute = poolConfig.getMaxPerRoute();
+
+		final ClientConfig clientConfig = new ClientConfig();
+		clientConfig.connectorProvider(new ApacheConnectorProvider());
+		clientConfig.property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager);
+		clientConfig.property(ApacheClientProperties.CONNECTION_MANAGER_SHARED, false);
+		// the Apache connector is blocking, so asynchronous requests each occupy a worker thread until their
+		// response arrives; there is no point in having more workers than there are connections to lease.
+		clientConfig.property(ClientProperties.ASYNC_THREADPOOL_SIZE, poolConfig.getMaxTotal());
+		client = ClientBuilder.newClient(clientConfig);
+
+		final long idleTimeout = poolConfig.getIdleTimeoutMillis();
+		evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread t = new Thread(r, "sift-connection-evictor");
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		evictor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				connectionManager.closeExpiredConnections();
+				connectionManager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+			}
+		}, poolConfig.getEvictionIntervalMillis(), poolConfig.getEvictionIntervalMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @param uri the endpoint to target.
+	 * @return a target on the shared, pooled client.
+	 */
+	public WebTarget target(final String uri) {
+		return client.target(uri);
+	}
+
+	/**
+	 * @return the maximum number of concurrent connections to a single host.
+	 */
+	public int getMaxPerRoute() {
+		return maxPerRoute;
+	}
+
+	/**
+	 * @return the number of connections currently leased out to in-flight requests.
+	 */
+	public int getLeasedConnections() {
+		return connectionManager.getTotalStats().getLeased();
+	}
+
+	/**
+	 * @return the number of idle keep-alive connections sitting in the pool.
+	 */
+	public int getAvailableConnections() {
+		return connectionManager.getTotalStats().getAvailable();
+	}
+
+	/**
+	 * Closes the underlying client along with all its pooled connections.
+	 */
+	@Override
+	public void close() {
+		evictor.shutdownNow();
+		client.close();
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.transport;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces requests to a steady rate. The bucket holds up to <code>burst</code> permits and refills at
+ * <code>permitsPerSecond</code>; taking a permit from an empty bucket waits for the next one to drip in.
+ *
+ * Waiting callers reserve their permit up front, so they are served in the order they arrived and the
+ * long-run rate never exceeds <code>permitsPerSecond</code>, however many threads are asking.
+ *
+ */
+public class TokenBucket {
+
+	private final double permitsPerSecond;
+
+	private final double nanosPerPermit;
+
+	private final double burst;
+
+	/**
+	 * Permits currently in the bucket; negative when callers have reserved permits yet to drip in.
+	 */
+	private double permits;
+
+	private long refilledAt;
+
+	public TokenBucket(final double permitsPerSecond, final int burst) {
+		if (!(permitsPerSecond > 0)) {
+			throw new IllegalArgumentException(String.format("Rate must be positive, was [%s].", permitsPerSecond));
+		}
+		if (burst < 1) {
+			throw new IllegalArgumentException(String.format("Burst must be positive, was [%d].", burst));
+		}
+		this.permitsPerSecond = permitsPerSecond;
+		this.nanosPerPermit = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+		this.burst = burst;
+		this.permits = burst;
+		this.refilledAt = System.nanoTime();
+	}
+
+	/**
+	 * Takes a permit, waiting for one to become available if need be.
+	 */
+	public void acquire() throws InterruptedException {
+		final long wait = reserve();
+		if (wait > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+	}
+
+	/**
+	 * Takes a permit only if one is available right now.
+	 *
+	 * @return whether a permit was taken.
+	 */
+	public synchronized boolean tryAcquire() {
+		refill(System.nanoTime());
+		if (permits < 1) {
+			return false;
+		}
+		permits--;
+		return true;
+	}
+
+	/**
+	 * Takes a permit, possibly one which has yet to drip in, without waiting for it. This lets
+	 * asynchronous callers schedule their work for later rather than block a thread.
+	 *
+	 * @return how long (in nanoseconds) to wait before the permit may be used.
+	 */
+	public synchronized long reserve() {
+		final long now = System.nanoTime();
+		refill(now);
+		permits--;
+		return permits >= 0 ? 0 : (long)(-permits * nanosPerPermit);
+	}
+
+	private void refill(final long now) {
+		permits = Math.min(burst, permits + (now - refilledAt) / nanosPerPermit);
+		refilledAt = now;
+	}
+
+	public double getPermitsPerSecond() {
+		return permitsPerSecond;
+	}
+}
@@ -5,6 +5,8 @@ package com.mcac0006.siftscience.types;
 
 import org.codehaus.jackson.annotate.JsonProperty;
 
+import com.mcac0006.siftscience.pool.Resettable;
+
 /**
  * This represents a physical address, such as a billing or shipping address. 
  * Sift Science extracts many geolocation features from these values.
@@ -12,7 +14,7 @@ import org.codehaus.jackson.annotate.JsonProperty;
  * @author <a href="mailto:matthew.cachia@gmail.com">Matthew Cachia</a>
  *
  */
-public class Address {
+public class Address implements Resettable {
 
 	@JsonProperty("$name")
 	private String name;
@@ -126,6 +128,21 @@ public class Address {
 		return this;
 	}
 
+    /**
+     * Clears every field, so that the instance can be reused.
+     */
+    @Override
+    public void reset() {
+        name = null;
+        addressLine1 = null;
+        addressLine2 = null;
+        city = null;
+        region = null;
+        country = null;
+        zipCode = null;
+        phone = null;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
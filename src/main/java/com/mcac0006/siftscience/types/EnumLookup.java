@@ -0,0 +1,55 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.types;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolves the constants of a {@link SiftScienceEnum} from their Sift Science values through a map built
+ * once per enum, rather than by scanning the constants (some enums, such as {@link PaymentGateway}, have
+ * around a hundred of them) every time.
+ *
+ */
+public final class EnumLookup<E extends Enum<E> & SiftScienceEnum> {
+
+	private final Map<String, E> constants;
+
+	private final String description;
+
+	/**
+	 * @param type - the enum to index.
+	 * @param description - how the enum is referred to in error messages, e.g. "Payment Gateway".
+	 */
+	public EnumLookup(final Class<E> type, final String description) {
+
+		final E[] values = type.getEnumConstants();
+		this.constants = new HashMap<String, E>(values.length * 2);
+		for (final E value : values) {
+			constants.put(value.getSiftScienceValue(), value);
+		}
+		this.description = description;
+	}
+
+	/**
+	 * @return the constant for the given Sift Science value.
+	 * @throws IllegalArgumentException if no constant has that value.
+	 */
+	public E resolve(final String siftScienceValue) {
+
+		final E value = lookup(siftScienceValue);
+		if (value == null) {
+			throw new IllegalArgumentException(String.format("%s [%s] is not supported by this enum.", description, siftScienceValue));
+		}
+		return value;
+	}
+
+	/**
+	 * @return the constant for the given Sift Science value, or <code>null</code> if there is none (e.g. a
+	 *         value Sift Science introduced after this library was released).
+	 */
+	public E lookup(final String siftScienceValue) {
+		return siftScienceValue == null ? null : constants.get(siftScienceValue);
+	}
+}
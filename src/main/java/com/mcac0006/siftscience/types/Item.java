@@ -9,6 +9,7 @@ import org.codehaus.jackson.annotate.JsonProperty;
 
 import com.mcac0006.siftscience.event.domain.AddItemToCart;
 import com.mcac0006.siftscience.event.domain.RemoveItemFromCart;
+import com.mcac0006.siftscience.pool.Resettable;
 
 /**
  * 
@@ -18,7 +19,7 @@ import com.mcac0006.siftscience.event.domain.RemoveItemFromCart;
  * @author <a href="mailto:matthew.cachia@gmail.com">Matthew Cachia</a>
  *
  */
-public class Item {
+public class Item implements Resettable {
 
 	@JsonProperty("$item_id")
 	private String itemId;
@@ -226,6 +227,27 @@ public class Item {
 		return this;
 	}
 
+    /**
+     * Clears every field, so that the instance can be reused.
+     */
+    @Override
+    public void reset() {
+        itemId = null;
+        productTitle = null;
+        price = null;
+        currency = null;
+        quantity = null;
+        upc = null;
+        sku = null;
+        isbn = null;
+        brand = null;
+        manufacturer = null;
+        category = null;
+        tags = null;
+        color = null;
+        size = null;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
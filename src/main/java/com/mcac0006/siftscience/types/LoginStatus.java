@@ -15,29 +15,33 @@ import com.mcac0006.siftscience.types.deserializer.LoginStatusDeserializer;
  *
  */
 @JsonDeserialize(using=LoginStatusDeserializer.class)
-public enum LoginStatus {
+public enum LoginStatus implements SiftScienceEnum {
 	
 	SUCCESS ("$success"),
 	FAILURE("$failure");
 	
 	private String siftScienceValue;
 
+	private static final EnumLookup<LoginStatus> LOOKUP = new EnumLookup<LoginStatus>(LoginStatus.class, "Login Status");
+
 	private LoginStatus(String siftScienceValue) {
 		this.siftScienceValue = siftScienceValue;
 	}
 	
 	@JsonValue
+	@Override
 	public String getSiftScienceValue() {
 		return siftScienceValue;
 	}
 	
 	public static LoginStatus resolve(final String siftScienceValue) {
-		
-		for (LoginStatus ele : LoginStatus.values()) {
-			if (ele.getSiftScienceValue().equals(siftScienceValue))
-				return ele;
-		}
-		
-		throw new IllegalArgumentException(String.format("Login Status [%s] is not supported by this enum.", siftScienceValue));
+		return LOOKUP.resolve(siftScienceValue);
+	}
+
+	/**
+	 * Like {@link #resolve(String)}, but returns <code>null</code> for an unknown value rather than throwing.
+	 */
+	public static LoginStatus lookup(final String siftScienceValue) {
+		return LOOKUP.lookup(siftScienceValue);
 	}
 };
\ No newline at end of file
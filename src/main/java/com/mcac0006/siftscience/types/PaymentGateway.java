@@ -12,7 +12,7 @@ import com.mcac0006.siftscience.types.deserializer.PaymentGatewayDeserializer;
  *
  */
 @JsonDeserialize(using=PaymentGatewayDeserializer.class)
-public enum PaymentGateway {
+public enum PaymentGateway implements SiftScienceEnum {
 		STRIPE("$stripe"),
 		BRAINTREE("$braintree"),
 		PAYPAL("$paypal"),
@@ -136,22 +136,26 @@ public enum PaymentGateway {
 		
 		private String siftScienceValue;
 
+		private static final EnumLookup<PaymentGateway> LOOKUP = new EnumLookup<PaymentGateway>(PaymentGateway.class, "Payment Gateway");
+
 		private PaymentGateway(String siftScienceValue) {
 			this.siftScienceValue = siftScienceValue;
 		}
 		
 		@JsonValue
+		@Override
 		public String getSiftScienceValue() {
 			return siftScienceValue;
 		}
 		
 		public static PaymentGateway resolve(final String siftScienceValue) {
-			
-			for (PaymentGateway ele : PaymentGateway.values()) {
-				if (ele.getSiftScienceValue().equals(siftScienceValue))
-					return ele;
-			}
-			
-			throw new IllegalArgumentException(String.format("Payment Gateway [%s] is not supported by this enum.", siftScienceValue));
+			return LOOKUP.resolve(siftScienceValue);
+		}
+
+		/**
+		 * Like {@link #resolve(String)}, but returns <code>null</code> for an unknown value rather than throwing.
+		 */
+		public static PaymentGateway lookup(final String siftScienceValue) {
+			return LOOKUP.lookup(siftScienceValue);
 		}
 	}
\ No newline at end of file
@@ -3,10 +3,12 @@
  */
 package com.mcac0006.siftscience.types;
 
+import org.codehaus.jackson.annotate.JsonIgnore;
 import org.codehaus.jackson.annotate.JsonProperty;
 
 import com.mcac0006.siftscience.event.domain.CreateOrder;
 import com.mcac0006.siftscience.event.domain.Transaction;
+import com.mcac0006.siftscience.pool.Resettable;
 
 
 /**
@@ -16,7 +18,7 @@ import com.mcac0006.siftscience.event.domain.Transaction;
  * @author <a href="mailto:matthew.cachia@gmail.com">Matthew Cachia</a>
  *
  */
-public class PaymentMethod {
+public class PaymentMethod implements Resettable {
 
 	@JsonProperty("$payment_type")
 	private PaymentType paymentType;
@@ -79,10 +81,16 @@ public class PaymentMethod {
 		return cardLast4;
 	}
 
+	/*
+	 * Jackson would otherwise take these two getters for extra properties ("avsresultCode" and "cvvresultCode")
+	 * rather than the fields above; they are already serialized through the fields.
+	 */
+	@JsonIgnore
 	public String getAVSResultCode() {
 		return aVSResultCode;
 	}
 
+	@JsonIgnore
 	public String getCVVResultCode() {
 		return cVVResultCode;
 	}
@@ -135,6 +143,21 @@ public class PaymentMethod {
 		return this;
 	}
 
+    /**
+     * Clears every field, so that the instance can be reused.
+     */
+    @Override
+    public void reset() {
+        paymentType = null;
+        paymentGateway = null;
+        cardBIN = null;
+        cardLast4 = null;
+        aVSResultCode = null;
+        cVVResultCode = null;
+        verificationStatus = null;
+        routingNumber = null;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
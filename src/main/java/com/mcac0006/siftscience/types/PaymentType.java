@@ -14,7 +14,7 @@ import com.mcac0006.siftscience.types.deserializer.PaymentTypeDeserializer;
  *
  */
 @JsonDeserialize(using=PaymentTypeDeserializer.class)
-public enum PaymentType {
+public enum PaymentType implements SiftScienceEnum {
 	
 	CREDIT_CARD("$credit_card"),
 	ELECTRONIC_FUND_TRANSFER("$electronic_fund_transfer"),
@@ -28,23 +28,27 @@ public enum PaymentType {
 	
 	private String siftScienceValue;
 
+	private static final EnumLookup<PaymentType> LOOKUP = new EnumLookup<PaymentType>(PaymentType.class, "Payment Type");
+
 	private PaymentType(String siftScienceValue) {
 		this.siftScienceValue = siftScienceValue;
 	}
 	
 	@JsonValue
+	@Override
 	public String getSiftScienceValue() {
 		return siftScienceValue;
 	}
 	
 	public static PaymentType resolve(final String siftScienceValue) {
-		
-		for (PaymentType ele : PaymentType.values()) {
-			if (ele.getSiftScienceValue().equals(siftScienceValue))
-				return ele;
-		}
-		
-		throw new IllegalArgumentException(String.format("Payment Type [%s] is not supported by this enum.", siftScienceValue));
+		return LOOKUP.resolve(siftScienceValue);
+	}
+
+	/**
+	 * Like {@link #resolve(String)}, but returns <code>null</code> for an unknown value rather than throwing.
+	 */
+	public static PaymentType lookup(final String siftScienceValue) {
+		return LOOKUP.lookup(siftScienceValue);
 	}
 	
 }
\ No newline at end of file
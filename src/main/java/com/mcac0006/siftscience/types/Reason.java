@@ -12,7 +12,7 @@ import com.mcac0006.siftscience.types.deserializer.ReasonDeserializer;
  *
  */
 @JsonDeserialize(using=ReasonDeserializer.class)
-public enum Reason {
+public enum Reason implements SiftScienceEnum {
 	
 	/**
 	 * Chargeback received for this user.
@@ -41,22 +41,26 @@ public enum Reason {
 	
 	private String siftScienceValue;
 
+	private static final EnumLookup<Reason> LOOKUP = new EnumLookup<Reason>(Reason.class, "Reason");
+
 	private Reason(String siftScienceValue) {
 		this.siftScienceValue = siftScienceValue;
 	}
 	
 	@JsonValue
+	@Override
 	public String getSiftScienceValue() {
 		return siftScienceValue;
 	}
 	
 	public static Reason resolve(final String siftScienceValue) {
-		
-		for (Reason ele : Reason.values()) {
-			if (ele.getSiftScienceValue().equals(siftScienceValue))
-				return ele;
-		}
-		
-		throw new IllegalArgumentException(String.format("Reason [%s] is not supported by this enum.", siftScienceValue));
+		return LOOKUP.resolve(siftScienceValue);
+	}
+
+	/**
+	 * Like {@link #resolve(String)}, but returns <code>null</code> for an unknown value rather than throwing.
+	 */
+	public static Reason lookup(final String siftScienceValue) {
+		return LOOKUP.lookup(siftScienceValue);
 	}
 };
\ No newline at end of file
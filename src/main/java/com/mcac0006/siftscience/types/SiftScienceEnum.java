@@ -0,0 +1,16 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.types;
+
+/**
+ * An enum whose constants are sent to (and received from) Sift Science as a reserved <code>$value</code>.
+ *
+ */
+public interface SiftScienceEnum {
+
+	/**
+	 * @return the value Sift Science knows this constant by, e.g. <code>$credit_card</code>.
+	 */
+	String getSiftScienceValue();
+}
@@ -13,7 +13,7 @@ import com.mcac0006.siftscience.types.deserializer.SocialSignOnTypeDeserializer;
  *
  */
 @JsonDeserialize(using=SocialSignOnTypeDeserializer.class)
-public enum SocialSignOnType {
+public enum SocialSignOnType implements SiftScienceEnum {
 	
 	FACEBOOK("$facebook"),
 	GOOGLE("$google"),
@@ -23,23 +23,27 @@ public enum SocialSignOnType {
 	
 	private String siftScienceValue;
 
+	private static final EnumLookup<SocialSignOnType> LOOKUP = new EnumLookup<SocialSignOnType>(SocialSignOnType.class, "Social Sign-on Type");
+
 	private SocialSignOnType(String siftScienceValue) {
 		this.siftScienceValue = siftScienceValue;
 	}
 	
 	@JsonValue
+	@Override
 	public String getSiftScienceValue() {
 		return siftScienceValue;
 	}
 	
 	public static SocialSignOnType resolve(final String siftScienceValue) {
-		
-		for (SocialSignOnType ele : SocialSignOnType.values()) {
-			if (ele.getSiftScienceValue().equals(siftScienceValue))
-				return ele;
-		}
-		
-		throw new IllegalArgumentException(String.format("Social Sign-on Type [%s] is not supported by this enum.", siftScienceValue));
+		return LOOKUP.resolve(siftScienceValue);
+	}
+
+	/**
+	 * Like {@link #resolve(String)}, but returns <code>null</code> for an unknown value rather than throwing.
+	 */
+	public static SocialSignOnType lookup(final String siftScienceValue) {
+		return LOOKUP.lookup(siftScienceValue);
 	}
 	
 }
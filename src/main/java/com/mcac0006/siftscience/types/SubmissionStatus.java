@@ -14,7 +14,7 @@ import com.mcac0006.siftscience.types.deserializer.SubmissionStatusDeserializer;
  *
  */
 @JsonDeserialize(using=SubmissionStatusDeserializer.class)
-public enum SubmissionStatus {
+public enum SubmissionStatus implements SiftScienceEnum {
 
 	SUCCESS("$success"),
 	FAILURE("$failure"),
@@ -22,22 +22,26 @@ public enum SubmissionStatus {
 	
 	private String siftScienceValue;
 
+	private static final EnumLookup<SubmissionStatus> LOOKUP = new EnumLookup<SubmissionStatus>(SubmissionStatus.class, "Submission status");
+
 	private SubmissionStatus(String siftScienceValue) {
 		this.siftScienceValue = siftScienceValue;
 	}
 	
 	@JsonValue
+	@Override
 	public String getSiftScienceValue() {
 		return siftScienceValue;
 	}
 	
 	public static SubmissionStatus resolve(final String siftScienceValue) {
-		
-		for (SubmissionStatus ele : SubmissionStatus.values()) {
-			if (ele.getSiftScienceValue().equals(siftScienceValue))
-				return ele;
-		}
-		
-		throw new IllegalArgumentException(String.format("Submission status [%s] is not supported by this enum.", siftScienceValue));
+		return LOOKUP.resolve(siftScienceValue);
+	}
+
+	/**
+	 * Like {@link #resolve(String)}, but returns <code>null</code> for an unknown value rather than throwing.
+	 */
+	public static SubmissionStatus lookup(final String siftScienceValue) {
+		return LOOKUP.lookup(siftScienceValue);
 	}
 }
\ No newline at end of file
@@ -16,30 +16,34 @@ import com.mcac0006.siftscience.types.deserializer.TransactionStatusDeserializer
  *
  */
 @JsonDeserialize(using=TransactionStatusDeserializer.class)
-public enum TransactionStatus {
+public enum TransactionStatus implements SiftScienceEnum {
 	
 	PENDING ("$pending"),
 	SUCCESS ("$success"),
 	FAILURE("$failure");
 	
 	private String siftScienceValue;
+
+	private static final EnumLookup<TransactionStatus> LOOKUP = new EnumLookup<TransactionStatus>(TransactionStatus.class, "Transaction Status");
 	
 	TransactionStatus(final String siftScienceValue) {
 		this.siftScienceValue=siftScienceValue;
 	}
 	
 	@JsonValue
+	@Override
 	public String getSiftScienceValue() {
 		return siftScienceValue;
 	}
 	
 	public static TransactionStatus resolve(final String siftScienceValue) {
-		
-		for (TransactionStatus ele : TransactionStatus.values()) {
-			if (ele.getSiftScienceValue().equals(siftScienceValue))
-				return ele;
-		}
-		
-		throw new IllegalArgumentException(String.format("Transaction Status [%s] is not supported by this enum.", siftScienceValue));
+		return LOOKUP.resolve(siftScienceValue);
+	}
+
+	/**
+	 * Like {@link #resolve(String)}, but returns <code>null</code> for an unknown value rather than throwing.
+	 */
+	public static TransactionStatus lookup(final String siftScienceValue) {
+		return LOOKUP.lookup(siftScienceValue);
 	}
 };
\ No newline at end of file
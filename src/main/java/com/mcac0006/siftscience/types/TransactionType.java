@@ -14,7 +14,7 @@ import com.mcac0006.siftscience.types.deserializer.TransactionTypeDeserializer;
  *
  */
 @JsonDeserialize(using=TransactionTypeDeserializer.class)
-public enum TransactionType {
+public enum TransactionType implements SiftScienceEnum {
 
 	SALE,
 	AUTHORIZE,
@@ -25,18 +25,22 @@ public enum TransactionType {
 	WITHDRAWAL,
 	TRANSFER;
 
+	private static final EnumLookup<TransactionType> LOOKUP = new EnumLookup<TransactionType>(TransactionType.class, "Transaction Type");
+
 	@JsonValue
+	@Override
 	public String getSiftScienceValue() {
 		return "$" + name().toLowerCase();
 	}
 	
 	public static TransactionType resolve(final String siftScienceValue) {
-		
-		for (TransactionType type : TransactionType.values()) {
-			if (type.getSiftScienceValue().equals(siftScienceValue))
-				return type;
-		}
-		
-		throw new IllegalArgumentException(String.format("Transaction Type [%s] is not supported by this enum.", siftScienceValue));
+		return LOOKUP.resolve(siftScienceValue);
+	}
+
+	/**
+	 * Like {@link #resolve(String)}, but returns <code>null</code> for an unknown value rather than throwing.
+	 */
+	public static TransactionType lookup(final String siftScienceValue) {
+		return LOOKUP.lookup(siftScienceValue);
 	}
 }
\ No newline at end of file
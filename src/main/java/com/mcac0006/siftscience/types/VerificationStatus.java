@@ -12,29 +12,33 @@ import com.mcac0006.siftscience.types.deserializer.VerificationStatusDeserialize
  *
  */
 @JsonDeserialize(using=VerificationStatusDeserializer.class)
-public enum VerificationStatus {
+public enum VerificationStatus implements SiftScienceEnum {
 	SUCCESS("$success"),
 	FAILURE("$failure"),
 	PENDING("$pending");
 	
 	private String siftScienceValue;
 
+	private static final EnumLookup<VerificationStatus> LOOKUP = new EnumLookup<VerificationStatus>(VerificationStatus.class, "Verification status");
+
 	private VerificationStatus(String siftScienceValue) {
 		this.siftScienceValue = siftScienceValue;
 	}
 	
 	@JsonValue
+	@Override
 	public String getSiftScienceValue() {
 		return siftScienceValue;
 	}
 	
 	public static VerificationStatus resolve(final String siftScienceValue) {
-		
-		for (VerificationStatus ele : VerificationStatus.values()) {
-			if (ele.getSiftScienceValue().equals(siftScienceValue))
-				return ele;
-		}
-		
-		throw new IllegalArgumentException(String.format("Verification status [%s] is not supported by this enum.", siftScienceValue));
+		return LOOKUP.resolve(siftScienceValue);
+	}
+
+	/**
+	 * Like {@link #resolve(String)}, but returns <code>null</code> for an unknown value rather than throwing.
+	 */
+	public static VerificationStatus lookup(final String siftScienceValue) {
+		return LOOKUP.lookup(siftScienceValue);
 	}
 }
\ No newline at end of file
@@ -3,31 +3,21 @@
  */
 package com.mcac0006.siftscience.types.deserializer;
 
-import java.io.IOException;
-
-import org.codehaus.jackson.JsonNode;
-import org.codehaus.jackson.JsonParser;
-import org.codehaus.jackson.ObjectCodec;
-import org.codehaus.jackson.map.DeserializationContext;
-import org.codehaus.jackson.map.JsonDeserializer;
-
 import com.mcac0006.siftscience.types.LoginStatus;
 
 /**
  * @author <a href="mailto:matthew.cachia@gmail.com">Matthew Cachia</a>
  *
  */
-public class LoginStatusDeserializer extends JsonDeserializer<LoginStatus> {
+public class LoginStatusDeserializer extends SiftScienceEnumDeserializer<LoginStatus> {
 
-	/* (non-Javadoc)
-	 * @see org.codehaus.jackson.map.JsonDeserializer#deserialize(org.codehaus.jackson.JsonParser, org.codehaus.jackson.map.DeserializationContext)
-	 */
 	@Override
-	public LoginStatus deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
-		
-		ObjectCodec oc = jp.getCodec();
-        JsonNode node = oc.readTree(jp);
-		return LoginStatus.resolve(node.getTextValue());
+	protected LoginStatus resolve(final String siftScienceValue) {
+		return LoginStatus.resolve(siftScienceValue);
 	}
 
+	@Override
+	protected LoginStatus lookup(final String siftScienceValue) {
+		return LoginStatus.lookup(siftScienceValue);
+	}
 }
@@ -3,31 +3,21 @@
  */
 package com.mcac0006.siftscience.types.deserializer;
 
-import java.io.IOException;
-
-import org.codehaus.jackson.JsonNode;
-import org.codehaus.jackson.JsonParser;
-import org.codehaus.jackson.ObjectCodec;
-import org.codehaus.jackson.map.DeserializationContext;
-import org.codehaus.jackson.map.JsonDeserializer;
-
 import com.mcac0006.siftscience.types.PaymentGateway;
 
 /**
  * @author <a href="mailto:matthew.cachia@gmail.com">Matthew Cachia</a>
  *
  */
-public class PaymentGatewayDeserializer extends JsonDeserializer<PaymentGateway> {
+public class PaymentGatewayDeserializer extends SiftScienceEnumDeserializer<PaymentGateway> {
 
-	/* (non-Javadoc)
-	 * @see org.codehaus.jackson.map.JsonDeserializer#deserialize(org.codehaus.jackson.JsonParser, org.codehaus.jackson.map.DeserializationContext)
-	 */
 	@Override
-	public PaymentGateway deserialize(final JsonParser jp, final DeserializationContext ctxt) throws IOException {
-		
-		ObjectCodec oc = jp.getCodec();
-        JsonNode node = oc.readTree(jp);
-		return PaymentGateway.resolve(node.getTextValue());
+	protected PaymentGateway resolve(final String siftScienceValue) {
+		return PaymentGateway.resolve(siftScienceValue);
 	}
 
+	@Override
+	protected PaymentGateway lookup(final String siftScienceValue) {
+		return PaymentGateway.lookup(siftScienceValue);
+	}
 }
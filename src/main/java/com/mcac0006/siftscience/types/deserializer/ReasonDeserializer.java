@@ -3,31 +3,21 @@
  */
 package com.mcac0006.siftscience.types.deserializer;
 
-import java.io.IOException;
-
-import org.codehaus.jackson.JsonNode;
-import org.codehaus.jackson.JsonParser;
-import org.codehaus.jackson.ObjectCodec;
-import org.codehaus.jackson.map.DeserializationContext;
-import org.codehaus.jackson.map.JsonDeserializer;
-
 import com.mcac0006.siftscience.types.Reason;
 
 /**
  * @author <a href="mailto:matthew.cachia@gmail.com">Matthew Cachia</a>
  *
  */
-public class ReasonDeserializer extends JsonDeserializer<Reason> {
+public class ReasonDeserializer extends SiftScienceEnumDeserializer<Reason> {
 
-	/* (non-Javadoc)
-	 * @see org.codehaus.jackson.map.JsonDeserializer#deserialize(org.codehaus.jackson.JsonParser, org.codehaus.jackson.map.DeserializationContext)
-	 */
 	@Override
-	public Reason deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
-		
-		ObjectCodec oc = jp.getCodec();
-        JsonNode node = oc.readTree(jp);
-		return Reason.resolve(node.getTextValue());
+	protected Reason resolve(final String siftScienceValue) {
+		return Reason.resolve(siftScienceValue);
 	}
 
+	@Override
+	protected Reason lookup(final String siftScienceValue) {
+		return Reason.lookup(siftScienceValue);
+	}
 }
@@ -0,0 +1,53 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.types.deserializer;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.codehaus.jackson.map.DeserializationContext;
+import org.codehaus.jackson.map.JsonDeserializer;
+
+import com.mcac0006.siftscience.types.SiftScienceEnum;
+
+/**
+ * Reads a {@link SiftScienceEnum} straight off the parser's current token, without building a tree.
+ *
+ * Values this library does not know about fail deserialization with an {@link IllegalArgumentException},
+ * unless the mapper is lenient - i.e. has {@link DeserializationConfig.Feature#FAIL_ON_UNKNOWN_PROPERTIES}
+ * disabled - in which case they are read as <code>null</code>. A lenient mapper keeps working when Sift
+ * Science introduces a new reason or payment gateway before this library catches up.
+ *
+ */
+public abstract class SiftScienceEnumDeserializer<E extends Enum<E> & SiftScienceEnum> extends JsonDeserializer<E> {
+
+	@Override
+	public E deserialize(final JsonParser jp, final DeserializationContext ctxt) throws IOException {
+
+		final String value;
+		if (jp.getCurrentToken() == JsonToken.VALUE_STRING) {
+			value = jp.getText();
+		} else {
+			jp.skipChildren(); // not a value any constant could have
+			value = null;
+		}
+
+		if (ctxt.isEnabled(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES)) {
+			return resolve(value);
+		}
+		return lookup(value);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if no constant has the given value.
+	 */
+	protected abstract E resolve(String siftScienceValue);
+
+	/**
+	 * @return the constant with the given value, or <code>null</code> if there is none.
+	 */
+	protected abstract E lookup(String siftScienceValue);
+}
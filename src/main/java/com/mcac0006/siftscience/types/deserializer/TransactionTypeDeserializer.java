@@ -3,32 +3,21 @@
  */
 package com.mcac0006.siftscience.types.deserializer;
 
-import java.io.IOException;
-
-import org.codehaus.jackson.JsonNode;
-import org.codehaus.jackson.JsonParser;
-import org.codehaus.jackson.ObjectCodec;
-import org.codehaus.jackson.map.DeserializationContext;
-import org.codehaus.jackson.map.JsonDeserializer;
-
 import com.mcac0006.siftscience.types.TransactionType;
 
 /**
  * @author <a href="mailto:matthew.cachia@gmail.com">Matthew Cachia</a>
  *
  */
-public class TransactionTypeDeserializer extends JsonDeserializer<TransactionType> {
+public class TransactionTypeDeserializer extends SiftScienceEnumDeserializer<TransactionType> {
 
-	/* (non-Javadoc)
-	 * @see org.codehaus.jackson.map.JsonDeserializer#deserialize(org.codehaus.jackson.JsonParser, org.codehaus.jackson.map.DeserializationContext)
-	 */
 	@Override
-	public TransactionType deserialize(final JsonParser jp,
-									   final DeserializationContext ctxt) throws IOException {
-		
-		ObjectCodec oc = jp.getCodec();
-        JsonNode node = oc.readTree(jp);
-		return TransactionType.resolve(node.getTextValue());
+	protected TransactionType resolve(final String siftScienceValue) {
+		return TransactionType.resolve(siftScienceValue);
 	}
 
+	@Override
+	protected TransactionType lookup(final String siftScienceValue) {
+		return TransactionType.lookup(siftScienceValue);
+	}
 }
@@ -0,0 +1,40 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.types.serializer;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.JsonSerializer;
+import org.codehaus.jackson.map.SerializerProvider;
+
+import com.mcac0006.siftscience.json.Fields;
+import com.mcac0006.siftscience.types.Address;
+
+/**
+ * Writes {@link Address} field by field, in the same order and with the same null handling as Jackson's
+ * annotation-driven bean serializer, but without any introspection.
+ *
+ */
+public class AddressSerializer extends JsonSerializer<Address> {
+
+	public static final AddressSerializer INSTANCE = new AddressSerializer();
+
+	@Override
+	public void serialize(final Address address, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+
+		gen.writeStartObject();
+
+		Fields.writeString(gen, Fields.NAME, address.getName());
+		Fields.writeString(gen, Fields.ADDRESS_1, address.getAddressLine1());
+		Fields.writeString(gen, Fields.ADDRESS_2, address.getAddressLine2());
+		Fields.writeString(gen, Fields.CITY, address.getCity());
+		Fields.writeString(gen, Fields.REGION, address.getRegion());
+		Fields.writeString(gen, Fields.COUNTRY, address.getCountry());
+		Fields.writeString(gen, Fields.ZIPCODE, address.getZipCode());
+		Fields.writeString(gen, Fields.PHONE, address.getPhone());
+
+		gen.writeEndObject();
+	}
+}
@@ -0,0 +1,46 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.types.serializer;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.JsonSerializer;
+import org.codehaus.jackson.map.SerializerProvider;
+
+import com.mcac0006.siftscience.json.Fields;
+import com.mcac0006.siftscience.types.Item;
+
+/**
+ * Writes {@link Item} field by field, in the same order and with the same null handling as Jackson's
+ * annotation-driven bean serializer, but without any introspection.
+ *
+ */
+public class ItemSerializer extends JsonSerializer<Item> {
+
+	public static final ItemSerializer INSTANCE = new ItemSerializer();
+
+	@Override
+	public void serialize(final Item item, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+
+		gen.writeStartObject();
+
+		Fields.writeString(gen, Fields.ITEM_ID, item.getItemId());
+		Fields.writeString(gen, Fields.PRODUCT_TITLE, item.getProductTitle());
+		Fields.writeNumber(gen, Fields.PRICE, item.getPrice());
+		Fields.writeString(gen, Fields.CURRENCY_CODE, item.getCurrency());
+		Fields.writeNumber(gen, Fields.QUANTITY, item.getQuantity());
+		Fields.writeString(gen, Fields.UPC, item.getUpc());
+		Fields.writeString(gen, Fields.SKU, item.getSku());
+		Fields.writeString(gen, Fields.ISBN, item.getIsbn());
+		Fields.writeString(gen, Fields.BRAND, item.getBrand());
+		Fields.writeString(gen, Fields.MANUFACTURER, item.getManufacturer());
+		Fields.writeString(gen, Fields.CATEGORY, item.getCategory());
+		Fields.writeStrings(gen, Fields.TAGS, item.getTags());
+		Fields.writeString(gen, Fields.COLOR, item.getColor());
+		Fields.writeString(gen, Fields.SIZE, item.getSize());
+
+		gen.writeEndObject();
+	}
+}
@@ -0,0 +1,59 @@
+/**
+ *
+ */
+package com.mcac0006.siftscience.types.serializer;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.JsonSerializer;
+import org.codehaus.jackson.map.SerializerProvider;
+
+import com.mcac0006.siftscience.json.Fields;
+import com.mcac0006.siftscience.types.PaymentGateway;
+import com.mcac0006.siftscience.types.PaymentMethod;
+import com.mcac0006.siftscience.types.PaymentType;
+import com.mcac0006.siftscience.types.VerificationStatus;
+
+/**
+ * Writes {@link PaymentMethod} field by field, in the same order and with the same null handling as Jackson's
+ * annotation-driven bean serializer, but without any introspection.
+ *
+ */
+public class PaymentMethodSerializer extends JsonSerializer<PaymentMethod> {
+
+	public static final PaymentMethodSerializer INSTANCE = new PaymentMethodSerializer();
+
+	@Override
+	public void serialize(final PaymentMethod paymentMethod, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+
+		gen.writeStartObject();
+
+		final PaymentType paymentType = paymentMethod.getPaymentType();
+		if (paymentType != null) {
+			gen.writeFieldName(Fields.PAYMENT_TYPE);
+			gen.writeString(paymentType.getSiftScienceValue());
+		}
+
+		final PaymentGateway paymentGateway = paymentMethod.getPaymentGateway();
+		if (paymentGateway != null) {
+			gen.writeFieldName(Fields.PAYMENT_GATEWAY);
+			gen.writeString(paymentGateway.getSiftScienceValue());
+		}
+
+		Fields.writeString(gen, Fields.CARD_BIN, paymentMethod.getCardBIN());
+		Fields.writeString(gen, Fields.CARD_LAST4, paymentMethod.getCardLast4());
+		Fields.writeString(gen, Fields.AVS_RESULT_CODE, paymentMethod.getAVSResultCode());
+		Fields.writeString(gen, Fields.CVV_RESULT_CODE, paymentMethod.getCVVResultCode());
+
+		final VerificationStatus verificationStatus = paymentMethod.getVerificationStatus();
+		if (verificationStatus != null) {
+			gen.writeFieldName(Fields.VERIFICATION_STATUS);
+			gen.writeString(verificationStatus.getSiftScienceValue());
+		}
+
+		Fields.writeString(gen, Fields.ROUTING_NUMBER, paymentMethod.getRoutingNumber());
+
+		gen.writeEndObject();
+	}
+}
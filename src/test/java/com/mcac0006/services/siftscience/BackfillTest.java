@@ -0,0 +1,164 @@
+package com.mcac0006.services.siftscience;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.jayway.jsonpath.JsonPath;
+import com.mcac0006.siftscience.SiftClient;
+import com.mcac0006.siftscience.backfill.Backfill;
+import com.mcac0006.siftscience.backfill.InputFormat;
+import com.mcac0006.siftscience.transport.TokenBucket;
+
+public class BackfillTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void ndjsonBackfillResumesFromItsCheckpoint() throws Exception {
+
+		final File file = folder.newFile("events.ndjson");
+		final StringBuilder lines = new StringBuilder();
+		for (int i = 0; i < 5; i++) {
+			lines.append("{\"$type\":\"$login\",\"$user_id\":\"user" + i + "\",\"$login_status\":\"$success\",\"$time\":1454517138}\n");
+		}
+		lines.append("not json\n\n");
+		lines.append("{\"$type\":\"$refer_a_friend\",\"friend_user_id\":\"joe\",\"$time\":1454517138}\n");
+		FileUtils.write(file, lines, StandardCharsets.UTF_8);
+
+		final StubSiftServer server = new StubSiftServer();
+		final SiftClient client = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl()).build();
+		try {
+			Backfill backfill = Backfill.builder(client, file).parallelism(3).build();
+			backfill.run();
+			Assert.assertEquals(6, backfill.getSent());
+			Assert.assertEquals(1, backfill.getUnreadable());
+			Assert.assertEquals(6, server.requests().size());
+			Assert.assertEquals("not json\n", FileUtils.readFileToString(new File(file.getPath() + ".rejects"), StandardCharsets.UTF_8));
+
+			final String custom = find(server.requests(), "$refer_a_friend");
+			Assert.assertEquals("joe", JsonPath.read(custom, "$.friend_user_id"));
+			Assert.assertEquals(Integer.valueOf(1454517138), JsonPath.read(custom, "$.$time"));
+			Assert.assertEquals("CLIENT_API_KEY", JsonPath.read(custom, "$.$api_key"));
+
+			// nothing new, so nothing is resent
+			backfill = Backfill.builder(client, file).build();
+			backfill.run();
+			Assert.assertEquals(0, backfill.getSent());
+			Assert.assertEquals(6, server.requests().size());
+
+			FileUtils.write(file, "{\"$type\":\"$logout\",\"$user_id\":\"user9\"}\n", StandardCharsets.UTF_8, true);
+			backfill = Backfill.builder(client, file).build();
+			backfill.run();
+			Assert.assertEquals(1, backfill.getSent());
+			Assert.assertEquals(7, server.requests().size());
+			Assert.assertEquals("$logout", JsonPath.read(server.requests().get(6).body, "$.$type"));
+		} finally {
+			client.close();
+			server.close();
+		}
+	}
+
+	@Test
+	public void csvRowsAreMappedOntoTheDefaultType() throws Exception {
+
+		final File file = folder.newFile("orders.csv");
+		FileUtils.write(file, "$user_id,$time,$amount,$currency_code,$billing_address.$city,$items.0.$item_id,$items.1.$item_id,note\n"
+				+ "007,1454517138,115940000,EUR,\"Valletta, Malta\",B004834GQO,B00BXBK2BK,\"said \"\"hi\"\"\"\n"
+				+ "42,1454517139,1000000,USD,,,,\n", StandardCharsets.UTF_8);
+
+		final StubSiftServer server = new StubSiftServer();
+		final SiftClient client = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl()).build();
+		try {
+			final Backfill backfill = Backfill.builder(client, file).format(InputFormat.CSV).defaultType("$create_order")
+					.parallelism(1).build();
+			backfill.run();
+			Assert.assertEquals(2, backfill.getSent());
+
+			final String first = server.requests().get(0).body;
+			Assert.assertEquals("$create_order", JsonPath.read(first, "$.$type"));
+			Assert.assertEquals("007", JsonPath.read(first, "$.$user_id"));
+			Assert.assertEquals(Integer.valueOf(1454517138), JsonPath.read(first, "$.$time"));
+			Assert.assertEquals(Integer.valueOf(115940000), JsonPath.read(first, "$.$amount"));
+			Assert.assertEquals("Valletta, Malta", JsonPath.read(first, "$.$billing_address.$city"));
+			Assert.assertEquals("B00BXBK2BK", JsonPath.read(first, "$.$items[1].$item_id"));
+			Assert.assertEquals("said \"hi\"", JsonPath.read(first, "$.note"));
+
+			final String second = server.requests().get(1).body;
+			Assert.assertEquals("42", JsonPath.read(second, "$.$user_id"));
+			Assert.assertFalse(second.contains("$billing_address"));
+		} finally {
+			client.close();
+			server.close();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void interruptingARateLimitedBackfillReturns() throws Exception {
+
+		final File file = folder.newFile("events.ndjson");
+		final StringBuilder lines = new StringBuilder();
+		for (int i = 0; i < 10; i++) {
+			lines.append("{\"$type\":\"$login\",\"$user_id\":\"user" + i + "\"}\n");
+		}
+		FileUtils.write(file, lines, StandardCharsets.UTF_8);
+
+		final StubSiftServer server = new StubSiftServer();
+		final SiftClient client = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl()).build();
+		try {
+			final Backfill backfill = Backfill.builder(client, file).parallelism(2).rate(0.5).build();
+			final AtomicReference<Throwable> thrown = new AtomicReference<Throwable>();
+			final Thread runner = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						backfill.run();
+					} catch (Throwable t) {
+						thrown.set(t);
+					}
+				}
+			});
+			runner.start();
+			while (server.requests().isEmpty()) {
+				Thread.sleep(10);
+			}
+			runner.interrupt();
+			runner.join();
+			Assert.assertTrue(thrown.get() instanceof InterruptedException);
+			Assert.assertEquals(1, backfill.getSent());
+		} finally {
+			client.close();
+			server.close();
+		}
+	}
+
+	@Test
+	public void tokenBucketPacesAcquisitions() throws InterruptedException {
+
+		final TokenBucket bucket = new TokenBucket(100, 1);
+		final long start = System.nanoTime();
+		for (int i = 0; i < 21; i++) {
+			bucket.acquire();
+		}
+		Assert.assertTrue((System.nanoTime() - start) / 1000000 >= 190);
+		Assert.assertFalse(bucket.tryAcquire());
+	}
+
+	private static String find(final List<StubSiftServer.Recorded> requests, final String type) throws IOException {
+		for (final StubSiftServer.Recorded request : requests) {
+			if (request.body.contains("\"" + type + "\"")) {
+				return request.body;
+			}
+		}
+		throw new AssertionError(type + " was not sent.");
+	}
+}
@@ -0,0 +1,135 @@
+package com.mcac0006.services.siftscience;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mcac0006.siftscience.SiftClient;
+import com.mcac0006.siftscience.dispatch.EventDispatcher;
+import com.mcac0006.siftscience.dispatch.OverflowPolicy;
+import com.mcac0006.siftscience.dispatch.SpillHandler;
+import com.mcac0006.siftscience.event.domain.Event;
+import com.mcac0006.siftscience.event.domain.Logout;
+
+public class EventDispatcherTest {
+
+	private StubSiftServer server;
+
+	private SiftClient client;
+
+	@Before
+	public void setup() throws IOException {
+		server = new StubSiftServer();
+		client = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl()).build();
+	}
+
+	@After
+	public void teardown() {
+		client.close();
+		server.close();
+	}
+
+	private static Logout logout(final int i) {
+		final Logout logout = new Logout();
+		logout.setUserId("user" + i);
+		return logout;
+	}
+
+	@Test
+	public void closeDrainsTheQueue() {
+
+		final EventDispatcher dispatcher = EventDispatcher.builder(client).workers(3).build();
+		for (int i = 0; i < 30; i++) {
+			Assert.assertTrue(dispatcher.dispatch(logout(i)));
+		}
+		dispatcher.close();
+
+		Assert.assertEquals(30, server.requests().size());
+		Assert.assertEquals(30, dispatcher.getSent());
+		Assert.assertEquals(0, dispatcher.getQueueDepth());
+	}
+
+	@Test(timeout = 10000)
+	public void statisticsAreExposedThroughJmx() throws JMException, InterruptedException {
+
+		final EventDispatcher dispatcher = EventDispatcher.builder(client).workers(1).batchSize(1).jmx("monitored").build();
+		final MBeanServer mbeans = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = new ObjectName("com.mcac0006.siftscience:type=EventDispatcher,name=\"monitored\"");
+		try {
+			server.delay(50);
+			for (int i = 0; i < 3; i++) {
+				dispatcher.dispatch(logout(i));
+			}
+			Assert.assertTrue((Integer)mbeans.getAttribute(name, "QueueDepth") > 0);
+			while ((Long)mbeans.getAttribute(name, "Sent") < 3) {
+				Thread.sleep(10);
+			}
+			Assert.assertEquals(0, mbeans.getAttribute(name, "QueueDepth"));
+			// the last event waited in the queue while the two before it were sent
+			Assert.assertTrue((Long)mbeans.getAttribute(name, "AckLagMaxMicros") >= 100000);
+			Assert.assertEquals(0L, mbeans.getAttribute(name, "Failed"));
+		} finally {
+			dispatcher.close();
+		}
+		Assert.assertFalse(mbeans.isRegistered(name));
+	}
+
+	@Test
+	public void dropNewestWhenFull() {
+
+		server.delay(200);
+		final EventDispatcher dispatcher = EventDispatcher.builder(client).capacity(2).workers(1).batchSize(1)
+				.overflowPolicy(OverflowPolicy.DROP_NEWEST).build();
+
+		int accepted = 0;
+		for (int i = 0; i < 10; i++) {
+			if (dispatcher.dispatch(logout(i))) {
+				accepted++;
+			}
+		}
+		dispatcher.close();
+
+		Assert.assertTrue("Expected some events to be dropped", dispatcher.getDropped() > 0);
+		Assert.assertEquals(accepted, dispatcher.getSent());
+		Assert.assertEquals(10, dispatcher.getSent() + dispatcher.getDropped());
+	}
+
+	@Test
+	public void spillWhenFull() {
+
+		server.delay(200);
+		final List<Event> spilled = new CopyOnWriteArrayList<Event>();
+		final EventDispatcher dispatcher = EventDispatcher.builder(client).capacity(2).workers(1).batchSize(1)
+				.overflowPolicy(OverflowPolicy.SPILL).spillHandler(new SpillHandler() {
+					@Override
+					public void spill(final Event event) {
+						spilled.add(event);
+					}
+				}).build();
+
+		for (int i = 0; i < 10; i++) {
+			Assert.assertTrue(dispatcher.dispatch(logout(i)));
+		}
+		dispatcher.close();
+
+		Assert.assertFalse(spilled.isEmpty());
+		Assert.assertEquals(spilled.size(), dispatcher.getSpilled());
+		Assert.assertEquals(10, dispatcher.getSent() + dispatcher.getSpilled());
+		Assert.assertEquals(0, dispatcher.getDropped());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void spillRequiresHandler() {
+		EventDispatcher.builder(client).overflowPolicy(OverflowPolicy.SPILL).build();
+	}
+}
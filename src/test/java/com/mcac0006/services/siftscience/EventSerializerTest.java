@@ -0,0 +1,183 @@
+package com.mcac0006.services.siftscience;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.annotate.JsonSerialize.Inclusion;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mcac0006.siftscience.SiftScienceHelper;
+import com.mcac0006.siftscience.event.EventTemplate;
+import com.mcac0006.siftscience.event.domain.AddItemToCart;
+import com.mcac0006.siftscience.event.domain.CreateAccount;
+import com.mcac0006.siftscience.event.domain.CreateContent;
+import com.mcac0006.siftscience.event.domain.CreateOrder;
+import com.mcac0006.siftscience.event.domain.Custom;
+import com.mcac0006.siftscience.event.domain.Event;
+import com.mcac0006.siftscience.event.domain.LinkSessionToUser;
+import com.mcac0006.siftscience.event.domain.Login;
+import com.mcac0006.siftscience.event.domain.Logout;
+import com.mcac0006.siftscience.event.domain.RemoveItemFromCart;
+import com.mcac0006.siftscience.event.domain.SendMessage;
+import com.mcac0006.siftscience.event.domain.SubmitReview;
+import com.mcac0006.siftscience.event.domain.Transaction;
+import com.mcac0006.siftscience.event.domain.UpdateAccount;
+import com.mcac0006.siftscience.types.Address;
+import com.mcac0006.siftscience.types.Item;
+import com.mcac0006.siftscience.types.LoginStatus;
+import com.mcac0006.siftscience.types.PaymentMethod;
+
+/**
+ * Checks the hand-written event serializers against Jackson's bean serializer, byte for byte. Every field
+ * is filled in reflectively, so a field added to an event but not to its serializer fails here.
+ */
+public class EventSerializerTest {
+
+	private static final List<Class<? extends Event>> EVENTS = Arrays.<Class<? extends Event>>asList(AddItemToCart.class,
+			CreateAccount.class, CreateContent.class, CreateOrder.class, LinkSessionToUser.class, Login.class,
+			Logout.class, RemoveItemFromCart.class, SendMessage.class, SubmitReview.class, Transaction.class,
+			UpdateAccount.class);
+
+	private static final ObjectMapper beanMapper = new ObjectMapper();
+
+	static {
+		beanMapper.setSerializationInclusion(Inclusion.NON_NULL);
+	}
+
+	@Test
+	public void fullyPopulatedEventsMatchTheBeanSerializer() throws Exception {
+
+		for (final Class<? extends Event> type : EVENTS) {
+			final Event event = fill(type.getDeclaredConstructor().newInstance());
+			event.setApiKey("API_KEY");
+			event.setTime(new GregorianCalendar(2016, Calendar.FEBRUARY, 3, 10, 30));
+			event.addCustomField("referrer_email", "ŻŻ@example.com");
+			event.addCustomField("dropoff_location_lat", 35.8989);
+			event.addCustomField("rma_status", null);
+
+			Assert.assertEquals(type.getSimpleName(), beanMapper.writeValueAsString(event), SiftScienceHelper.serialize(event));
+		}
+	}
+
+	@Test
+	public void emptyEventsMatchTheBeanSerializer() throws Exception {
+
+		for (final Class<? extends Event> type : EVENTS) {
+			final Event event = type.getDeclaredConstructor().newInstance();
+			Assert.assertEquals(type.getSimpleName(), beanMapper.writeValueAsString(event), SiftScienceHelper.serialize(event));
+		}
+
+		final Custom custom = new Custom("$refer_a_friend");
+		custom.addCustomField("friend_user_id", "joe");
+		Assert.assertEquals(beanMapper.writeValueAsString(custom), SiftScienceHelper.serialize(custom));
+	}
+
+	@Test
+	public void resetEventsAndValuesEqualNewOnes() throws Exception {
+
+		for (final Class<? extends Event> type : EVENTS) {
+			final Event event = fill(type.getDeclaredConstructor().newInstance());
+			event.setApiKey("API_KEY");
+			event.setTime(new GregorianCalendar(2016, Calendar.FEBRUARY, 3, 10, 30));
+			event.addCustomField("referrer_email", "ŻŻ@example.com");
+			event.reset();
+			final Event fresh = type.getDeclaredConstructor().newInstance();
+			Assert.assertEquals(type.getSimpleName(), fresh, event);
+			Assert.assertEquals(type.getSimpleName(), beanMapper.writeValueAsString(fresh), SiftScienceHelper.serialize(event));
+		}
+
+		final Address address = fill(new Address());
+		address.reset();
+		Assert.assertEquals(new Address(), address);
+		final Item item = fill(new Item());
+		item.reset();
+		Assert.assertEquals(new Item(), item);
+		final PaymentMethod paymentMethod = fill(new PaymentMethod());
+		paymentMethod.reset();
+		Assert.assertEquals(new PaymentMethod(), paymentMethod);
+	}
+
+	@Test
+	public void templatesMatchTheSerializedEvents() throws Exception {
+
+		final Calendar time = new GregorianCalendar(2016, Calendar.FEBRUARY, 3, 10, 30);
+		final String userId = "żużu \"the\" élève\n";
+
+		final EventTemplate logins = EventTemplate.builder("$login").apiKey("API_KEY").field("$login_status", LoginStatus.SUCCESS)
+				.field("referrer_email", "ŻŻ@example.com").build();
+		final Login login = new Login().setUserId(userId).setSessionId("gigtleqddo84l8cm15qe4il3q3").setLoginStatus(LoginStatus.SUCCESS);
+		login.setApiKey("API_KEY");
+		login.setTime(time);
+		login.addCustomField("referrer_email", "ŻŻ@example.com");
+		assertSameJson(SiftScienceHelper.serialize(login), logins.render(userId, "gigtleqddo84l8cm15qe4il3q3", time));
+
+		final EventTemplate logouts = EventTemplate.builder("$logout").apiKey("API_KEY").build();
+		final Logout logout = new Logout().setUserId("billy_jones_301");
+		logout.setApiKey("API_KEY");
+		assertSameJson(SiftScienceHelper.serialize(logout), logouts.render("billy_jones_301", null, null));
+
+		final EventTemplate links = EventTemplate.builder("$link_session_to_user").build();
+		final LinkSessionToUser link = new LinkSessionToUser().setUserId("billy_jones_301").setSessionId("gigtleqddo84l8cm15qe4il3q3");
+		assertSameJson(SiftScienceHelper.serialize(link), links.render("billy_jones_301", "gigtleqddo84l8cm15qe4il3q3", null));
+	}
+
+	private static void assertSameJson(final String expected, final byte[] actual) throws Exception {
+		Assert.assertEquals(beanMapper.readTree(expected), beanMapper.readTree(new String(actual, StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Sets every declared field of the object (and, recursively, of the nested types) to some value.
+	 */
+	private static <T> T fill(final T object) throws Exception {
+
+		for (final Field field : object.getClass().getDeclaredFields()) {
+			if (Modifier.isStatic(field.getModifiers())) {
+				continue;
+			}
+			field.setAccessible(true);
+			field.set(object, valueOf(field.getType(), field.getName()));
+		}
+		return object;
+	}
+
+	private static Object valueOf(final Class<?> type, final String name) throws Exception {
+
+		if (type == String.class) {
+			return name + " \"é\"";
+		}
+		if (type == Long.class) {
+			return Long.valueOf(name.length() * 1000000L);
+		}
+		if (type == Integer.class) {
+			return Integer.valueOf(name.length());
+		}
+		if (type == Boolean.class) {
+			return Boolean.TRUE;
+		}
+		if (type.isEnum()) {
+			final Object[] constants = type.getEnumConstants();
+			return constants[name.length() % constants.length];
+		}
+		if (type.isArray()) {
+			final Object array = Array.newInstance(type.getComponentType(), 3);
+			Array.set(array, 0, valueOf(type.getComponentType(), name + "0"));
+			Array.set(array, 2, valueOf(type.getComponentType(), name + "2")); // leaves a null in the middle
+			return array;
+		}
+		if (type == Calendar.class) {
+			final Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+			calendar.setTimeInMillis(1454517138000L);
+			return calendar;
+		}
+		return fill(type.getDeclaredConstructor().newInstance());
+	}
+}
@@ -0,0 +1,221 @@
+package com.mcac0006.services.siftscience;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.mcac0006.siftscience.SiftClient;
+import com.mcac0006.siftscience.dispatch.DeadLetterHandler;
+import com.mcac0006.siftscience.dispatch.EventDispatcher;
+import com.mcac0006.siftscience.event.domain.Event;
+import com.mcac0006.siftscience.event.domain.Logout;
+import com.mcac0006.siftscience.spool.EventSpool;
+import com.mcac0006.siftscience.spool.FsyncPolicy;
+import com.mcac0006.siftscience.spool.SpoolConfig;
+
+public class EventSpoolTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static byte[] payload(final int i) {
+		return ("{\"$type\":\"$logout\",\"$user_id\":\"user" + i + "\"}").getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void reopeningReplaysWhatWasNotAcknowledged() throws IOException {
+
+		final File dir = folder.newFolder();
+		final SpoolConfig config = new SpoolConfig().setFsyncPolicy(FsyncPolicy.ALWAYS);
+
+		final EventSpool spool = EventSpool.open(dir, config);
+		for (int i = 0; i < 5; i++) {
+			Assert.assertEquals(i, spool.append(payload(i)));
+		}
+		spool.ack(1);
+		spool.ack(0);
+		spool.ack(3); // out of order, so only 0 and 1 count as done
+		Assert.assertEquals(1, spool.getAckedUpTo());
+		spool.close();
+
+		final EventSpool reopened = EventSpool.open(dir, config);
+		try {
+			final EventSpool.Cursor cursor = reopened.cursor();
+			EventSpool.Record record = cursor.next();
+			Assert.assertEquals(2, record.getSequence());
+			Assert.assertArrayEquals(payload(2), record.getPayload());
+			int remaining = 1;
+			while ((record = cursor.next()) != null) {
+				remaining++;
+			}
+			Assert.assertEquals(3, remaining);
+			Assert.assertEquals(5, reopened.append(payload(5)));
+		} finally {
+			reopened.close();
+		}
+	}
+
+	@Test
+	public void aTruncatedAckFileAcknowledgesNothing() throws IOException {
+
+		final File dir = folder.newFolder();
+		final EventSpool spool = EventSpool.open(dir, new SpoolConfig().setFsyncPolicy(FsyncPolicy.ALWAYS));
+		spool.append(payload(0));
+		spool.close();
+		new RandomAccessFile(new File(dir, "ack.pos"), "rw").getChannel().truncate(3).close();
+
+		final EventSpool reopened = EventSpool.open(dir, new SpoolConfig());
+		try {
+			Assert.assertEquals(-1, reopened.getAckedUpTo());
+			Assert.assertEquals(0, reopened.cursor().next().getSequence());
+		} finally {
+			reopened.close();
+		}
+	}
+
+	@Test
+	public void acknowledgedSegmentsAreDeleted() throws IOException {
+
+		final EventSpool spool = EventSpool.open(folder.newFolder(),
+				new SpoolConfig().setSegmentSize(1024).setFsyncPolicy(FsyncPolicy.NEVER));
+		try {
+			for (int i = 0; i < 100; i++) {
+				spool.append(payload(i));
+			}
+			Assert.assertTrue(spool.getSegmentCount() > 1);
+			Assert.assertEquals(100, spool.getBacklog());
+
+			for (int i = 0; i < 100; i++) {
+				spool.ack(i);
+			}
+			Assert.assertEquals(1, spool.getSegmentCount());
+			Assert.assertEquals(0, spool.getBacklog());
+		} finally {
+			spool.close();
+		}
+	}
+
+	@Test
+	public void dispatcherReplaysRateLimitedEventsAfterRestart() throws Exception {
+
+		final File dir = folder.newFolder();
+		final StubSiftServer server = new StubSiftServer();
+		final SiftClient client = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl()).build();
+		try {
+			server.reply(200, "{\"status\":60,\"error_message\":\"Rate limited\",\"time\":1454517138}");
+			EventSpool spool = EventSpool.open(dir, new SpoolConfig());
+			EventDispatcher dispatcher = EventDispatcher.builder(client).spool(spool).build();
+			for (int i = 0; i < 10; i++) {
+				final Logout logout = new Logout();
+				logout.setUserId("user" + i);
+				dispatcher.dispatch(logout);
+			}
+			awaitRequests(server, 10);
+			dispatcher.close();
+			Assert.assertEquals(10, dispatcher.getSpoolBacklog());
+			spool.close();
+
+			server.reply(200, "{\"status\":0,\"error_message\":\"OK\",\"time\":1454517138}");
+			spool = EventSpool.open(dir, new SpoolConfig());
+			dispatcher = EventDispatcher.builder(client).spool(spool).build();
+			awaitRequests(server, 20);
+			dispatcher.close();
+			Assert.assertEquals(0, spool.getBacklog());
+			spool.close();
+		} finally {
+			client.close();
+			server.close();
+		}
+	}
+
+	@Test
+	public void failedEventsAreRedeliveredAndTheirSegmentDeleted() throws Exception {
+
+		final StubSiftServer server = new StubSiftServer();
+		final SiftClient client = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl()).build();
+		final EventSpool spool = EventSpool.open(folder.newFolder(), new SpoolConfig().setSegmentSize(1024));
+		try {
+			server.replyOnce(200, "{\"status\":60,\"error_message\":\"Rate limited\",\"time\":1454517138}");
+			final EventDispatcher dispatcher = EventDispatcher.builder(client).spool(spool).workers(1)
+					.redeliveryDelays(10, 50, TimeUnit.MILLISECONDS).build();
+			for (int i = 0; i < 50; i++) {
+				final Logout logout = new Logout();
+				logout.setUserId("user" + i);
+				dispatcher.dispatch(logout);
+			}
+			awaitRequests(server, 51);
+			awaitBacklog(spool, 0);
+			dispatcher.close();
+
+			Assert.assertEquals(1, dispatcher.getRedelivered());
+			Assert.assertEquals(server.requests().get(0).body, server.requests().get(50).body); // the rate-limited one, again
+			Assert.assertEquals(49, spool.getAckedUpTo());
+			Assert.assertEquals(1, spool.getSegmentCount()); // only the one being written to is left
+		} finally {
+			spool.close();
+			client.close();
+			server.close();
+		}
+	}
+
+	@Test
+	public void eventsOutOfAttemptsAreDeadLettered() throws Exception {
+
+		final StubSiftServer server = new StubSiftServer();
+		final SiftClient client = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl()).build();
+		final EventSpool spool = EventSpool.open(folder.newFolder(), new SpoolConfig());
+		final List<byte[]> deadLetters = new CopyOnWriteArrayList<byte[]>();
+		try {
+			server.reply(200, "{\"status\":60,\"error_message\":\"Rate limited\",\"time\":1454517138}");
+			final EventDispatcher dispatcher = EventDispatcher.builder(client).spool(spool)
+					.redeliveryDelays(10, 10, TimeUnit.MILLISECONDS).maxDeliveryAttempts(3)
+					.deadLetterHandler(new DeadLetterHandler() {
+						@Override
+						public void deadLetter(final Event event, final byte[] payload) {
+							deadLetters.add(payload);
+						}
+					}).build();
+			for (int i = 0; i < 5; i++) {
+				final Logout logout = new Logout();
+				logout.setUserId("user" + i);
+				dispatcher.dispatch(logout);
+			}
+			awaitBacklog(spool, 0);
+			dispatcher.close();
+
+			Assert.assertEquals(15, server.requests().size());
+			Assert.assertEquals(5, deadLetters.size());
+			Assert.assertEquals(5, dispatcher.getDeadLettered());
+			Assert.assertEquals(4, spool.getAckedUpTo());
+		} finally {
+			spool.close();
+			client.close();
+			server.close();
+		}
+	}
+
+	private static void awaitBacklog(final EventSpool spool, final long backlog) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + 10000;
+		while (spool.getBacklog() > backlog && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		Assert.assertEquals(backlog, spool.getBacklog());
+	}
+
+	private static void awaitRequests(final StubSiftServer server, final int count) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + 10000;
+		while (server.requests().size() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		Assert.assertEquals(count, server.requests().size());
+	}
+}
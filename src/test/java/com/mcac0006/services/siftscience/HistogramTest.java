@@ -0,0 +1,71 @@
+package com.mcac0006.services.siftscience;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mcac0006.siftscience.metrics.Histogram;
+
+public class HistogramTest {
+
+	@Test
+	public void percentilesAreWithinThePrecision() {
+
+		final Histogram histogram = new Histogram();
+		for (long micros = 1; micros <= 10000; micros++) {
+			histogram.record(micros * 1000);
+		}
+		final Histogram.Snapshot snapshot = histogram.snapshot();
+
+		Assert.assertEquals(10000, snapshot.getCount());
+		Assert.assertEquals(10000000, snapshot.getMax());
+		Assert.assertEquals(5000500, snapshot.getMean());
+		assertWithin(5000000, snapshot.getPercentile(50));
+		assertWithin(9900000, snapshot.getPercentile(99));
+		assertWithin(9990000, snapshot.getPercentile(99.9));
+		Assert.assertEquals(10000000, snapshot.getPercentile(100));
+		Assert.assertEquals(0, new Histogram().snapshot().getPercentile(99));
+	}
+
+	@Test
+	public void smallValuesAreExact() {
+
+		final Histogram histogram = new Histogram();
+		for (long nanos = 0; nanos < 64; nanos++) {
+			histogram.record(nanos);
+		}
+		Assert.assertEquals(31, histogram.snapshot().getPercentile(50));
+		Assert.assertEquals(63, histogram.snapshot().getPercentile(100));
+	}
+
+	@Test
+	public void concurrentRecordingLosesNothing() throws InterruptedException {
+
+		final Histogram histogram = new Histogram();
+		final List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < 8; t++) {
+			threads.add(new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int i = 0; i < 100000; i++) {
+						histogram.record(i);
+					}
+				}
+			}));
+		}
+		for (final Thread thread : threads) {
+			thread.start();
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		Assert.assertEquals(800000, histogram.snapshot().getCount());
+		Assert.assertEquals(99999, histogram.snapshot().getMax());
+	}
+
+	private static void assertWithin(final long expected, final long actual) {
+		Assert.assertTrue(String.format("expected about %d, was %d", expected, actual), Math.abs(actual - expected) <= expected * 0.032);
+	}
+}
@@ -0,0 +1,119 @@
+package com.mcac0006.services.siftscience;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mcac0006.siftscience.event.domain.CreateOrder;
+import com.mcac0006.siftscience.pool.ObjectPool;
+
+public class ObjectPoolTest {
+
+	private final AtomicInteger created = new AtomicInteger();
+
+	private final Supplier<CreateOrder> orders = new Supplier<CreateOrder>() {
+		@Override
+		public CreateOrder get() {
+			created.incrementAndGet();
+			return new CreateOrder();
+		}
+	};
+
+	@Test
+	public void releasedObjectsAreResetAndReused() {
+
+		final ObjectPool<CreateOrder> pool = new ObjectPool<CreateOrder>(4, orders);
+
+		final CreateOrder order = pool.acquire();
+		order.setUserId("billy_jones_301").setOrderId("ORDER-28168441");
+		order.addCustomField("digital_wallet", "apple_pay");
+		pool.release(order);
+		Assert.assertEquals(1, pool.getIdle());
+
+		final CreateOrder reused = pool.acquire();
+		Assert.assertSame(order, reused);
+		Assert.assertNull(reused.getUserId());
+		Assert.assertTrue(reused.getCustomFields().isEmpty());
+		Assert.assertEquals(1, created.get());
+	}
+
+	@Test
+	public void poolHoldsNoMoreThanItsCapacity() {
+
+		final ObjectPool<CreateOrder> pool = new ObjectPool<CreateOrder>(2, orders);
+
+		final List<CreateOrder> acquired = new ArrayList<CreateOrder>();
+		for (int i = 0; i < 5; i++) {
+			acquired.add(pool.acquire());
+		}
+		for (final CreateOrder order : acquired) {
+			pool.release(order);
+		}
+		Assert.assertEquals(2, pool.getIdle());
+
+		for (int i = 0; i < 5; i++) {
+			pool.acquire();
+		}
+		Assert.assertEquals(0, pool.getIdle());
+		Assert.assertEquals(8, created.get());
+	}
+
+	@Test(timeout = 30000)
+	public void noObjectIsHandedToTwoThreadsAtOnce() throws InterruptedException {
+
+		final ObjectPool<CreateOrder> pool = new ObjectPool<CreateOrder>(4, orders);
+		final Set<CreateOrder> inUse = Collections.newSetFromMap(new IdentityHashMap<CreateOrder, Boolean>());
+		final AtomicInteger clashes = new AtomicInteger();
+		final CountDownLatch start = new CountDownLatch(1);
+
+		final List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < 8; t++) {
+			threads.add(new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int i = 0; i < 100000; i++) {
+						final CreateOrder order = pool.acquire();
+						synchronized (inUse) {
+							if (!inUse.add(order)) {
+								clashes.incrementAndGet();
+							}
+						}
+						final String owner = Thread.currentThread().getName();
+						order.setUserId(owner);
+						Thread.yield();
+						if (!owner.equals(order.getUserId())) {
+							clashes.incrementAndGet();
+						}
+						synchronized (inUse) {
+							inUse.remove(order);
+						}
+						pool.release(order);
+					}
+				}
+			}));
+		}
+		for (final Thread thread : threads) {
+			thread.start();
+		}
+		start.countDown();
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+
+		Assert.assertEquals(0, clashes.get());
+		Assert.assertTrue(pool.getIdle() <= 4);
+	}
+}
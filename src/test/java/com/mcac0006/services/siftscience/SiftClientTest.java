@@ -0,0 +1,756 @@
+package com.mcac0006.services.siftscience;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mcac0006.siftscience.SiftClient;
+import com.mcac0006.siftscience.SiftScienceHelper;
+import com.mcac0006.siftscience.cache.ScoreCache;
+import com.mcac0006.siftscience.circuit.CircuitBreakerConfig;
+import com.mcac0006.siftscience.circuit.CircuitState;
+import com.mcac0006.siftscience.circuit.DefaultScoreFallback;
+import com.mcac0006.siftscience.circuit.LastKnownScoreFallback;
+import com.mcac0006.siftscience.event.EventTemplate;
+import com.mcac0006.siftscience.event.domain.Login;
+import com.mcac0006.siftscience.event.domain.Logout;
+import com.mcac0006.siftscience.exception.CircuitOpenException;
+import com.mcac0006.siftscience.exception.DeadlineExceededException;
+import com.mcac0006.siftscience.exception.HttpStatusException;
+import com.mcac0006.siftscience.exception.SiftScienceException;
+import com.mcac0006.siftscience.label.domain.Label;
+import com.mcac0006.siftscience.metrics.Endpoint;
+import com.mcac0006.siftscience.metrics.InMemoryMetrics;
+import com.mcac0006.siftscience.metrics.Stage;
+import com.mcac0006.siftscience.result.SendResult;
+import com.mcac0006.siftscience.result.domain.SiftScienceResponse;
+import com.mcac0006.siftscience.retry.RetryBudget;
+import com.mcac0006.siftscience.retry.RetryPolicy;
+import com.mcac0006.siftscience.score.domain.SiftScienceScore;
+import com.mcac0006.siftscience.transport.AdaptiveLimit;
+import com.mcac0006.siftscience.transport.AdaptiveLimitConfig;
+import com.mcac0006.siftscience.transport.CompressionConfig;
+import com.mcac0006.siftscience.transport.Deadline;
+import com.mcac0006.siftscience.types.Address;
+import com.mcac0006.siftscience.types.LoginStatus;
+import com.mcac0006.siftscience.types.Reason;
+
+public class SiftClientTest {
+
+	private StubSiftServer server;
+
+	private SiftClient client;
+
+	@Before
+	public void setup() throws IOException {
+		server = new StubSiftServer();
+		client = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl()).build();
+	}
+
+	@After
+	public void teardown() {
+		client.close();
+		server.close();
+	}
+
+	@Test
+	public void sendEventUsesClientApiKey() {
+
+		final Login login = new Login();
+		login.setUserId("billy_jones_301").setSessionId("gigtleqddo84l8cm15qe4il3q3").setLoginStatus(LoginStatus.SUCCESS);
+
+		final SiftScienceResponse response = client.send(login, true);
+
+		Assert.assertEquals(Integer.valueOf(0), response.getStatus());
+		Assert.assertEquals(1, server.requests().size());
+
+		final StubSiftServer.Recorded request = server.requests().get(0);
+		Assert.assertEquals("POST", request.method);
+		Assert.assertEquals("/v203/events?return_action=true", request.uri);
+		Assert.assertTrue(request.body.contains("\"$api_key\":\"CLIENT_API_KEY\""));
+		Assert.assertTrue(request.body.contains("\"$user_id\":\"billy_jones_301\""));
+	}
+
+	@Test
+	public void echoedRequestIsSkippedUnlessAskedFor() {
+
+		final String reply = "{\"status\":0,\"error_message\":\"OK\",\"time\":1327604222,\"request\":\"{\\\"$type\\\":\\\"$login\\\"}\"}";
+		server.replyOnce(200, reply).replyOnce(200, reply);
+
+		final Login login = new Login();
+		login.setUserId("billy_jones_301");
+		Assert.assertNull(client.send(login).getRequest());
+
+		final SiftClient debugging = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl()).echoedRequests(true).build();
+		try {
+			final SiftScienceResponse response = debugging.send(login);
+			Assert.assertEquals(Integer.valueOf(0), response.getStatus());
+			Assert.assertEquals("{\"$type\":\"$login\"}", response.getRequest());
+		} finally {
+			debugging.close();
+		}
+	}
+
+	@Test
+	public void metricsTimeEachStageByEventType() {
+
+		final InMemoryMetrics metrics = new InMemoryMetrics();
+		final SiftClient measured = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl()).metrics(metrics).build();
+		try {
+			final Login login = new Login();
+			login.setUserId("billy_jones_301").setLoginStatus(LoginStatus.SUCCESS);
+			measured.send(login);
+			measured.send(login);
+			measured.getScore("billy_jones_301");
+		} finally {
+			measured.close();
+		}
+
+		final InMemoryMetrics.Snapshot snapshot = metrics.snapshot();
+		for (final Stage stage : Stage.values()) {
+			final String name = "events.$login." + stage.name().toLowerCase(Locale.ROOT);
+			Assert.assertEquals(name, 2, snapshot.getLatencies().get(name).getCount());
+		}
+		Assert.assertEquals(2, snapshot.getLatencies().get("events.$login.calls").getCount());
+		Assert.assertEquals(Long.valueOf(2), snapshot.getCounters().get("events.$login.bodies"));
+		Assert.assertEquals(Long.valueOf(server.requests().get(0).body.length() * 2),
+				snapshot.getCounters().get("events.$login.bytes"));
+		Assert.assertEquals(Long.valueOf(0), snapshot.getCounters().get("events.$login.failures"));
+		Assert.assertEquals(1, snapshot.getLatencies().get("score.calls").getCount());
+		Assert.assertEquals(1, snapshot.getLatencies().get("score.parse").getCount());
+		Assert.assertNull(snapshot.getLatencies().get("score.serialize"));
+	}
+
+	@Test(timeout = 10000)
+	public void aFailingMetricsCallbackStillCompletesTheCall() {
+
+		final SiftClient measured = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl())
+				.metrics(new InMemoryMetrics() {
+					@Override
+					public void onCompleted(final Endpoint endpoint, final String eventType, final long nanos, final boolean failed) {
+						throw new IllegalStateException("Broken metrics.");
+					}
+				}).build();
+		try {
+			Assert.assertEquals(Integer.valueOf(0), measured.send(new Login().setUserId("billy_jones_301")).getStatus());
+		} finally {
+			measured.close();
+		}
+	}
+
+	@Test
+	public void statisticsAreExposedThroughJmx() throws JMException {
+
+		final SiftClient monitored = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl())
+				.retryPolicy(new RetryPolicy().setDelays(1, 5, TimeUnit.MILLISECONDS))
+				.scoreCache(new ScoreCache(100, 1, TimeUnit.MINUTES)).jmx("monitored").build();
+		final MBeanServer mbeans = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = new ObjectName("com.mcac0006.siftscience:type=SiftClient,name=\"monitored\"");
+		try {
+			server.replyOnce(200, "{\"status\":60,\"error_message\":\"Rate limited\",\"time\":1454517138}");
+			monitored.send(new Login().setUserId("billy_jones_301"));
+			monitored.getScore("billy_jones_301");
+			monitored.getScore("billy_jones_301");
+
+			Assert.assertEquals(2L, mbeans.getAttribute(name, "Calls"));
+			Assert.assertEquals(0L, mbeans.getAttribute(name, "Failures"));
+			Assert.assertEquals(1L, mbeans.getAttribute(name, "Retries"));
+			Assert.assertEquals(0, mbeans.getAttribute(name, "InFlight"));
+			Assert.assertEquals("CLOSED", mbeans.getAttribute(name, "CircuitState"));
+			Assert.assertEquals(0.5, (Double)mbeans.getAttribute(name, "ScoreCacheHitRatio"), 0.0);
+			final TabularData errors = (TabularData)mbeans.getAttribute(name, "ErrorsByStatus");
+			Assert.assertEquals(1L, errors.get(new Object[] { 60 }).get("value"));
+		} finally {
+			monitored.close();
+		}
+		Assert.assertFalse(mbeans.isRegistered(name));
+	}
+
+	@Test
+	public void sendFromATemplate() {
+
+		final EventTemplate logins = client.template("$login").field("$login_status", LoginStatus.SUCCESS).build();
+		final Calendar time = Calendar.getInstance();
+		time.setTimeInMillis(1454517138000L);
+
+		final SiftScienceResponse response = client.send(logins, "billy_jones_301", "gigtleqddo84l8cm15qe4il3q3", time);
+
+		Assert.assertEquals(Integer.valueOf(0), response.getStatus());
+		final StubSiftServer.Recorded request = server.requests().get(0);
+		Assert.assertEquals("POST", request.method);
+		Assert.assertEquals("/v203/events", request.uri);
+		Assert.assertEquals("{\"$type\":\"$login\",\"$api_key\":\"CLIENT_API_KEY\",\"$time\":1454517138,"
+				+ "\"$user_id\":\"billy_jones_301\",\"$session_id\":\"gigtleqddo84l8cm15qe4il3q3\",\"$login_status\":\"$success\"}",
+				request.body);
+
+		client.send(logins, "jos\u00e9", null, null);
+		Assert.assertEquals("{\"$type\":\"$login\",\"$api_key\":\"CLIENT_API_KEY\",\"$user_id\":\"jos\u00e9\",\"$login_status\":\"$success\"}",
+				server.requests().get(1).body);
+	}
+
+	@Test
+	public void aTemplateBuiltOnItsOwnIsWrittenLikeTheClientWouldWriteIt() {
+
+		final EventTemplate orders = EventTemplate.builder("$create_order").apiKey("CLIENT_API_KEY")
+				.field("$billing_address", new Address().setCity("Valletta")).build();
+
+		client.send(orders, "billy_jones_301", null, null);
+		Assert.assertEquals("{\"$type\":\"$create_order\",\"$api_key\":\"CLIENT_API_KEY\",\"$user_id\":\"billy_jones_301\","
+				+ "\"$billing_address\":{\"$city\":\"Valletta\"}}", server.requests().get(0).body);
+	}
+
+	@Test
+	public void eventIsStreamedAsUtf8() throws IOException {
+
+		final Login login = new Login();
+		login.setUserId("żużu_élève").setSessionId("gigtleqddo84l8cm15qe4il3q3").setLoginStatus(LoginStatus.FAILURE);
+
+		client.send(login);
+
+		final String expected = SiftScienceHelper.serialize(login);
+		Assert.assertEquals(expected, server.requests().get(0).body);
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		SiftScienceHelper.serialize(login, out);
+		Assert.assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+		Assert.assertArrayEquals(out.toByteArray(), client.serialize(login));
+	}
+
+	@Test
+	public void sendAllKeepsOrderAndBoundsParallelism() {
+
+		server.delay(20);
+		final List<Logout> events = new ArrayList<Logout>();
+		for (int i = 0; i < 20; i++) {
+			final Logout logout = new Logout();
+			logout.setUserId("user" + i);
+			events.add(logout);
+		}
+
+		final List<SendResult> results = client.sendAll(events.stream(), 4);
+
+		Assert.assertEquals(20, results.size());
+		for (int i = 0; i < 20; i++) {
+			Assert.assertSame(events.get(i), results.get(i).getEvent());
+			Assert.assertTrue(results.get(i).isSuccessful());
+		}
+		Assert.assertEquals(20, server.requests().size());
+		Assert.assertTrue("Expected at most 4 concurrent requests, saw " + server.maxConcurrent(), server.maxConcurrent() <= 4);
+	}
+
+	@Test
+	public void largeBodiesAreGzipped() throws IOException {
+
+		final SiftClient compressing = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl())
+				.compression(new CompressionConfig().setThresholdBytes(512)).build();
+		try {
+			server.gzipReplies(true);
+
+			final Login small = new Login();
+			small.setUserId("billy_jones_301").setSessionId("gigtleqddo84l8cm15qe4il3q3");
+			Assert.assertEquals(Integer.valueOf(0), compressing.send(small).getStatus());
+			Assert.assertNull(server.requests().get(0).contentEncoding);
+
+			final Login large = new Login();
+			large.setUserId("billy_jones_301").setSessionId("gigtleqddo84l8cm15qe4il3q3");
+			final StringBuilder note = new StringBuilder();
+			for (int i = 0; i < 100; i++) {
+				note.append("żużu ").append(i).append(' ');
+			}
+			large.addCustomField("note", note.toString());
+			// sent twice, so that the second goes through a reused deflater
+			for (int i = 1; i <= 2; i++) {
+				Assert.assertEquals(Integer.valueOf(0), compressing.send(large).getStatus());
+				final StubSiftServer.Recorded request = server.requests().get(i);
+				Assert.assertEquals("gzip", request.contentEncoding);
+				Assert.assertEquals(SiftScienceHelper.serialize(large), request.body);
+			}
+
+			server.reply(200, "{\"status\":0,\"error_message\":\"OK\",\"user_id\":\"billy_jones_301\",\"score\":0.5}");
+			Assert.assertEquals(Float.valueOf(0.5f), compressing.getScore("billy_jones_301").getScore());
+		} finally {
+			compressing.close();
+		}
+	}
+
+	@Test
+	public void sendLabel() {
+
+		final Label label = new Label();
+		label.setApiKey("LABEL_API_KEY");
+		label.setIsBad(true).setReasons(new Reason[]{Reason.CHARGEBACK});
+
+		client.send("billy_jones_301", label);
+
+		final StubSiftServer.Recorded request = server.requests().get(0);
+		Assert.assertEquals("/v203/users/billy_jones_301/labels", request.uri);
+		Assert.assertTrue(request.body.contains("\"$api_key\":\"LABEL_API_KEY\""));
+	}
+
+	@Test
+	public void getScore() {
+
+		server.reply(200, "{\"status\":0,\"error_message\":\"OK\",\"user_id\":\"billy_jones_301\",\"score\":0.5}");
+
+		final SiftScienceScore score = client.getScore("billy_jones_301");
+
+		Assert.assertEquals("billy_jones_301", score.getUserId());
+		Assert.assertEquals(Float.valueOf(0.5f), score.getScore());
+		Assert.assertEquals("GET", server.requests().get(0).method);
+		Assert.assertEquals("/v203/score/billy_jones_301?api_key=CLIENT_API_KEY", server.requests().get(0).uri);
+	}
+
+	@Test
+	public void manyRequestsReuseThePool() {
+
+		for (int i = 0; i < 50; i++) {
+			client.getScore("user" + i);
+		}
+		Assert.assertEquals(50, server.requests().size());
+		// one after the other, every request goes out on the connection the previous one handed back
+		Assert.assertEquals(1, server.connections());
+	}
+
+	@Test
+	public void sendAsyncRespectsMaxInFlight() throws IOException {
+
+		server.delay(50);
+		final SiftClient bounded = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl()).maxInFlight(3).build();
+		try {
+			final List<CompletableFuture<SiftScienceResponse>> futures = new ArrayList<CompletableFuture<SiftScienceResponse>>();
+			for (int i = 0; i < 12; i++) {
+				final Login login = new Login();
+				login.setUserId("user" + i);
+				futures.add(bounded.sendAsync(login));
+			}
+
+			for (final CompletableFuture<SiftScienceResponse> future : futures) {
+				Assert.assertEquals(Integer.valueOf(0), future.join().getStatus());
+			}
+			Assert.assertEquals(12, server.requests().size());
+			Assert.assertTrue("Expected at most 3 concurrent requests, saw " + server.maxConcurrent(), server.maxConcurrent() <= 3);
+			Assert.assertEquals(0, bounded.getInFlight());
+		} finally {
+			bounded.close();
+		}
+	}
+
+	@Test
+	public void rateLimitPacesEachApiKeyOnItsOwn() {
+
+		final SiftClient paced = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl()).rateLimit(20, 1).build();
+		try {
+			final long start = System.nanoTime();
+			final List<CompletableFuture<SiftScienceResponse>> futures = new ArrayList<CompletableFuture<SiftScienceResponse>>();
+			for (int i = 0; i < 6; i++) {
+				futures.add(paced.sendAsync(new Logout()));
+				final Logout other = new Logout();
+				other.setApiKey("OTHER_API_KEY");
+				futures.add(paced.sendAsync(other));
+			}
+			for (final CompletableFuture<SiftScienceResponse> future : futures) {
+				Assert.assertEquals(Integer.valueOf(0), future.join().getStatus());
+			}
+			final long elapsedMillis = (System.nanoTime() - start) / 1000000;
+
+			// 6 requests per key at 20 per second take 250ms, whereas 12 on a shared limit would take 550ms
+			Assert.assertTrue("Took " + elapsedMillis + "ms", elapsedMillis >= 240 && elapsedMillis < 500);
+			Assert.assertEquals(12, server.requests().size());
+		} finally {
+			paced.close();
+		}
+	}
+
+	@Test
+	public void adaptiveConcurrencyBacksOffWhenThrottledAndRecovers() {
+
+		server.delay(20);
+		final SiftClient adaptive = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl()).maxInFlight(8)
+				.adaptiveConcurrency(new AdaptiveLimitConfig().setInitialLimit(8)).build();
+		try {
+			Assert.assertEquals(8, adaptive.getInFlightLimit());
+
+			server.reply(200, "{\"status\":60,\"error_message\":\"Rate limited\",\"time\":1454517138}");
+			for (int i = 0; i < 10; i++) {
+				adaptive.send(new Logout());
+			}
+			Assert.assertEquals(1, adaptive.getInFlightLimit());
+
+			server.reply(200, "{\"status\":0,\"error_message\":\"OK\",\"time\":1454517138}");
+			final List<Logout> events = new ArrayList<Logout>();
+			for (int i = 0; i < 40; i++) {
+				events.add(new Logout());
+			}
+			adaptive.sendAll(events);
+			Assert.assertTrue("Limit stuck at " + adaptive.getInFlightLimit(), adaptive.getInFlightLimit() > 2);
+		} finally {
+			adaptive.close();
+		}
+	}
+
+	@Test
+	public void adaptiveLimitBacksOffOncePerBurst() {
+
+		final AdaptiveLimit limit = new AdaptiveLimit(new AdaptiveLimitConfig().setInitialLimit(10).setBackoffRatio(0.5), 20);
+
+		// requests sent together and throttled together only count once
+		Assert.assertEquals(5, limit.onSample(0, 100, 10, true));
+		Assert.assertEquals(5, limit.onSample(10, 110, 10, true));
+		Assert.assertEquals(2, limit.onSample(150, 250, 5, true));
+
+		// a response over twice as slow as the fastest one is a sign of overload too
+		Assert.assertEquals(2, limit.onSample(300, 400, 2, false));
+		Assert.assertEquals(1, limit.onSample(500, 800, 2, false));
+	}
+
+	@Test
+	public void retryPolicyRetriesPassingFailuresOnly() {
+
+		final SiftClient retrying = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl())
+				.retryPolicy(new RetryPolicy().setDelays(1, 5, TimeUnit.MILLISECONDS)).build();
+		try {
+			server.replyOnce(200, "{\"status\":60,\"error_message\":\"Rate limited\",\"time\":1454517138}");
+			server.replyOnce(503, "<html>Service Unavailable</html>");
+			SiftScienceResponse response = retrying.send(new Logout());
+			Assert.assertEquals(Integer.valueOf(0), response.getStatus());
+			Assert.assertEquals(3, response.getAttempts());
+			Assert.assertEquals(3, server.requests().size());
+
+			// a bad field fails the same way however many times it is sent
+			server.replyOnce(200, "{\"status\":55,\"error_message\":\"Missing required field\",\"time\":1454517138}");
+			response = retrying.send(new Logout());
+			Assert.assertEquals(Integer.valueOf(55), response.getStatus());
+			Assert.assertEquals(1, response.getAttempts());
+			Assert.assertEquals(4, server.requests().size());
+
+			server.reply(503, "<html>Service Unavailable</html>");
+			try {
+				retrying.send(new Logout());
+				Assert.fail();
+			} catch (HttpStatusException e) {
+				Assert.assertEquals(503, e.getStatus());
+			}
+			Assert.assertEquals(7, server.requests().size());
+		} finally {
+			retrying.close();
+		}
+	}
+
+	@Test
+	public void deadlineCutsSlowCallsShort() {
+
+		server.delay(1000);
+		final long start = System.nanoTime();
+		try {
+			client.send(new Logout(), Deadline.after(100, TimeUnit.MILLISECONDS));
+			Assert.fail();
+		} catch (DeadlineExceededException e) {
+			Assert.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(800));
+		}
+
+		// nothing is sent once the deadline has passed
+		server.delay(0);
+		final int sent = server.requests().size();
+		try {
+			client.getScore("billy_jones_301", Deadline.after(0, TimeUnit.MILLISECONDS));
+			Assert.fail();
+		} catch (DeadlineExceededException e) {
+			Assert.assertEquals(sent, server.requests().size());
+		}
+	}
+
+	@Test
+	public void retriesStopShortOfTheDeadline() {
+
+		final SiftClient retrying = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl())
+				.retryPolicy(new RetryPolicy().setMaxAttempts(10).setDelays(150, 150, TimeUnit.MILLISECONDS)).build();
+		try {
+			server.reply(503, "<html>Service Unavailable</html>");
+			final long start = System.nanoTime();
+			try {
+				retrying.send(new Logout(), Deadline.after(250, TimeUnit.MILLISECONDS));
+				Assert.fail();
+			} catch (HttpStatusException e) {
+				// the last failure is handed back as soon as another retry would not fit in the deadline
+				Assert.assertEquals(503, e.getStatus());
+			}
+			Assert.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(250));
+			Assert.assertEquals(2, server.requests().size());
+		} finally {
+			retrying.close();
+		}
+	}
+
+	@Test
+	public void retryBudgetCapsRetries() {
+
+		final SiftClient retrying = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl())
+				.retryPolicy(new RetryPolicy().setDelays(1, 5, TimeUnit.MILLISECONDS).setBudget(new RetryBudget(0.5, 0))).build();
+		try {
+			server.reply(200, "{\"status\":60,\"error_message\":\"Rate limited\",\"time\":1454517138}");
+			int attempts = 0;
+			for (int i = 0; i < 10; i++) {
+				attempts += retrying.send(new Logout()).getAttempts();
+			}
+			// ten requests earn five retries between them
+			Assert.assertEquals(15, attempts);
+			Assert.assertEquals(15, server.requests().size());
+		} finally {
+			retrying.close();
+		}
+	}
+
+	@Test
+	public void decorrelatedJitterStaysWithinBounds() {
+
+		final RetryPolicy policy = new RetryPolicy().setDelays(100, 1000, TimeUnit.MILLISECONDS);
+		long delay = 0;
+		for (int i = 0; i < 100; i++) {
+			final long next = policy.nextDelayMillis(delay);
+			Assert.assertTrue(next >= 100 && next <= Math.min(1000, Math.max(100, delay * 3)));
+			delay = next;
+		}
+	}
+
+	@Test
+	public void openCircuitFailsFastAndFallsBackOnTheLastKnownScore() throws InterruptedException {
+
+		final SiftClient guarded = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl())
+				.circuitBreaker(new CircuitBreakerConfig().setWindowSize(4).setMinimumCalls(4).setHalfOpenProbes(1)
+						.setOpenDuration(200, TimeUnit.MILLISECONDS))
+				.scoreFallback(new LastKnownScoreFallback(100, new DefaultScoreFallback(0.1f))).build();
+		try {
+			server.reply(200, "{\"status\":0,\"error_message\":\"OK\",\"user_id\":\"billy_jones_301\",\"score\":0.25}");
+			Assert.assertEquals(Float.valueOf(0.25f), guarded.getScore("billy_jones_301").getScore());
+
+			// with the earlier success, three failures out of four open the circuit
+			server.reply(502, "<html>Bad Gateway</html>");
+			for (int i = 0; i < 3; i++) {
+				try {
+					guarded.getScore("billy_jones_301");
+					Assert.fail();
+				} catch (HttpStatusException e) {
+					Assert.assertEquals(502, e.getStatus());
+				}
+			}
+			Assert.assertEquals(CircuitState.OPEN, guarded.getCircuitState());
+			Assert.assertEquals(4, server.requests().size());
+
+			SiftScienceScore score = guarded.getScore("billy_jones_301");
+			Assert.assertEquals(Float.valueOf(0.25f), score.getScore());
+			Assert.assertEquals(0, score.getAttempts());
+			Assert.assertEquals(Float.valueOf(0.1f), guarded.getScore("someone_else").getScore());
+			try {
+				guarded.send(new Logout());
+				Assert.fail();
+			} catch (CircuitOpenException e) {
+				// expected
+			}
+			Assert.assertEquals(4, server.requests().size());
+
+			Thread.sleep(250);
+			server.reply(200, "{\"status\":0,\"error_message\":\"OK\",\"user_id\":\"billy_jones_301\",\"score\":0.5}");
+			score = guarded.getScore("billy_jones_301");
+			Assert.assertEquals(Float.valueOf(0.5f), score.getScore());
+			Assert.assertEquals(1, score.getAttempts());
+			Assert.assertEquals(CircuitState.CLOSED, guarded.getCircuitState());
+		} finally {
+			guarded.close();
+		}
+	}
+
+	@Test
+	public void scoreCacheServesRepeatsUntilALabelOrEventChangesTheScore() {
+
+		final SiftClient caching = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl())
+				.scoreCache(new ScoreCache(100, 1, TimeUnit.MINUTES)).build();
+		try {
+			server.reply(200, "{\"status\":0,\"error_message\":\"OK\",\"user_id\":\"billy_jones_301\",\"score\":0.5}");
+			Assert.assertEquals(1, caching.getScore("billy_jones_301").getAttempts());
+			final SiftScienceScore cached = caching.getScore("billy_jones_301");
+			Assert.assertEquals(Float.valueOf(0.5f), cached.getScore());
+			Assert.assertEquals(0, cached.getAttempts());
+			Assert.assertEquals(1, server.requests().size());
+			caching.getScore("another_user");
+			Assert.assertEquals(2, server.requests().size());
+
+			// a label drops the user's score, but no one else's
+			final Label label = new Label();
+			label.setIsBad(true).setReasons(new Reason[]{Reason.CHARGEBACK});
+			server.reply(200, "{\"status\":0,\"error_message\":\"OK\",\"time\":1454517138}");
+			caching.send("billy_jones_301", label);
+			server.reply(200, "{\"status\":0,\"error_message\":\"OK\",\"user_id\":\"billy_jones_301\",\"score\":0.9}");
+			Assert.assertEquals(Float.valueOf(0.9f), caching.getScore("billy_jones_301").getScore());
+			caching.getScore("another_user");
+			Assert.assertEquals(4, server.requests().size());
+
+			// so does a login, but not a logout
+			server.reply(200, "{\"status\":0,\"error_message\":\"OK\",\"time\":1454517138}");
+			caching.send(new Logout().setUserId("billy_jones_301"));
+			caching.getScore("billy_jones_301");
+			Assert.assertEquals(5, server.requests().size());
+			caching.send(new Login().setUserId("billy_jones_301").setLoginStatus(LoginStatus.SUCCESS));
+			server.reply(200, "{\"status\":0,\"error_message\":\"OK\",\"user_id\":\"billy_jones_301\",\"score\":0.1}");
+			Assert.assertEquals(Float.valueOf(0.1f), caching.getScore("billy_jones_301").getScore());
+			Assert.assertEquals(7, server.requests().size());
+
+			Assert.assertEquals(3, caching.getScoreCache().getHits());
+			Assert.assertEquals(4, caching.getScoreCache().getMisses());
+		} finally {
+			caching.close();
+		}
+	}
+
+	@Test
+	public void scoreCacheOnlyRemembersDroppedScoresWhileTheyAreAskedFor() {
+
+		final ScoreCache cache = new ScoreCache(100, 1, TimeUnit.MINUTES);
+		final SiftScienceScore score = new SiftScienceScore();
+		score.setStatus((short) 0);
+		score.setScore(0.5f);
+
+		cache.invalidate("CLIENT_API_KEY", "nobody");
+		Assert.assertEquals(0, cache.size());
+		cache.put("CLIENT_API_KEY", "billy_jones_301", score, System.nanoTime());
+		cache.invalidate("CLIENT_API_KEY", "billy_jones_301");
+		Assert.assertEquals(0, cache.size());
+
+		// a score asked for before it was dropped is not cached, and leaves nothing behind once answered
+		final long askedAt = cache.asking("CLIENT_API_KEY", "billy_jones_301");
+		cache.invalidate("CLIENT_API_KEY", "billy_jones_301");
+		Assert.assertEquals(1, cache.size());
+		cache.answered("CLIENT_API_KEY", "billy_jones_301", score, askedAt);
+		Assert.assertNull(cache.get("CLIENT_API_KEY", "billy_jones_301"));
+		Assert.assertEquals(0, cache.size());
+
+		cache.answered("CLIENT_API_KEY", "billy_jones_301", score, cache.asking("CLIENT_API_KEY", "billy_jones_301"));
+		Assert.assertEquals(Float.valueOf(0.5f), cache.get("CLIENT_API_KEY", "billy_jones_301").getScore());
+	}
+
+	@Test
+	public void sendAndScoreReadsTheScoreOffTheEventResponse() {
+
+		final SiftClient caching = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl())
+				.scoreCache(new ScoreCache(100, 1, TimeUnit.MINUTES)).build();
+		try {
+			server.reply(200, "{\"status\":0,\"error_message\":\"OK\",\"time\":1454517138,\"score_response\":"
+					+ "{\"status\":0,\"error_message\":\"OK\",\"user_id\":\"billy_jones_301\",\"score\":0.75}}");
+			final SiftScienceScore score = caching.sendAndScore(new Login().setUserId("billy_jones_301").setLoginStatus(LoginStatus.SUCCESS));
+			Assert.assertEquals(Float.valueOf(0.75f), score.getScore());
+			Assert.assertEquals(1, score.getAttempts());
+			Assert.assertEquals("/v203/events?return_action=true", server.requests().get(0).uri);
+
+			// the score is cached, so checking it again costs no round-trip
+			Assert.assertEquals(Float.valueOf(0.75f), caching.getScore("billy_jones_301").getScore());
+			Assert.assertEquals(1, server.requests().size());
+
+			server.reply(200, "{\"status\":55,\"error_message\":\"Missing required field\",\"time\":1454517138}");
+			try {
+				caching.sendAndScore(new Login().setUserId("billy_jones_301"));
+				Assert.fail();
+			} catch (SiftScienceException e) {
+				Assert.assertTrue(e.getMessage().contains("[55]"));
+			}
+		} finally {
+			caching.close();
+		}
+	}
+
+	@Test
+	public void concurrentScoreRequestsForAUserShareOneRequest() {
+
+		server.reply(200, "{\"status\":0,\"error_message\":\"OK\",\"user_id\":\"billy_jones_301\",\"score\":0.5}");
+		server.delay(100);
+
+		final List<CompletableFuture<SiftScienceScore>> scores = new ArrayList<CompletableFuture<SiftScienceScore>>();
+		for (int i = 0; i < 5; i++) {
+			scores.add(client.getScoreAsync("billy_jones_301"));
+		}
+		final SiftScienceScore other = client.getScoreAsync("another_user").join();
+
+		int attempts = 0;
+		for (final CompletableFuture<SiftScienceScore> score : scores) {
+			Assert.assertEquals(Float.valueOf(0.5f), score.join().getScore());
+			attempts += score.join().getAttempts();
+		}
+		Assert.assertEquals(1, attempts);
+		Assert.assertEquals(1, other.getAttempts());
+		Assert.assertEquals(2, server.requests().size());
+
+		// once answered, the next request goes to Sift Science again
+		client.getScore("billy_jones_301");
+		Assert.assertEquals(3, server.requests().size());
+
+		final SiftClient separate = SiftClient.builder().apiKey("CLIENT_API_KEY").baseUrl(server.baseUrl())
+				.coalesceScores(false).build();
+		try {
+			final CompletableFuture<SiftScienceScore> first = separate.getScoreAsync("billy_jones_301");
+			separate.getScoreAsync("billy_jones_301").join();
+			first.join();
+			Assert.assertEquals(5, server.requests().size());
+		} finally {
+			separate.close();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void aScoreRequestFailingUpFrontLeavesNoFlightBehind() {
+
+		for (int i = 0; i < 2; i++) {
+			try {
+				client.getScore((String)null); // the second one would wait for ever on the first one's flight
+				Assert.fail();
+			} catch (RuntimeException e) {
+				// no user to ask about
+			}
+		}
+		client.getScore("billy_jones_301");
+		Assert.assertEquals(1, server.requests().size());
+	}
+
+	@Test
+	public void aScoreRequestOutlivesTheDeadlineOfTheOneItJoined() {
+
+		server.reply(200, "{\"status\":0,\"error_message\":\"OK\",\"user_id\":\"billy_jones_301\",\"score\":0.5}");
+		server.delay(300);
+
+		final CompletableFuture<SiftScienceScore> hurried = client.getScoreAsync("CLIENT_API_KEY", "billy_jones_301",
+				Deadline.after(100, TimeUnit.MILLISECONDS));
+		final CompletableFuture<SiftScienceScore> patient = client.getScoreAsync("billy_jones_301");
+		try {
+			hurried.join();
+			Assert.fail();
+		} catch (CompletionException e) {
+			Assert.assertTrue(e.getCause() instanceof DeadlineExceededException);
+		}
+		Assert.assertEquals(Float.valueOf(0.5f), patient.join().getScore());
+		Assert.assertEquals(2, server.requests().size());
+	}
+
+	@Test
+	public void getScoreAsync() {
+
+		server.reply(200, "{\"status\":0,\"error_message\":\"OK\",\"user_id\":\"billy_jones_301\",\"score\":0.25}");
+
+		final SiftScienceScore score = client.getScoreAsync("billy_jones_301").join();
+		Assert.assertEquals(Float.valueOf(0.25f), score.getScore());
+	}
+}
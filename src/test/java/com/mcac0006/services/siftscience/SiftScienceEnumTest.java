@@ -0,0 +1,66 @@
+package com.mcac0006.services.siftscience;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.codehaus.jackson.map.JsonMappingException;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mcac0006.siftscience.event.domain.Transaction;
+import com.mcac0006.siftscience.types.PaymentGateway;
+import com.mcac0006.siftscience.types.Reason;
+import com.mcac0006.siftscience.types.TransactionStatus;
+import com.mcac0006.siftscience.types.TransactionType;
+
+public class SiftScienceEnumTest {
+
+	private static final String TRANSACTION = "{\"$type\":\"$transaction\",\"$user_id\":\"billy_jones_301\","
+			+ "\"$transaction_type\":\"$chargeback\",\"$transaction_status\":\"$success\"}";
+
+	@Test
+	public void everyConstantResolves() {
+
+		for (final PaymentGateway gateway : PaymentGateway.values()) {
+			Assert.assertSame(gateway, PaymentGateway.resolve(gateway.getSiftScienceValue()));
+		}
+		for (final Reason reason : Reason.values()) {
+			Assert.assertSame(reason, Reason.resolve(reason.getSiftScienceValue()));
+		}
+		for (final TransactionType type : TransactionType.values()) {
+			Assert.assertSame(type, TransactionType.lookup(type.getSiftScienceValue()));
+		}
+	}
+
+	@Test
+	public void unknownValues() {
+
+		Assert.assertNull(PaymentGateway.lookup("$bitpay"));
+		Assert.assertNull(PaymentGateway.lookup(null));
+		try {
+			PaymentGateway.resolve("$bitpay");
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			Assert.assertEquals("Payment Gateway [$bitpay] is not supported by this enum.", e.getMessage());
+		}
+	}
+
+	@Test(expected = JsonMappingException.class)
+	public void strictMapperRejectsUnknownValues() throws IOException {
+		new ObjectMapper().readValue(TRANSACTION, Transaction.class);
+	}
+
+	@Test
+	public void lenientMapperReadsUnknownValuesAsNull() throws IOException {
+
+		final ObjectMapper mapper = new ObjectMapper();
+		mapper.configure(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+		final Transaction transaction = mapper.readValue(TRANSACTION, Transaction.class);
+
+		Assert.assertNull(transaction.getTransactionType());
+		Assert.assertEquals(TransactionStatus.SUCCESS, transaction.getTransactionStatus());
+		Assert.assertEquals("billy_jones_301", transaction.getUserId());
+	}
+}
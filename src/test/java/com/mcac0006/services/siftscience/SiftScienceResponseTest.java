@@ -23,6 +23,7 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
@@ -38,6 +39,7 @@ import com.mcac0006.siftscience.score.domain.SiftScienceScore;
  */
 @RunWith(PowerMockRunner.class)
 @PrepareForTest(ClientBuilder.class)
+@PowerMockIgnore("jdk.internal.reflect.*")
 public class SiftScienceResponseTest {
 
 	@Mock
@@ -23,6 +23,7 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
@@ -37,6 +38,7 @@ import com.mcac0006.siftscience.score.domain.SiftScienceScore;
  */
 @RunWith(PowerMockRunner.class)
 @PrepareForTest(ClientBuilder.class)
+@PowerMockIgnore("jdk.internal.reflect.*")
 public class SiftScienceScoreTest {
 	
 	@Mock
@@ -101,6 +103,16 @@ public class SiftScienceScoreTest {
 		Assert.assertEquals(scoreToAssertAgainst, scoreFromSS);
 	}
 	
+	@Test
+	public void testStreamedScoreMatchesParsedString() throws IOException {
+		
+		final String json = IOUtils.toString(new FileInputStream("target/test-classes/score/$sift_score_sample_2.json"), "UTF-8");
+		final SiftScienceScore fromString = SiftScienceHelper.deserializeScore(json);
+		
+		Assert.assertEquals(fromString, SiftScienceHelper.deserializeScore(new FileInputStream("target/test-classes/score/$sift_score_sample_2.json")));
+		Assert.assertEquals(fromString, SiftScienceHelper.deserializeScore(json.getBytes("UTF-8")));
+	}
+	
 	@Test
 	public void testAnotherSuccessfulPath() throws IOException {
 		
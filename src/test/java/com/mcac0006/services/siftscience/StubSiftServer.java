@@ -0,0 +1,199 @@
+package com.mcac0006.services.siftscience;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.IOUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local stand-in for the Sift Science API which records every request it receives and
+ * replies with a canned JSON body.
+ */
+public final class StubSiftServer implements AutoCloseable {
+
+	/**
+	 * A request as seen by the stub.
+	 */
+	public static final class Recorded {
+		public final String method;
+		public final String uri;
+		public final String body;
+
+		/**
+		 * The request's <code>Content-Encoding</code>; the body has been decoded already.
+		 */
+		public final String contentEncoding;
+
+		private Recorded(final String method, final String uri, final String body, final String contentEncoding) {
+			this.method = method;
+			this.uri = uri;
+			this.body = body;
+			this.contentEncoding = contentEncoding;
+		}
+	}
+
+	private final HttpServer server;
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	private final AtomicInteger concurrent = new AtomicInteger();
+
+	private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+	private volatile long delayMillis;
+
+	private volatile boolean gzipReplies;
+
+	private final List<Recorded> requests = new CopyOnWriteArrayList<Recorded>();
+
+	/**
+	 * The client end of every connection a request came in on.
+	 */
+	private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+
+	private volatile int httpStatus = 200;
+
+	private volatile String responseBody = "{\"status\":0,\"error_message\":\"OK\",\"time\":1454517138}";
+
+	/**
+	 * One-off replies, given (in order) before falling back on the canned one.
+	 */
+	private final Queue<Object[]> onceReplies = new ConcurrentLinkedQueue<Object[]>();
+
+	static {
+		// otherwise Nagle's algorithm holds back each response body until the client's delayed ACK of the headers
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+	}
+
+	public StubSiftServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(final HttpExchange exchange) throws IOException {
+				final int now = concurrent.incrementAndGet();
+				try {
+					int max;
+					while (now > (max = maxConcurrent.get()) && !maxConcurrent.compareAndSet(max, now)) {
+						// retry
+					}
+					if (delayMillis > 0) {
+						Thread.sleep(delayMillis);
+					}
+					respond(exchange);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					concurrent.decrementAndGet();
+				}
+			}
+
+			private void respond(final HttpExchange exchange) throws IOException {
+				final String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+				final InputStream in = "gzip".equals(contentEncoding)
+						? new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody();
+				final String body = IOUtils.toString(in, "UTF-8");
+				connections.add(exchange.getRemoteAddress());
+				requests.add(new Recorded(exchange.getRequestMethod(), exchange.getRequestURI().toString(), body, contentEncoding));
+
+				final Object[] once = onceReplies.poll();
+				final int status = once != null ? (Integer)once[0] : httpStatus;
+				byte[] reply = (once != null ? (String)once[1] : responseBody).getBytes("UTF-8");
+				exchange.getResponseHeaders().add("Content-Type", "application/json");
+				final String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+				if (gzipReplies && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+					final ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+					final GZIPOutputStream gzip = new GZIPOutputStream(gzipped);
+					gzip.write(reply);
+					gzip.close();
+					reply = gzipped.toByteArray();
+					exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+				}
+				exchange.sendResponseHeaders(status, reply.length);
+				final OutputStream out = exchange.getResponseBody();
+				out.write(reply);
+				out.close();
+			}
+		});
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	/**
+	 * @return the base URL to hand to {@link com.mcac0006.siftscience.SiftClient.Builder#baseUrl(String)}.
+	 */
+	public String baseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + "/v203";
+	}
+
+	public StubSiftServer reply(final int httpStatus, final String responseBody) {
+		this.httpStatus = httpStatus;
+		this.responseBody = responseBody;
+		return this;
+	}
+
+	/**
+	 * Replies to the next request (after any other one-off replies) with the given body, rather than the canned one.
+	 */
+	public StubSiftServer replyOnce(final int httpStatus, final String responseBody) {
+		onceReplies.add(new Object[] { httpStatus, responseBody });
+		return this;
+	}
+
+	/**
+	 * Makes the stub gzip its replies to requests which accept it.
+	 */
+	public StubSiftServer gzipReplies(final boolean gzipReplies) {
+		this.gzipReplies = gzipReplies;
+		return this;
+	}
+
+	/**
+	 * Makes the stub hold on to every request for the given time before replying.
+	 */
+	public StubSiftServer delay(final long delayMillis) {
+		this.delayMillis = delayMillis;
+		return this;
+	}
+
+	/**
+	 * @return the highest number of requests the stub was handling at the same time.
+	 */
+	public int maxConcurrent() {
+		return maxConcurrent.get();
+	}
+
+	/**
+	 * @return how many distinct connections requests came in on.
+	 */
+	public int connections() {
+		return connections.size();
+	}
+
+	public List<Recorded> requests() {
+		return requests;
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+}